@@ -59,6 +59,7 @@ public class AnalogAppWidgetProvider extends AppWidgetProvider {
         super.onUpdate(context, wm, widgetIds);
 
         for (int widgetId : widgetIds) {
+            final WidgetStats.Update update = new WidgetStats.Update();
             final String packageName = context.getPackageName();
             final RemoteViews widget = new RemoteViews(packageName, R.layout.analog_appwidget);
 
@@ -69,7 +70,17 @@ public class AnalogAppWidgetProvider extends AppWidgetProvider {
                 widget.setOnClickPendingIntent(R.id.analog_appwidget, pi);
             }
 
+            update.onBuilt();
             wm.updateAppWidget(widgetId, widget);
+
+            final WidgetStats stats = WidgetStats.getWidgetStats();
+            stats.recordUpdate(AnalogAppWidgetProvider.class, widgetId, update, widget);
         }
     }
+
+    @Override
+    public void onDeleted(Context context, int[] widgetIds) {
+        super.onDeleted(context, widgetIds);
+        WidgetStats.getWidgetStats().removeWidgets(widgetIds);
+    }
 }
\ No newline at end of file
@@ -28,6 +28,7 @@ import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.SystemClock;
 import androidx.annotation.NonNull;
 import android.text.TextUtils;
 import android.text.format.DateFormat;
@@ -173,6 +174,12 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
         }
     }
 
+    @Override
+    public void onDeleted(Context context, int[] widgetIds) {
+        super.onDeleted(context, widgetIds);
+        WidgetStats.getWidgetStats().removeWidgets(widgetIds);
+    }
+
     /**
      * Called when the app widget changes sizes.
      */
@@ -191,18 +198,24 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
      */
     private static void relayoutWidget(Context context, AppWidgetManager wm, int widgetId,
             Bundle options) {
-        final RemoteViews portrait = relayoutWidget(context, wm, widgetId, options, true);
-        final RemoteViews landscape = relayoutWidget(context, wm, widgetId, options, false);
+        final WidgetStats.Update update = new WidgetStats.Update();
+        final RemoteViews portrait = relayoutWidget(context, wm, widgetId, options, true, update);
+        final RemoteViews landscape =
+                relayoutWidget(context, wm, widgetId, options, false, update);
         final RemoteViews widget = new RemoteViews(landscape, portrait);
+        update.onBuilt();
         wm.updateAppWidget(widgetId, widget);
         wm.notifyAppWidgetViewDataChanged(widgetId, R.id.world_city_list);
+
+        final WidgetStats stats = WidgetStats.getWidgetStats();
+        stats.recordUpdate(DigitalAppWidgetProvider.class, widgetId, update, widget);
     }
 
     /**
      * Compute optimal font and icon sizes offscreen for the given orientation.
      */
     private static RemoteViews relayoutWidget(Context context, AppWidgetManager wm, int widgetId,
-            Bundle options, boolean portrait) {
+            Bundle options, boolean portrait, WidgetStats.Update update) {
         // Create a remote view for the digital clock.
         final String packageName = context.getPackageName();
         final RemoteViews rv = new RemoteViews(packageName, R.layout.digital_widget);
@@ -249,7 +262,7 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
         final Sizes template = new Sizes(targetWidthPx, targetHeightPx, largestClockFontSizePx);
 
         // Compute optimal font sizes and icon sizes to fit within the widget bounds.
-        final Sizes sizes = optimizeSizes(context, template, nextAlarmTime);
+        final Sizes sizes = optimizeSizes(context, template, nextAlarmTime, update);
         if (LOGGER.isVerboseLoggable()) {
             LOGGER.v(sizes.toString());
         }
@@ -288,7 +301,8 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
      * Inflate an offscreen copy of the widget views. Binary search through the range of sizes until
      * the optimal sizes that fit within the widget bounds are located.
      */
-    private static Sizes optimizeSizes(Context context, Sizes template, String nextAlarmTime) {
+    private static Sizes optimizeSizes(Context context, Sizes template, String nextAlarmTime,
+            WidgetStats.Update update) {
         // Inflate a test layout to compute sizes at different font sizes.
         final LayoutInflater inflater = LayoutInflater.from(context);
         @SuppressLint("InflateParams")
@@ -314,13 +328,13 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
         }
 
         // Measure the widget at the largest possible size.
-        Sizes high = measure(template, template.getLargestClockFontSizePx(), sizer);
+        Sizes high = measure(template, template.getLargestClockFontSizePx(), sizer, update);
         if (!high.hasViolations()) {
             return high;
         }
 
         // Measure the widget at the smallest possible size.
-        Sizes low = measure(template, template.getSmallestClockFontSizePx(), sizer);
+        Sizes low = measure(template, template.getSmallestClockFontSizePx(), sizer, update);
         if (low.hasViolations()) {
             return low;
         }
@@ -332,7 +346,8 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
                 return low;
             }
 
-            final Sizes midSize = measure(template, midFontSize, sizer);
+            update.onSearchIteration();
+            final Sizes midSize = measure(template, midFontSize, sizer, update);
             if (midSize.hasViolations()) {
                 high = midSize;
             } else {
@@ -395,7 +410,10 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
      * the offscreen {@code sizer} view. Measure the {@code sizer} view and return the resulting
      * size measurements.
      */
-    private static Sizes measure(Sizes template, int clockFontSize, View sizer) {
+    private static Sizes measure(Sizes template, int clockFontSize, View sizer,
+            WidgetStats.Update update) {
+        final long startNanos = SystemClock.elapsedRealtimeNanos();
+
         // Create a copy of the given template sizes.
         final Sizes measuredSizes = template.newSize();
 
@@ -431,8 +449,10 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
         // If an alarm icon is required, generate one from the TextView with the special font.
         if (nextAlarmIcon.getVisibility() == VISIBLE) {
             measuredSizes.mIconBitmap = Utils.createBitmap(nextAlarmIcon);
+            update.onBitmapCreated(measuredSizes.mIconBitmap);
         }
 
+        update.onMeasured(startNanos);
         return measuredSizes;
     }
 
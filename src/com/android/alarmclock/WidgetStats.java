@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.alarmclock;
+
+import android.graphics.Bitmap;
+import android.os.Parcel;
+import android.os.SystemClock;
+import android.util.SparseArray;
+import android.widget.RemoteViews;
+
+import com.android.deskclock.LogUtils;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Aggregates the cost of producing app widget updates in this process, per widget id, so the
+ * widget configurations that consume the most CPU can be identified. The statistics are exposed
+ * through {@link #dump} which is reachable via {@code dumpsys activity} and
+ * {@link WidgetStatsActivity}.
+ */
+public final class WidgetStats {
+
+    /** The single instance of this class. */
+    private static final WidgetStats sWidgetStats = new WidgetStats();
+
+    /** Maps each widget id to the statistics of its updates. */
+    private final SparseArray<WidgetRecord> mRecords = new SparseArray<>();
+
+    /** The time at which statistics began accumulating. */
+    private final long mStartTime = SystemClock.elapsedRealtime();
+
+    /**
+     * {@code true} while update payloads are measured. Measuring parcels each update a second
+     * time, so it is only done in debug builds or while the statistics are being viewed.
+     */
+    private volatile boolean mMeasurePayloads = LogUtils.Logger.DEBUG;
+
+    public static WidgetStats getWidgetStats() {
+        return sWidgetStats;
+    }
+
+    private WidgetStats() {}
+
+    /**
+     * @param measure {@code true} to measure the payload of subsequent updates; {@code false} to
+     *      measure them only in debug builds
+     */
+    void setMeasurePayloads(boolean measure) {
+        mMeasurePayloads = measure || LogUtils.Logger.DEBUG;
+    }
+
+    /**
+     * @param provider the class of the provider that produced the update
+     * @param widgetId identifies the widget that was updated
+     * @param update the costs accumulated while producing and delivering the update
+     * @param widget the remote views delivered to the widget
+     */
+    void recordUpdate(Class<?> provider, int widgetId, Update update, RemoteViews widget) {
+        final long endNanos = SystemClock.elapsedRealtimeNanos();
+        final long builtNanos = update.mBuiltNanos == 0 ? endNanos : update.mBuiltNanos;
+        final long relayoutNanos = builtNanos - update.mStartNanos;
+        final long deliveryNanos = endNanos - builtNanos;
+        final int payloadBytes = mMeasurePayloads ? getPayloadSize(widget) : -1;
+
+        synchronized (mRecords) {
+            WidgetRecord record = mRecords.get(widgetId);
+            if (record == null) {
+                record = new WidgetRecord(provider.getSimpleName());
+                mRecords.put(widgetId, record);
+            }
+
+            record.mUpdateCount++;
+            record.mRelayoutNanos += relayoutNanos;
+            record.mMaxRelayoutNanos = Math.max(record.mMaxRelayoutNanos, relayoutNanos);
+            record.mDeliveryNanos += deliveryNanos;
+            record.mMaxDeliveryNanos = Math.max(record.mMaxDeliveryNanos, deliveryNanos);
+            record.mMeasureCount += update.mMeasureCount;
+            record.mMeasureNanos += update.mMeasureNanos;
+            record.mSearchIterations += update.mSearchIterations;
+            record.mBitmapBytes += update.mBitmapBytes;
+            if (payloadBytes >= 0) {
+                record.mPayloadCount++;
+                record.mPayloadBytes += payloadBytes;
+                record.mLastPayloadBytes = payloadBytes;
+            }
+        }
+    }
+
+    /**
+     * @param widgetIds identifies widgets that were deleted and whose statistics may be discarded
+     */
+    void removeWidgets(int[] widgetIds) {
+        synchronized (mRecords) {
+            for (int widgetId : widgetIds) {
+                mRecords.remove(widgetId);
+            }
+        }
+    }
+
+    /**
+     * Writes the statistics of each widget in a human readable form.
+     */
+    public void dump(PrintWriter pw) {
+        synchronized (mRecords) {
+            final long elapsedSeconds = (SystemClock.elapsedRealtime() - mStartTime) / 1000;
+            pw.printf(Locale.US, "Widget stats over %ds:%n", elapsedSeconds);
+            pw.println("  relayout excludes the AppWidgetManager calls, reported as delivery");
+            pw.printf(Locale.US, "  payloads are measured only in debug builds and while"
+                    + " WidgetStatsActivity is open (measuring now: %b)%n", mMeasurePayloads);
+            if (mRecords.size() == 0) {
+                pw.println("  no widget updates");
+            }
+
+            for (int i = 0; i < mRecords.size(); i++) {
+                final WidgetRecord record = mRecords.valueAt(i);
+                final int updates = record.mUpdateCount;
+                pw.printf(Locale.US, "  %s #%d: %d updates%n", record.mProvider,
+                        mRecords.keyAt(i), updates);
+                pw.printf(Locale.US, "    relayout: %.2fms avg, %.2fms max, %.2fms total%n",
+                        toMillis(record.mRelayoutNanos) / updates,
+                        toMillis(record.mMaxRelayoutNanos), toMillis(record.mRelayoutNanos));
+                pw.printf(Locale.US, "    delivery: %.2fms avg, %.2fms max, %.2fms total%n",
+                        toMillis(record.mDeliveryNanos) / updates,
+                        toMillis(record.mMaxDeliveryNanos), toMillis(record.mDeliveryNanos));
+                pw.printf(Locale.US, "    measure: %d passes, %.2fms total, %d search iterations%n",
+                        record.mMeasureCount, toMillis(record.mMeasureNanos),
+                        record.mSearchIterations);
+                pw.printf(Locale.US, "    bitmaps: %d bytes total%n", record.mBitmapBytes);
+                if (record.mPayloadCount == 0) {
+                    pw.println("    payload: not measured");
+                } else {
+                    pw.printf(Locale.US, "    payload: %d bytes last, %d bytes total over %d"
+                            + " measured updates%n", record.mLastPayloadBytes,
+                            record.mPayloadBytes, record.mPayloadCount);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the size in bytes of the {@code widget} when it is sent to the app widget host
+     */
+    private static int getPayloadSize(RemoteViews widget) {
+        final Parcel parcel = Parcel.obtain();
+        try {
+            widget.writeToParcel(parcel, 0);
+            return parcel.dataSize();
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000d;
+    }
+
+    /**
+     * Accumulates the costs of producing a single widget update. Instances are confined to the
+     * thread producing the update.
+     */
+    static final class Update {
+
+        private final long mStartNanos = SystemClock.elapsedRealtimeNanos();
+
+        /** The time at which the remote views were complete; 0 until {@link #onBuilt}. */
+        private long mBuiltNanos;
+
+        private int mMeasureCount;
+        private long mMeasureNanos;
+        private int mSearchIterations;
+        private long mBitmapBytes;
+
+        /**
+         * @param startNanos the time at which the measure pass began
+         */
+        void onMeasured(long startNanos) {
+            mMeasureCount++;
+            mMeasureNanos += SystemClock.elapsedRealtimeNanos() - startNanos;
+        }
+
+        /**
+         * Marks the end of the relayout; the time that follows is spent delivering the update.
+         */
+        void onBuilt() {
+            mBuiltNanos = SystemClock.elapsedRealtimeNanos();
+        }
+
+        void onSearchIteration() {
+            mSearchIterations++;
+        }
+
+        void onBitmapCreated(Bitmap bitmap) {
+            if (bitmap != null) {
+                mBitmapBytes += bitmap.getByteCount();
+            }
+        }
+    }
+
+    /**
+     * The statistics accumulated for a single widget id.
+     */
+    private static final class WidgetRecord {
+
+        private final String mProvider;
+
+        private int mUpdateCount;
+        private long mRelayoutNanos;
+        private long mMaxRelayoutNanos;
+        private long mDeliveryNanos;
+        private long mMaxDeliveryNanos;
+        private int mMeasureCount;
+        private long mMeasureNanos;
+        private int mSearchIterations;
+        private long mBitmapBytes;
+        private int mPayloadCount;
+        private long mPayloadBytes;
+        private int mLastPayloadBytes;
+
+        private WidgetRecord(String provider) {
+            mProvider = provider;
+        }
+    }
+}
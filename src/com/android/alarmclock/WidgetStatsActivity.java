@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.alarmclock;
+
+import android.app.Activity;
+import android.graphics.Typeface;
+import android.os.Bundle;
+import android.widget.ScrollView;
+import android.widget.TextView;
+
+import com.android.deskclock.R;
+
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * A debugging aid that displays the {@link WidgetStats} of this process. It is protected by the
+ * DUMP permission and may be launched from a shell with:
+ * <pre>
+ * adb shell am start -n com.android.deskclock/com.android.alarmclock.WidgetStatsActivity
+ * </pre>
+ */
+public class WidgetStatsActivity extends Activity {
+
+    private TextView mStatsView;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        final int padding =
+                getResources().getDimensionPixelSize(R.dimen.alarm_clock_vertical_margin);
+        mStatsView = new TextView(this);
+        mStatsView.setTypeface(Typeface.MONOSPACE);
+        mStatsView.setTextIsSelectable(true);
+        mStatsView.setPadding(padding, padding, padding, padding);
+
+        final ScrollView scrollView = new ScrollView(this);
+        scrollView.addView(mStatsView);
+        setContentView(scrollView);
+
+        // Measure the payloads of widget updates while the statistics are being viewed.
+        WidgetStats.getWidgetStats().setMeasurePayloads(true);
+    }
+
+    @Override
+    protected void onDestroy() {
+        WidgetStats.getWidgetStats().setMeasurePayloads(false);
+        super.onDestroy();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+
+        // Widgets may have updated while this activity was in the background.
+        final StringWriter stats = new StringWriter();
+        final PrintWriter pw = new PrintWriter(stats);
+        WidgetStats.getWidgetStats().dump(pw);
+        pw.flush();
+        mStatsView.setText(stats.toString());
+    }
+
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+        WidgetStats.getWidgetStats().dump(writer);
+    }
+}
@@ -110,75 +110,80 @@ public final class AlarmClockFragment extends DeskClockFragment implements
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedState) {
-        // Inflate the layout for this fragment
-        final View v = inflater.inflate(R.layout.alarm_clock, container, false);
-        final Context context = getActivity();
-
-        mRecyclerView = (RecyclerView) v.findViewById(R.id.alarms_recycler_view);
-        mLayoutManager = new LinearLayoutManager(context) {
-            @Override
-            protected int getExtraLayoutSpace(RecyclerView.State state) {
-                final int extraSpace = super.getExtraLayoutSpace(state);
-                if (state.willRunPredictiveAnimations()) {
-                    return Math.max(getHeight(), extraSpace);
+        final long startNanos = StartupTrace.beginSection("AlarmClockFragment.onCreateView");
+        try {
+            // Inflate the layout for this fragment
+            final View v = inflater.inflate(R.layout.alarm_clock, container, false);
+            final Context context = getActivity();
+
+            mRecyclerView = (RecyclerView) v.findViewById(R.id.alarms_recycler_view);
+            mLayoutManager = new LinearLayoutManager(context) {
+                @Override
+                protected int getExtraLayoutSpace(RecyclerView.State state) {
+                    final int extraSpace = super.getExtraLayoutSpace(state);
+                    if (state.willRunPredictiveAnimations()) {
+                        return Math.max(getHeight(), extraSpace);
+                    }
+                    return extraSpace;
                 }
-                return extraSpace;
-            }
-        };
-        mRecyclerView.setLayoutManager(mLayoutManager);
-        mMainLayout = (ViewGroup) v.findViewById(R.id.main);
-        mAlarmUpdateHandler = new AlarmUpdateHandler(context, this, mMainLayout);
-        final TextView emptyView = (TextView) v.findViewById(R.id.alarms_empty_view);
-        final Drawable noAlarms = Utils.getVectorDrawable(context, R.drawable.ic_noalarms);
-        emptyView.setCompoundDrawablesWithIntrinsicBounds(null, noAlarms, null, null);
-        mEmptyViewController = new EmptyViewController(mMainLayout, mRecyclerView, emptyView);
-        mAlarmTimeClickHandler = new AlarmTimeClickHandler(this, savedState, mAlarmUpdateHandler,
-                this);
-
-        mItemAdapter = new ItemAdapter<>();
-        mItemAdapter.setHasStableIds();
-        mItemAdapter.withViewTypes(new CollapsedAlarmViewHolder.Factory(inflater),
-                null, CollapsedAlarmViewHolder.VIEW_TYPE);
-        mItemAdapter.withViewTypes(new ExpandedAlarmViewHolder.Factory(context),
-                null, ExpandedAlarmViewHolder.VIEW_TYPE);
-        mItemAdapter.setOnItemChangedListener(new ItemAdapter.OnItemChangedListener() {
-            @Override
-            public void onItemChanged(ItemAdapter.ItemHolder<?> holder) {
-                if (((AlarmItemHolder) holder).isExpanded()) {
-                    if (mExpandedAlarmId != holder.itemId) {
-                        // Collapse the prior expanded alarm.
-                        final AlarmItemHolder aih = mItemAdapter.findItemById(mExpandedAlarmId);
-                        if (aih != null) {
-                            aih.collapse();
-                        }
-                        // Record the freshly expanded alarm.
-                        mExpandedAlarmId = holder.itemId;
-                        final RecyclerView.ViewHolder viewHolder =
-                                mRecyclerView.findViewHolderForItemId(mExpandedAlarmId);
-                        if (viewHolder != null) {
-                            smoothScrollTo(viewHolder.getAdapterPosition());
+            };
+            mRecyclerView.setLayoutManager(mLayoutManager);
+            mMainLayout = (ViewGroup) v.findViewById(R.id.main);
+            mAlarmUpdateHandler = new AlarmUpdateHandler(context, this, mMainLayout);
+            final TextView emptyView = (TextView) v.findViewById(R.id.alarms_empty_view);
+            final Drawable noAlarms = Utils.getVectorDrawable(context, R.drawable.ic_noalarms);
+            emptyView.setCompoundDrawablesWithIntrinsicBounds(null, noAlarms, null, null);
+            mEmptyViewController = new EmptyViewController(mMainLayout, mRecyclerView, emptyView);
+            mAlarmTimeClickHandler = new AlarmTimeClickHandler(this, savedState,
+                    mAlarmUpdateHandler, this);
+
+            mItemAdapter = new ItemAdapter<>();
+            mItemAdapter.setHasStableIds();
+            mItemAdapter.withViewTypes(new CollapsedAlarmViewHolder.Factory(inflater),
+                    null, CollapsedAlarmViewHolder.VIEW_TYPE);
+            mItemAdapter.withViewTypes(new ExpandedAlarmViewHolder.Factory(context),
+                    null, ExpandedAlarmViewHolder.VIEW_TYPE);
+            mItemAdapter.setOnItemChangedListener(new ItemAdapter.OnItemChangedListener() {
+                @Override
+                public void onItemChanged(ItemAdapter.ItemHolder<?> holder) {
+                    if (((AlarmItemHolder) holder).isExpanded()) {
+                        if (mExpandedAlarmId != holder.itemId) {
+                            // Collapse the prior expanded alarm.
+                            final AlarmItemHolder aih = mItemAdapter.findItemById(mExpandedAlarmId);
+                            if (aih != null) {
+                                aih.collapse();
+                            }
+                            // Record the freshly expanded alarm.
+                            mExpandedAlarmId = holder.itemId;
+                            final RecyclerView.ViewHolder viewHolder =
+                                    mRecyclerView.findViewHolderForItemId(mExpandedAlarmId);
+                            if (viewHolder != null) {
+                                smoothScrollTo(viewHolder.getAdapterPosition());
+                            }
                         }
+                    } else if (mExpandedAlarmId == holder.itemId) {
+                        // The expanded alarm is now collapsed so update the tracking id.
+                        mExpandedAlarmId = Alarm.INVALID_ID;
                     }
-                } else if (mExpandedAlarmId == holder.itemId) {
-                    // The expanded alarm is now collapsed so update the tracking id.
-                    mExpandedAlarmId = Alarm.INVALID_ID;
                 }
-            }
 
-            @Override
-            public void onItemChanged(ItemAdapter.ItemHolder<?> holder, Object payload) {
-                /* No additional work to do */
-            }
-        });
-        final ScrollPositionWatcher scrollPositionWatcher = new ScrollPositionWatcher();
-        mRecyclerView.addOnLayoutChangeListener(scrollPositionWatcher);
-        mRecyclerView.addOnScrollListener(scrollPositionWatcher);
-        mRecyclerView.setAdapter(mItemAdapter);
-        final ItemAnimator itemAnimator = new ItemAnimator();
-        itemAnimator.setChangeDuration(300L);
-        itemAnimator.setMoveDuration(300L);
-        mRecyclerView.setItemAnimator(itemAnimator);
-        return v;
+                @Override
+                public void onItemChanged(ItemAdapter.ItemHolder<?> holder, Object payload) {
+                    /* No additional work to do */
+                }
+            });
+            final ScrollPositionWatcher scrollPositionWatcher = new ScrollPositionWatcher();
+            mRecyclerView.addOnLayoutChangeListener(scrollPositionWatcher);
+            mRecyclerView.addOnScrollListener(scrollPositionWatcher);
+            mRecyclerView.setAdapter(mItemAdapter);
+            final ItemAnimator itemAnimator = new ItemAnimator();
+            itemAnimator.setChangeDuration(300L);
+            itemAnimator.setMoveDuration(300L);
+            mRecyclerView.setItemAnimator(itemAnimator);
+            return v;
+        } finally {
+            StartupTrace.endSection("AlarmClockFragment.onCreateView", startNanos);
+        }
     }
 
     @Override
@@ -20,18 +20,21 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
+import android.graphics.Rect;
 import androidx.appcompat.widget.AppCompatImageView;
 import android.text.format.DateFormat;
 import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.FrameLayout;
 import android.widget.ImageView;
 
+import com.android.deskclock.uidata.UiDataModel;
+
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.TimeZone;
 
-import static android.text.format.DateUtils.SECOND_IN_MILLIS;
-
 /**
  * This widget display an analog clock with two hands for hours and minutes.
  */
@@ -48,19 +51,26 @@ public class AnalogClock extends FrameLayout {
         }
     };
 
+    /** Called on the shared second or minute tick while this clock is on screen. */
     private final Runnable mClockTick = new Runnable() {
         @Override
         public void run() {
             onTimeChanged();
-
-            if (mEnableSeconds) {
-                final long now = System.currentTimeMillis();
-                final long delay = SECOND_IN_MILLIS - now % SECOND_IN_MILLIS;
-                postDelayed(this, delay);
-            }
         }
     };
 
+    /** Suspends the clock tick when scrolling moves this clock off screen, e.g. an inactive tab. */
+    private final ViewTreeObserver.OnScrollChangedListener mScrollChangedListener =
+            new ViewTreeObserver.OnScrollChangedListener() {
+                @Override
+                public void onScrollChanged() {
+                    updateTickSuspension();
+                }
+            };
+
+    /** Used to determine whether any part of this clock is on screen. */
+    private final Rect mVisibleRect = new Rect();
+
     private final ImageView mHourHand;
     private final ImageView mMinuteHand;
     private final ImageView mSecondHand;
@@ -70,6 +80,9 @@ public class AnalogClock extends FrameLayout {
     private TimeZone mTimeZone;
     private boolean mEnableSeconds = true;
 
+    /** {@code true} while {@link #mClockTick} is registered for periodic callbacks. */
+    private boolean mTicking;
+
     public AnalogClock(Context context) {
         this(context, null /* attrs */);
     }
@@ -112,7 +125,6 @@ public class AnalogClock extends FrameLayout {
         super.onAttachedToWindow();
 
         final IntentFilter filter = new IntentFilter();
-        filter.addAction(Intent.ACTION_TIME_TICK);
         filter.addAction(Intent.ACTION_TIME_CHANGED);
         filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
         getContext().registerReceiver(mIntentReceiver, filter);
@@ -122,10 +134,9 @@ public class AnalogClock extends FrameLayout {
         mTime = Calendar.getInstance(mTimeZone != null ? mTimeZone : TimeZone.getDefault());
         onTimeChanged();
 
-        // Tick every second.
-        if (mEnableSeconds) {
-            mClockTick.run();
-        }
+        // Tick every second or minute along with every other periodic callback.
+        getViewTreeObserver().addOnScrollChangedListener(mScrollChangedListener);
+        startTicking();
     }
 
     @Override
@@ -133,7 +144,58 @@ public class AnalogClock extends FrameLayout {
         super.onDetachedFromWindow();
 
         getContext().unregisterReceiver(mIntentReceiver);
-        removeCallbacks(mClockTick);
+        getViewTreeObserver().removeOnScrollChangedListener(mScrollChangedListener);
+        stopTicking();
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        updateTickSuspension();
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateTickSuspension();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateTickSuspension();
+    }
+
+    private void startTicking() {
+        if (mTicking) {
+            return;
+        }
+
+        final UiDataModel uiDataModel = UiDataModel.getUiDataModel();
+        if (mEnableSeconds) {
+            uiDataModel.addSecondCallback(mClockTick, 0);
+        } else {
+            uiDataModel.addMinuteCallback(mClockTick, 0);
+        }
+        mTicking = true;
+        updateTickSuspension();
+    }
+
+    private void stopTicking() {
+        if (mTicking) {
+            UiDataModel.getUiDataModel().removePeriodicCallback(mClockTick);
+            mTicking = false;
+        }
+    }
+
+    /**
+     * Ticking is suspended while no part of this clock is visible on screen.
+     */
+    private void updateTickSuspension() {
+        if (mTicking) {
+            final boolean onScreen = isShown() && getGlobalVisibleRect(mVisibleRect);
+            UiDataModel.getUiDataModel().setPeriodicCallbackSuspended(mClockTick, !onScreen);
+        }
     }
 
     private void onTimeChanged() {
@@ -157,12 +219,18 @@ public class AnalogClock extends FrameLayout {
     }
 
     public void enableSeconds(boolean enable) {
+        if (mEnableSeconds == enable) {
+            return;
+        }
+
         mEnableSeconds = enable;
-        if (mEnableSeconds) {
-            mSecondHand.setVisibility(VISIBLE);
-            mClockTick.run();
-        } else {
-            mSecondHand.setVisibility(GONE);
+        mSecondHand.setVisibility(mEnableSeconds ? VISIBLE : GONE);
+
+        // Switch between the second and minute ticks.
+        if (mTicking) {
+            stopTicking();
+            startTicking();
         }
+        onTimeChanged();
     }
 }
@@ -17,6 +17,7 @@
 package com.android.deskclock;
 
 import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.animation.ArgbEvaluator;
 import android.animation.ObjectAnimator;
 import android.animation.PropertyValuesHolder;
@@ -281,6 +282,31 @@ public class AnimatorUtils {
                 PropertyValuesHolder.ofInt(VIEW_BOTTOM, toBottom));
     }
 
+    /**
+     * Renders each of the given {@code views} into a hardware layer while {@code animator} runs.
+     * This is appropriate when the views fade but their content does not change; the layer is
+     * then composited with the animated alpha each frame rather than redrawn.
+     */
+    public static void addLayerListener(Animator animator, final View... views) {
+        final int[] layerTypes = new int[views.length];
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationStart(Animator animator) {
+                for (int i = 0; i < views.length; i++) {
+                    layerTypes[i] = views[i].getLayerType();
+                    views[i].setLayerType(View.LAYER_TYPE_HARDWARE, null);
+                }
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animator) {
+                for (int i = 0; i < views.length; i++) {
+                    views[i].setLayerType(layerTypes[i], null);
+                }
+            }
+        });
+    }
+
     public static void startDrawableAnimation(ImageView view) {
         final Drawable d = view.getDrawable();
         if (d instanceof Animatable) {
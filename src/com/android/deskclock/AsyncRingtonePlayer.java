@@ -207,8 +207,10 @@ public final class AsyncRingtonePlayer {
         // Convert the target gain (in decibels) into the corresponding volume scalar.
         final float volume = (float) Math.pow(10f, gain/20f);
 
-        LOGGER.v("Ringtone crescendo %,.2f%% complete (scalar: %f, volume: %f dB)",
-                fractionComplete * 100, volume, gain);
+        if (LOGGER.isVerboseLoggable()) {
+            LOGGER.v("Ringtone crescendo %,.2f%% complete (scalar: %f, volume: %f dB)",
+                    fractionComplete * 100, volume, gain);
+        }
 
         return volume;
     }
@@ -291,7 +293,7 @@ public final class AsyncRingtonePlayer {
             // Fall back to the system default alarm if the database does not have an alarm stored.
             if (alarmNoise == null) {
                 alarmNoise = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM);
-                LOGGER.v("Using default alarm: " + alarmNoise.toString());
+                LOGGER.v("Using default alarm: %s", alarmNoise);
             }
 
             mMediaPlayer = new MediaPlayer();
@@ -371,6 +373,7 @@ public final class AsyncRingtonePlayer {
             mMediaPlayer.prepare();
             mAudioManager.requestAudioFocus(null, STREAM_ALARM, AUDIOFOCUS_GAIN_TRANSIENT);
             mMediaPlayer.start();
+            StartupTrace.markStartupEnded("First ringtone playback");
 
             return scheduleVolumeAdjustment;
         }
@@ -425,7 +428,9 @@ public final class AsyncRingtonePlayer {
             // The current volume of the crescendo is the percentage of the crescendo completed.
             final float volume = computeVolume(currentTime, mCrescendoStopTime, mCrescendoDuration);
             mMediaPlayer.setVolume(volume, volume);
-            LOGGER.i("MediaPlayer volume set to " + volume);
+            if (LOGGER.isVerboseLoggable()) {
+                LOGGER.v("MediaPlayer volume set to %f", volume);
+            }
 
             // Schedule the next volume bump in the crescendo.
             return true;
@@ -564,6 +569,7 @@ public final class AsyncRingtonePlayer {
             mAudioManager.requestAudioFocus(null, STREAM_ALARM, AUDIOFOCUS_GAIN_TRANSIENT);
 
             mRingtone.play();
+            StartupTrace.markStartupEnded("First ringtone playback");
 
             return scheduleVolumeAdjustment;
         }
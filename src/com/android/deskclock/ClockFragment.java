@@ -46,6 +46,7 @@ import com.android.deskclock.data.City;
 import com.android.deskclock.data.CityListener;
 import com.android.deskclock.data.DataModel;
 import com.android.deskclock.events.Events;
+import com.android.deskclock.uidata.TabListener;
 import com.android.deskclock.uidata.UiDataModel;
 import com.android.deskclock.worldclock.CitySelectionActivity;
 
@@ -68,6 +69,9 @@ public final class ClockFragment extends DeskClockFragment {
     // Updates dates in the UI on every quarter-hour.
     private final Runnable mQuarterHourUpdater = new QuarterHourRunnable();
 
+    // Suspends the quarter-hour updates while another tab is selected.
+    private final TabListener mTabWatcher = new TabWatcher();
+
     // Updates the UI in response to changes to the scheduled alarm.
     private BroadcastReceiver mAlarmChangeReceiver;
 
@@ -99,45 +103,52 @@ public final class ClockFragment extends DeskClockFragment {
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle icicle) {
-        super.onCreateView(inflater, container, icicle);
-
-        final View fragmentView = inflater.inflate(R.layout.clock_fragment, container, false);
-
-        mDateFormat = getString(R.string.abbrev_wday_month_day_no_year);
-        mDateFormatForAccessibility = getString(R.string.full_wday_month_day_no_year);
-
-        mCityAdapter = new SelectedCitiesAdapter(getActivity(), mDateFormat,
-                mDateFormatForAccessibility);
-
-        mCityList = (RecyclerView) fragmentView.findViewById(R.id.cities);
-        mCityList.setLayoutManager(new LinearLayoutManager(getActivity()));
-        mCityList.setAdapter(mCityAdapter);
-        mCityList.setItemAnimator(null);
-        DataModel.getDataModel().addCityListener(mCityAdapter);
-
-        final ScrollPositionWatcher scrollPositionWatcher = new ScrollPositionWatcher();
-        mCityList.addOnScrollListener(scrollPositionWatcher);
-
-        final Context context = container.getContext();
-        mCityList.setOnTouchListener(new CityListOnLongClickListener(context));
-        fragmentView.setOnLongClickListener(new StartScreenSaverListener());
+        final long startNanos = StartupTrace.beginSection("ClockFragment.onCreateView");
+        try {
+            super.onCreateView(inflater, container, icicle);
+
+            final View fragmentView = inflater.inflate(R.layout.clock_fragment, container, false);
+
+            mDateFormat = getString(R.string.abbrev_wday_month_day_no_year);
+            mDateFormatForAccessibility = getString(R.string.full_wday_month_day_no_year);
+
+            mCityAdapter = new SelectedCitiesAdapter(getActivity(), mDateFormat,
+                    mDateFormatForAccessibility);
+
+            mCityList = (RecyclerView) fragmentView.findViewById(R.id.cities);
+            mCityList.setLayoutManager(new LinearLayoutManager(getActivity()));
+            mCityList.setAdapter(mCityAdapter);
+            mCityList.setItemAnimator(null);
+            DataModel.getDataModel().addCityListener(mCityAdapter);
+
+            final ScrollPositionWatcher scrollPositionWatcher = new ScrollPositionWatcher();
+            mCityList.addOnScrollListener(scrollPositionWatcher);
+
+            final Context context = container.getContext();
+            mCityList.setOnTouchListener(new CityListOnLongClickListener(context));
+            fragmentView.setOnLongClickListener(new StartScreenSaverListener());
+
+            // On tablet landscape, the clock frame will be a distinct view. Otherwise, it'll be
+            // added on as a header to the main listview.
+            mClockFrame = fragmentView.findViewById(R.id.main_clock_left_pane);
+            if (mClockFrame != null) {
+                mDigitalClock = (TextClock) mClockFrame.findViewById(R.id.digital_clock);
+                mAnalogClock = (AnalogClock) mClockFrame.findViewById(R.id.analog_clock);
+                Utils.setClockIconTypeface(mClockFrame);
+                Utils.updateDate(mDateFormat, mDateFormatForAccessibility, mClockFrame);
+                Utils.setClockStyle(mDigitalClock, mAnalogClock);
+                Utils.setClockSecondsEnabled(mDigitalClock, mAnalogClock);
+            }
 
-        // On tablet landscape, the clock frame will be a distinct view. Otherwise, it'll be added
-        // on as a header to the main listview.
-        mClockFrame = fragmentView.findViewById(R.id.main_clock_left_pane);
-        if (mClockFrame != null) {
-            mDigitalClock = (TextClock) mClockFrame.findViewById(R.id.digital_clock);
-            mAnalogClock = (AnalogClock) mClockFrame.findViewById(R.id.analog_clock);
-            Utils.setClockIconTypeface(mClockFrame);
-            Utils.updateDate(mDateFormat, mDateFormatForAccessibility, mClockFrame);
-            Utils.setClockStyle(mDigitalClock, mAnalogClock);
-            Utils.setClockSecondsEnabled(mDigitalClock, mAnalogClock);
+            // Schedule a runnable to update the date every quarter hour.
+            final UiDataModel uiDataModel = UiDataModel.getUiDataModel();
+            uiDataModel.addQuarterHourCallback(mQuarterHourUpdater, 100);
+            uiDataModel.setPeriodicCallbackSuspended(mQuarterHourUpdater, !isTabSelected());
+            uiDataModel.addTabListener(mTabWatcher);
+            return fragmentView;
+        } finally {
+            StartupTrace.endSection("ClockFragment.onCreateView", startNanos);
         }
-
-        // Schedule a runnable to update the date every quarter hour.
-        UiDataModel.getUiDataModel().addQuarterHourCallback(mQuarterHourUpdater, 100);
-
-        return fragmentView;
     }
 
     @Override
@@ -193,6 +204,7 @@ public final class ClockFragment extends DeskClockFragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        UiDataModel.getUiDataModel().removeTabListener(mTabWatcher);
         UiDataModel.getUiDataModel().removePeriodicCallback(mQuarterHourUpdater);
         DataModel.getDataModel().removeCityListener(mCityAdapter);
     }
@@ -283,6 +295,18 @@ public final class ClockFragment extends DeskClockFragment {
         }
     }
 
+    /**
+     * Suspend the quarter-hour updates while the clock tab is not selected.
+     */
+    private final class TabWatcher implements TabListener {
+        @Override
+        public void selectedTabChanged(UiDataModel.Tab oldSelectedTab,
+                UiDataModel.Tab newSelectedTab) {
+            UiDataModel.getUiDataModel().setPeriodicCallbackSuspended(mQuarterHourUpdater,
+                    newSelectedTab != CLOCKS);
+        }
+    }
+
     /**
      * Prior to L, a ContentObserver was used to monitor changes to the next scheduled alarm.
      * In L and beyond this is accomplished via a system broadcast of
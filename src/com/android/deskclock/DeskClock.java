@@ -41,10 +41,12 @@ import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import com.android.alarmclock.WidgetStats;
 import com.android.deskclock.actionbarmenu.MenuItemControllerFactory;
 import com.android.deskclock.actionbarmenu.NightModeMenuItemController;
 import com.android.deskclock.actionbarmenu.OptionsMenuManager;
 import com.android.deskclock.actionbarmenu.SettingsMenuItemController;
+import com.android.deskclock.controller.Controller;
 import com.android.deskclock.data.DataModel;
 import com.android.deskclock.data.DataModel.SilentSetting;
 import com.android.deskclock.data.OnSilentSettingsListener;
@@ -55,6 +57,10 @@ import com.android.deskclock.uidata.TabListener;
 import com.android.deskclock.uidata.UiDataModel;
 import com.android.deskclock.widget.toast.SnackbarManager;
 
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
 import static androidx.viewpager.widget.ViewPager.SCROLL_STATE_DRAGGING;
 import static androidx.viewpager.widget.ViewPager.SCROLL_STATE_IDLE;
 import static androidx.viewpager.widget.ViewPager.SCROLL_STATE_SETTLING;
@@ -144,175 +150,185 @@ public class DeskClock extends BaseActivity
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
+        final long startNanos = StartupTrace.beginSection("DeskClock.onCreate");
+        try {
+            super.onCreate(savedInstanceState);
 
-        setContentView(R.layout.desk_clock);
-        mSnackbarAnchor = findViewById(R.id.content);
+            setContentView(R.layout.desk_clock);
+            mSnackbarAnchor = findViewById(R.id.content);
 
-        checkPermissions();
+            checkPermissions();
 
-        // Configure the toolbar.
-        final Toolbar toolbar = (Toolbar) findViewById(R.id.toolbar);
-        setSupportActionBar(toolbar);
+            // Configure the toolbar.
+            final Toolbar toolbar = (Toolbar) findViewById(R.id.toolbar);
+            setSupportActionBar(toolbar);
 
-        final ActionBar actionBar = getSupportActionBar();
-        if (actionBar != null) {
-            actionBar.setDisplayShowTitleEnabled(false);
-        }
+            final ActionBar actionBar = getSupportActionBar();
+            if (actionBar != null) {
+                actionBar.setDisplayShowTitleEnabled(false);
+            }
 
-        // Configure the menu item controllers add behavior to the toolbar.
-        mOptionsMenuManager.addMenuItemController(
-                new NightModeMenuItemController(this), new SettingsMenuItemController(this));
-        mOptionsMenuManager.addMenuItemController(
-                MenuItemControllerFactory.getInstance().buildMenuItemControllers(this));
-
-        // Inflate the menu during creation to avoid a double layout pass. Otherwise, the menu
-        // inflation occurs *after* the initial draw and a second layout pass adds in the menu.
-        onCreateOptionsMenu(toolbar.getMenu());
-
-        // Create the tabs that make up the user interface.
-        mTabLayout = (TabLayout) findViewById(R.id.tabs);
-        final int tabCount = UiDataModel.getUiDataModel().getTabCount();
-        final boolean showTabLabel = getResources().getBoolean(R.bool.showTabLabel);
-        final boolean showTabHorizontally = getResources().getBoolean(R.bool.showTabHorizontally);
-        for (int i = 0; i < tabCount; i++) {
-            final UiDataModel.Tab tabModel = UiDataModel.getUiDataModel().getTab(i);
-            final @StringRes int labelResId = tabModel.getLabelResId();
-
-            final TabLayout.Tab tab = mTabLayout.newTab()
-                    .setTag(tabModel)
-                    .setIcon(tabModel.getIconResId())
-                    .setContentDescription(labelResId);
-
-            if (showTabLabel) {
-                tab.setText(labelResId);
-                tab.setCustomView(R.layout.tab_item);
-
-                @SuppressWarnings("ConstantConditions")
-                final TextView text = (TextView) tab.getCustomView()
-                        .findViewById(android.R.id.text1);
-                text.setTextColor(mTabLayout.getTabTextColors());
-
-                // Bind the icon to the TextView.
-                final Drawable icon = tab.getIcon();
-                if (showTabHorizontally) {
-                    // Remove the icon so it doesn't affect the minimum TabLayout height.
-                    tab.setIcon(null);
-                    text.setCompoundDrawablesRelativeWithIntrinsicBounds(icon, null, null, null);
-                } else {
-                    text.setCompoundDrawablesRelativeWithIntrinsicBounds(null, icon, null, null);
+            // Configure the menu item controllers add behavior to the toolbar.
+            mOptionsMenuManager.addMenuItemController(
+                    new NightModeMenuItemController(this), new SettingsMenuItemController(this));
+            mOptionsMenuManager.addMenuItemController(
+                    MenuItemControllerFactory.getInstance().buildMenuItemControllers(this));
+
+            // Inflate the menu during creation to avoid a double layout pass. Otherwise, the menu
+            // inflation occurs *after* the initial draw and a second layout pass adds in the menu.
+            onCreateOptionsMenu(toolbar.getMenu());
+
+            // Create the tabs that make up the user interface.
+            mTabLayout = (TabLayout) findViewById(R.id.tabs);
+            final int tabCount = UiDataModel.getUiDataModel().getTabCount();
+            final boolean showTabLabel = getResources().getBoolean(R.bool.showTabLabel);
+            final boolean showTabHorizontally =
+                    getResources().getBoolean(R.bool.showTabHorizontally);
+            for (int i = 0; i < tabCount; i++) {
+                final UiDataModel.Tab tabModel = UiDataModel.getUiDataModel().getTab(i);
+                final @StringRes int labelResId = tabModel.getLabelResId();
+
+                final TabLayout.Tab tab = mTabLayout.newTab()
+                        .setTag(tabModel)
+                        .setIcon(tabModel.getIconResId())
+                        .setContentDescription(labelResId);
+
+                if (showTabLabel) {
+                    tab.setText(labelResId);
+                    tab.setCustomView(R.layout.tab_item);
+
+                    @SuppressWarnings("ConstantConditions")
+                    final TextView text = (TextView) tab.getCustomView()
+                            .findViewById(android.R.id.text1);
+                    text.setTextColor(mTabLayout.getTabTextColors());
+
+                    // Bind the icon to the TextView.
+                    final Drawable icon = tab.getIcon();
+                    if (showTabHorizontally) {
+                        // Remove the icon so it doesn't affect the minimum TabLayout height.
+                        tab.setIcon(null);
+                        text.setCompoundDrawablesRelativeWithIntrinsicBounds(
+                                icon, null, null, null);
+                    } else {
+                        text.setCompoundDrawablesRelativeWithIntrinsicBounds(
+                                null, icon, null, null);
+                    }
                 }
+
+                mTabLayout.addTab(tab);
             }
 
-            mTabLayout.addTab(tab);
-        }
+            // Configure the buttons shared by the tabs.
+            mFab = (ImageView) findViewById(R.id.fab);
+            mLeftButton = (Button) findViewById(R.id.left_button);
+            mRightButton = (Button) findViewById(R.id.right_button);
 
-        // Configure the buttons shared by the tabs.
-        mFab = (ImageView) findViewById(R.id.fab);
-        mLeftButton = (Button) findViewById(R.id.left_button);
-        mRightButton = (Button) findViewById(R.id.right_button);
+            mFab.setOnClickListener(new OnClickListener() {
+                @Override
+                public void onClick(View view) {
+                    getSelectedDeskClockFragment().onFabClick(mFab);
+                }
+            });
+            mLeftButton.setOnClickListener(new OnClickListener() {
+                @Override
+                public void onClick(View view) {
+                    getSelectedDeskClockFragment().onLeftButtonClick(mLeftButton);
+                }
+            });
+            mRightButton.setOnClickListener(new OnClickListener() {
+                @Override
+                public void onClick(View view) {
+                    getSelectedDeskClockFragment().onRightButtonClick(mRightButton);
+                }
+            });
 
-        mFab.setOnClickListener(new OnClickListener() {
-            @Override
-            public void onClick(View view) {
-                getSelectedDeskClockFragment().onFabClick(mFab);
-            }
-        });
-        mLeftButton.setOnClickListener(new OnClickListener() {
-            @Override
-            public void onClick(View view) {
-                getSelectedDeskClockFragment().onLeftButtonClick(mLeftButton);
-            }
-        });
-        mRightButton.setOnClickListener(new OnClickListener() {
-            @Override
-            public void onClick(View view) {
-                getSelectedDeskClockFragment().onRightButtonClick(mRightButton);
-            }
-        });
+            final long duration = UiDataModel.getUiDataModel().getShortAnimationDuration();
 
-        final long duration = UiDataModel.getUiDataModel().getShortAnimationDuration();
+            final ValueAnimator hideFabAnimation = getScaleAnimator(mFab, 1f, 0f);
+            final ValueAnimator showFabAnimation = getScaleAnimator(mFab, 0f, 1f);
 
-        final ValueAnimator hideFabAnimation = getScaleAnimator(mFab, 1f, 0f);
-        final ValueAnimator showFabAnimation = getScaleAnimator(mFab, 0f, 1f);
+            final ValueAnimator leftHideAnimation = getScaleAnimator(mLeftButton, 1f, 0f);
+            final ValueAnimator rightHideAnimation = getScaleAnimator(mRightButton, 1f, 0f);
+            final ValueAnimator leftShowAnimation = getScaleAnimator(mLeftButton, 0f, 1f);
+            final ValueAnimator rightShowAnimation = getScaleAnimator(mRightButton, 0f, 1f);
 
-        final ValueAnimator leftHideAnimation = getScaleAnimator(mLeftButton, 1f, 0f);
-        final ValueAnimator rightHideAnimation = getScaleAnimator(mRightButton, 1f, 0f);
-        final ValueAnimator leftShowAnimation = getScaleAnimator(mLeftButton, 0f, 1f);
-        final ValueAnimator rightShowAnimation = getScaleAnimator(mRightButton, 0f, 1f);
+            hideFabAnimation.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    getSelectedDeskClockFragment().onUpdateFab(mFab);
+                }
+            });
 
-        hideFabAnimation.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                getSelectedDeskClockFragment().onUpdateFab(mFab);
-            }
-        });
+            leftHideAnimation.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    getSelectedDeskClockFragment().onUpdateFabButtons(mLeftButton, mRightButton);
+                }
+            });
 
-        leftHideAnimation.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                getSelectedDeskClockFragment().onUpdateFabButtons(mLeftButton, mRightButton);
-            }
-        });
-
-        // Build the reusable animations that hide and show the fab and left/right buttons.
-        // These may be used independently or be chained together.
-        mHideAnimation
-                .setDuration(duration)
-                .play(hideFabAnimation)
-                .with(leftHideAnimation)
-                .with(rightHideAnimation);
-
-        mShowAnimation
-                .setDuration(duration)
-                .play(showFabAnimation)
-                .with(leftShowAnimation)
-                .with(rightShowAnimation);
-
-        // Build the reusable animation that hides and shows only the fab.
-        mUpdateFabOnlyAnimation
-                .setDuration(duration)
-                .play(showFabAnimation)
-                .after(hideFabAnimation);
-
-        // Build the reusable animation that hides and shows only the buttons.
-        mUpdateButtonsOnlyAnimation
-                .setDuration(duration)
-                .play(leftShowAnimation)
-                .with(rightShowAnimation)
-                .after(leftHideAnimation)
-                .after(rightHideAnimation);
-
-        // Customize the view pager.
-        mFragmentTabPagerAdapter = new FragmentTabPagerAdapter(this);
-        mFragmentTabPager = (ViewPager) findViewById(R.id.desk_clock_pager);
-        // Keep all four tabs to minimize jank.
-        mFragmentTabPager.setOffscreenPageLimit(3);
-        // Set Accessibility Delegate to null so view pager doesn't intercept movements and
-        // prevent the fab from being selected.
-        mFragmentTabPager.setAccessibilityDelegate(null);
-        // Mirror changes made to the selected page of the view pager into UiDataModel.
-        mFragmentTabPager.addOnPageChangeListener(new PageChangeWatcher());
-        mFragmentTabPager.setAdapter(mFragmentTabPagerAdapter);
-
-        // Mirror changes made to the selected tab into UiDataModel.
-        mTabLayout.addOnTabSelectedListener(new TabLayout.OnTabSelectedListener() {
-            @Override
-            public void onTabSelected(TabLayout.Tab tab) {
-                UiDataModel.getUiDataModel().setSelectedTab((UiDataModel.Tab) tab.getTag());
-            }
+            // Build the reusable animations that hide and show the fab and left/right buttons.
+            // These may be used independently or be chained together.
+            mHideAnimation
+                    .setDuration(duration)
+                    .play(hideFabAnimation)
+                    .with(leftHideAnimation)
+                    .with(rightHideAnimation);
+
+            mShowAnimation
+                    .setDuration(duration)
+                    .play(showFabAnimation)
+                    .with(leftShowAnimation)
+                    .with(rightShowAnimation);
+
+            // Build the reusable animation that hides and shows only the fab.
+            mUpdateFabOnlyAnimation
+                    .setDuration(duration)
+                    .play(showFabAnimation)
+                    .after(hideFabAnimation);
+
+            // Build the reusable animation that hides and shows only the buttons.
+            mUpdateButtonsOnlyAnimation
+                    .setDuration(duration)
+                    .play(leftShowAnimation)
+                    .with(rightShowAnimation)
+                    .after(leftHideAnimation)
+                    .after(rightHideAnimation);
+
+            // Customize the view pager.
+            mFragmentTabPagerAdapter = new FragmentTabPagerAdapter(this);
+            mFragmentTabPager = (ViewPager) findViewById(R.id.desk_clock_pager);
+            // Keep all four tabs to minimize jank.
+            mFragmentTabPager.setOffscreenPageLimit(3);
+            // Set Accessibility Delegate to null so view pager doesn't intercept movements and
+            // prevent the fab from being selected.
+            mFragmentTabPager.setAccessibilityDelegate(null);
+            // Mirror changes made to the selected page of the view pager into UiDataModel.
+            mFragmentTabPager.addOnPageChangeListener(new PageChangeWatcher());
+            mFragmentTabPager.setAdapter(mFragmentTabPagerAdapter);
+
+            // Mirror changes made to the selected tab into UiDataModel.
+            mTabLayout.addOnTabSelectedListener(new TabLayout.OnTabSelectedListener() {
+                @Override
+                public void onTabSelected(TabLayout.Tab tab) {
+                    UiDataModel.getUiDataModel().setSelectedTab((UiDataModel.Tab) tab.getTag());
+                }
 
-            @Override
-            public void onTabUnselected(TabLayout.Tab tab) {
-            }
+                @Override
+                public void onTabUnselected(TabLayout.Tab tab) {
+                }
 
-            @Override
-            public void onTabReselected(TabLayout.Tab tab) {
-            }
-        });
+                @Override
+                public void onTabReselected(TabLayout.Tab tab) {
+                }
+            });
 
-        // Honor changes to the selected tab from outside entities.
-        UiDataModel.getUiDataModel().addTabListener(mTabChangeWatcher);
+            // Honor changes to the selected tab from outside entities.
+            UiDataModel.getUiDataModel().addTabListener(mTabChangeWatcher);
+
+            StartupTrace.markStartupEndedOnNextFrame("DeskClock first frame");
+        } finally {
+            StartupTrace.endSection("DeskClock.onCreate", startNanos);
+        }
     }
 
     @Override
@@ -332,6 +348,10 @@ public class DeskClock extends BaseActivity
 
         // ViewPager does not save state; this honors the selected tab in the user interface.
         updateCurrentTab();
+
+        // The settings screen lists the time zones; keep them ready in the background while the
+        // app is in use. This does nothing while they are current.
+        DataModel.getDataModel().preloadTimeZones();
     }
 
     @Override
@@ -378,6 +398,24 @@ public class DeskClock extends BaseActivity
         super.onDestroy();
     }
 
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        // The JSON export is written alone so that it may be parsed.
+        if (args != null && Arrays.asList(args).contains(StartupTrace.DUMP_JSON_ARG)) {
+            StartupTrace.dumpJson(writer);
+            return;
+        }
+
+        super.dump(prefix, fd, writer, args);
+        UiDataModel.getUiDataModel().dumpPeriodicCallbacks(writer);
+        Controller.getController().dumpEvents(writer);
+        LogUtils.dumpSchedulingEvents(writer);
+        StartupTrace.dump(writer);
+        DataModel.getDataModel().dumpTimerExpiries(writer);
+        DataModel.getDataModel().dumpClockDrift(writer);
+        WidgetStats.getWidgetStats().dump(writer);
+    }
+
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         mOptionsMenuManager.onCreateOptionsMenu(menu);
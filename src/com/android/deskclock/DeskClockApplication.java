@@ -34,13 +34,18 @@ public class DeskClockApplication extends Application {
     public void onCreate() {
         super.onCreate();
 
-        final Context applicationContext = getApplicationContext();
-        final SharedPreferences prefs = getDefaultSharedPreferences(applicationContext);
+        final long startNanos = StartupTrace.beginSection("DeskClockApplication.onCreate");
+        try {
+            final Context applicationContext = getApplicationContext();
+            final SharedPreferences prefs = getDefaultSharedPreferences(applicationContext);
 
-        DataModel.getDataModel().init(applicationContext, prefs);
-        UiDataModel.getUiDataModel().init(applicationContext, prefs);
-        Controller.getController().setContext(applicationContext);
-        Controller.getController().addEventTracker(new LogEventTracker(applicationContext));
+            DataModel.getDataModel().init(applicationContext, prefs);
+            UiDataModel.getUiDataModel().init(applicationContext, prefs);
+            Controller.getController().setContext(applicationContext);
+            Controller.getController().addEventTracker(new LogEventTracker(applicationContext));
+        } finally {
+            StartupTrace.endSection("DeskClockApplication.onCreate", startNanos);
+        }
     }
 
     /**
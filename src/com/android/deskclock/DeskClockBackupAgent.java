@@ -31,11 +31,9 @@ import androidx.annotation.NonNull;
 import com.android.deskclock.alarms.AlarmStateManager;
 import com.android.deskclock.data.DataModel;
 import com.android.deskclock.provider.Alarm;
-import com.android.deskclock.provider.AlarmInstance;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Calendar;
 import java.util.List;
 
 public class DeskClockBackupAgent extends BackupAgent {
@@ -114,28 +112,15 @@ public class DeskClockBackupAgent extends BackupAgent {
 
         LOGGER.i("processRestoredData() started");
 
-        // Now that alarms have been restored, schedule new instances in AlarmManager.
+        // Now that alarms have been restored, schedule new instances in AlarmManager. Any instances
+        // that currently exist aren't relevant on the restore device and are replaced.
+        final long startTime = SystemClock.elapsedRealtime();
         final ContentResolver contentResolver = context.getContentResolver();
         final List<Alarm> alarms = Alarm.getAlarms(contentResolver, null);
-
-        final Calendar now = Calendar.getInstance();
-        for (Alarm alarm : alarms) {
-            // Remove any instances that may currently exist for the alarm;
-            // these aren't relevant on the restore device and we'll recreate them below.
-            AlarmStateManager.deleteAllInstances(context, alarm.id);
-
-            if (alarm.enabled) {
-                // Create the next alarm instance to schedule.
-                AlarmInstance alarmInstance = alarm.createInstanceAfter(now);
-
-                // Add the next alarm instance to the database.
-                alarmInstance = AlarmInstance.addInstance(contentResolver, alarmInstance);
-
-                // Schedule the next alarm instance in AlarmManager.
-                AlarmStateManager.registerInstance(context, alarmInstance, true);
-                LOGGER.i("DeskClockBackupAgent scheduled alarm instance: %s", alarmInstance);
-            }
-        }
+        final int scheduled = AlarmStateManager.replaceAllInstances(context, alarms);
+        final long elapsed = SystemClock.elapsedRealtime() - startTime;
+        LOGGER.i("Scheduled %d instances of %d restored alarms in %d ms", scheduled,
+                alarms.size(), elapsed);
 
         // Remove the preference to avoid executing this logic multiple times.
         DataModel.getDataModel().setRestoreBackupFinished(false);
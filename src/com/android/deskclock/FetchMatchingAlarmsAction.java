@@ -23,9 +23,9 @@ import android.content.Intent;
 import android.os.Looper;
 import android.provider.AlarmClock;
 
-import com.android.deskclock.alarms.AlarmStateManager;
 import com.android.deskclock.controller.Controller;
 import com.android.deskclock.provider.Alarm;
+import com.android.deskclock.provider.AlarmIndex;
 import com.android.deskclock.provider.AlarmInstance;
 
 import java.text.DateFormatSymbols;
@@ -104,9 +104,10 @@ class FetchMatchingAlarmsAction implements Runnable {
                 break;
             case AlarmClock.ALARM_SEARCH_MODE_NEXT:
                 // Match currently firing alarms before scheduled alarms.
+                final AlarmIndex alarmIndex = AlarmIndex.getAlarmIndex();
                 for (Alarm alarm : mAlarms) {
                     final AlarmInstance alarmInstance =
-                            AlarmInstance.getNextUpcomingInstanceByAlarmId(cr, alarm.id);
+                            alarmIndex.getNextUpcomingInstance(cr, alarm.id);
                     if (alarmInstance != null
                             && alarmInstance.mAlarmState == AlarmInstance.FIRED_STATE) {
                         mMatchingAlarms.add(alarm);
@@ -117,7 +118,7 @@ class FetchMatchingAlarmsAction implements Runnable {
                     return;
                 }
 
-                final AlarmInstance nextAlarm = AlarmStateManager.getNextFiringAlarm(mContext);
+                final AlarmInstance nextAlarm = alarmIndex.getNextFiringInstance(cr);
                 if (nextAlarm == null) {
                     final String reason = mContext.getString(R.string.no_scheduled_alarms);
                     notifyFailureAndLog(reason, mActivity);
@@ -126,8 +127,9 @@ class FetchMatchingAlarmsAction implements Runnable {
 
                 // get time from nextAlarm and see if there are any other alarms matching this time
                 final Calendar nextTime = nextAlarm.getAlarmTime();
-                final List<Alarm> alarmsFiringAtSameTime = getAlarmsByHourMinutes(
-                        nextTime.get(Calendar.HOUR_OF_DAY), nextTime.get(Calendar.MINUTE), cr);
+                final List<Alarm> alarmsFiringAtSameTime = alarmIndex.getAlarmsAt(cr,
+                        nextTime.get(Calendar.HOUR_OF_DAY), nextTime.get(Calendar.MINUTE),
+                        true /* enabledOnly */);
                 // there might me multiple alarms firing next
                 mMatchingAlarms.addAll(alarmsFiringAtSameTime);
                 break;
@@ -159,14 +161,6 @@ class FetchMatchingAlarmsAction implements Runnable {
         }
     }
 
-    private List<Alarm> getAlarmsByHourMinutes(int hour24, int minutes, ContentResolver cr) {
-        // if we want to dismiss we should only add enabled alarms
-        final String selection = String.format("%s=? AND %s=? AND %s=?",
-                Alarm.HOUR, Alarm.MINUTES, Alarm.ENABLED);
-        final String[] args = { String.valueOf(hour24), String.valueOf(minutes), "1" };
-        return Alarm.getAlarms(cr, selection, args);
-    }
-
     public List<Alarm> getMatchingAlarms() {
         return mMatchingAlarms;
     }
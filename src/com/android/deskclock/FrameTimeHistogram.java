@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock;
+
+import android.view.Choreographer;
+
+/**
+ * Records the time between consecutive frames while started and logs a histogram of those times
+ * when stopped. It is used in debug builds to measure the smoothness of animations.
+ */
+final class FrameTimeHistogram implements Choreographer.FrameCallback {
+
+    /** The exclusive upper bounds, in milliseconds, of all but the last bucket. */
+    private static final int[] BUCKET_LIMITS = { 17, 25, 34, 50, 100 };
+
+    private static final LogUtils.Logger LOGGER = new LogUtils.Logger("FrameTimeHistogram");
+
+    /** Describes the frames being measured when the histogram is logged. */
+    private final String mName;
+
+    /** The number of frames that fell into each bucket since the histogram was started. */
+    private final int[] mCounts = new int[BUCKET_LIMITS.length + 1];
+
+    /** The time of the previous frame in nanoseconds; 0 if no frame has been recorded yet. */
+    private long mLastFrameTimeNanos;
+
+    /** {@code true} while frames are being recorded. */
+    private boolean mStarted;
+
+    FrameTimeHistogram(String name) {
+        mName = name;
+    }
+
+    /**
+     * Begins recording frames if they are not already being recorded.
+     */
+    void start() {
+        if (!mStarted) {
+            mStarted = true;
+            mLastFrameTimeNanos = 0;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Stops recording frames and logs the histogram of the frames recorded since {@link #start}.
+     */
+    void stop() {
+        if (!mStarted) {
+            return;
+        }
+
+        mStarted = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+
+        int frames = 0;
+        final StringBuilder sb = new StringBuilder(mName);
+        for (int i = 0; i < mCounts.length; i++) {
+            frames += mCounts[i];
+            if (i < BUCKET_LIMITS.length) {
+                sb.append(" <").append(BUCKET_LIMITS[i]);
+            } else {
+                sb.append(" >=").append(BUCKET_LIMITS[i - 1]);
+            }
+            sb.append("ms: ").append(mCounts[i]);
+            mCounts[i] = 0;
+        }
+        if (frames > 0) {
+            LOGGER.d("%s (%d frames)", sb, frames);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mStarted) {
+            return;
+        }
+
+        if (mLastFrameTimeNanos != 0) {
+            final long frameTimeMillis = (frameTimeNanos - mLastFrameTimeNanos) / 1000000L;
+            int bucket = 0;
+            while (bucket < BUCKET_LIMITS.length && frameTimeMillis >= BUCKET_LIMITS[bucket]) {
+                bucket++;
+            }
+            mCounts[bucket]++;
+        }
+        mLastFrameTimeNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+}
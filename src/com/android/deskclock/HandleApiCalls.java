@@ -36,12 +36,12 @@ import com.android.deskclock.data.Timer;
 import com.android.deskclock.data.Weekdays;
 import com.android.deskclock.events.Events;
 import com.android.deskclock.provider.Alarm;
+import com.android.deskclock.provider.AlarmIndex;
 import com.android.deskclock.provider.AlarmInstance;
 import com.android.deskclock.timer.TimerFragment;
 import com.android.deskclock.timer.TimerService;
 import com.android.deskclock.uidata.UiDataModel;
 
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Iterator;
@@ -125,7 +125,7 @@ public class HandleApiCalls extends Activity {
 
     public static void dismissAlarm(Alarm alarm, Activity activity) {
         final Context context = activity.getApplicationContext();
-        final AlarmInstance instance = AlarmInstance.getNextUpcomingInstanceByAlarmId(
+        final AlarmInstance instance = AlarmIndex.getAlarmIndex().getNextUpcomingInstance(
                 context.getContentResolver(), alarm.id);
         if (instance == null) {
             final String reason = context.getString(R.string.no_alarm_scheduled_for_this_time);
@@ -180,7 +180,8 @@ public class HandleApiCalls extends Activity {
         @Override
         protected Void doInBackground(Void... parameters) {
             final ContentResolver cr = mContext.getContentResolver();
-            final List<Alarm> alarms = getEnabledAlarms(mContext);
+            final AlarmIndex alarmIndex = AlarmIndex.getAlarmIndex();
+            final List<Alarm> alarms = alarmIndex.getEnabledAlarms(cr);
             if (alarms.isEmpty()) {
                 final String reason = mContext.getString(R.string.no_scheduled_alarms);
                 Controller.getController().notifyVoiceFailure(mActivity, reason);
@@ -190,8 +191,7 @@ public class HandleApiCalls extends Activity {
 
             // remove Alarms in MISSED, DISMISSED, and PREDISMISSED states
             for (Iterator<Alarm> i = alarms.iterator(); i.hasNext();) {
-                final AlarmInstance instance = AlarmInstance.getNextUpcomingInstanceByAlarmId(
-                        cr, i.next().id);
+                final AlarmInstance instance = alarmIndex.getNextUpcomingInstance(cr, i.next().id);
                 if (instance == null || instance.mAlarmState > FIRED_STATE) {
                     i.remove();
                 }
@@ -238,12 +238,6 @@ public class HandleApiCalls extends Activity {
             }
             return null;
         }
-
-        private static List<Alarm> getEnabledAlarms(Context context) {
-            final String selection = String.format("%s=?", Alarm.ENABLED);
-            final String[] args = { "1" };
-            return Alarm.getAlarms(context.getContentResolver(), selection, args);
-        }
     }
 
     private void handleSnoozeAlarm(Intent intent) {
@@ -265,8 +259,8 @@ public class HandleApiCalls extends Activity {
         @Override
         protected Void doInBackground(Void... parameters) {
             final ContentResolver cr = mContext.getContentResolver();
-            final List<AlarmInstance> alarmInstances = AlarmInstance.getInstancesByState(
-                    cr, FIRED_STATE);
+            final List<AlarmInstance> alarmInstances =
+                    AlarmIndex.getAlarmIndex().getInstancesInState(cr, FIRED_STATE);
             if (alarmInstances.isEmpty()) {
                 final String reason = mContext.getString(R.string.no_firing_alarms);
                 Controller.getController().notifyVoiceFailure(mActivity, reason);
@@ -343,13 +337,14 @@ public class HandleApiCalls extends Activity {
             return;
         }
 
-        final StringBuilder selection = new StringBuilder();
-        final List<String> argsList = new ArrayList<>();
-        setSelectionFromIntent(intent, hour, minutes, selection, argsList);
-
         // Try to locate an existing alarm using the intent data.
-        final String[] args = argsList.toArray(new String[argsList.size()]);
-        final List<Alarm> alarms = Alarm.getAlarms(cr, selection.toString(), args);
+        final List<Alarm> alarms = AlarmIndex.getAlarmIndex().getAlarmsAt(cr, hour, minutes,
+                false /* enabledOnly */);
+        for (Iterator<Alarm> i = alarms.iterator(); i.hasNext();) {
+            if (!isAlarmMatchingIntent(i.next(), intent)) {
+                i.remove();
+            }
+        }
 
         final Alarm alarm;
         if (!alarms.isEmpty()) {
@@ -578,9 +573,8 @@ public class HandleApiCalls extends Activity {
     }
 
     /**
-     * Assemble a database where clause to search for an alarm matching the given {@code hour} and
-     * {@code minutes} as well as all of the optional information within the {@code intent}
-     * including:
+     * Determine whether an alarm already known to be scheduled at the requested hour and minutes
+     * matches all of the optional information within the {@code intent} including:
      *
      * <ul>
      *     <li>alarm message</li>
@@ -589,45 +583,36 @@ public class HandleApiCalls extends Activity {
      *     <li>ringtone uri</li>
      * </ul>
      *
+     * @param alarm an alarm scheduled at the time of day requested by the {@code intent}
      * @param intent contains details of the alarm to be located
-     * @param hour the hour of the day of the alarm
-     * @param minutes the minute of the hour of the alarm
-     * @param selection an out parameter containing a SQL where clause
-     * @param args an out parameter containing the values to substitute into the {@code selection}
+     * @return {@code true} if the {@code alarm} matches the details of the {@code intent}
      */
-    private void setSelectionFromIntent(
-            Intent intent,
-            int hour,
-            int minutes,
-            StringBuilder selection,
-            List<String> args) {
-        selection.append(Alarm.HOUR).append("=?");
-        args.add(String.valueOf(hour));
-        selection.append(" AND ").append(Alarm.MINUTES).append("=?");
-        args.add(String.valueOf(minutes));
-
-        if (intent.hasExtra(AlarmClock.EXTRA_MESSAGE)) {
-            selection.append(" AND ").append(Alarm.LABEL).append("=?");
-            args.add(getLabelFromIntent(intent, ""));
+    private static boolean isAlarmMatchingIntent(Alarm alarm, Intent intent) {
+        if (intent.hasExtra(AlarmClock.EXTRA_MESSAGE)
+                && !getLabelFromIntent(intent, "").equals(alarm.label)) {
+            return false;
         }
 
         // Days is treated differently than other fields because if days is not specified, it
         // explicitly means "not recurring".
-        selection.append(" AND ").append(Alarm.DAYS_OF_WEEK).append("=?");
-        args.add(String.valueOf(getDaysFromIntent(intent, Weekdays.NONE).getBits()));
+        if (getDaysFromIntent(intent, Weekdays.NONE).getBits() != alarm.daysOfWeek.getBits()) {
+            return false;
+        }
 
-        if (intent.hasExtra(AlarmClock.EXTRA_VIBRATE)) {
-            selection.append(" AND ").append(Alarm.VIBRATE).append("=?");
-            args.add(intent.getBooleanExtra(AlarmClock.EXTRA_VIBRATE, false) ? "1" : "0");
+        if (intent.hasExtra(AlarmClock.EXTRA_VIBRATE)
+                && intent.getBooleanExtra(AlarmClock.EXTRA_VIBRATE, false) != alarm.vibrate) {
+            return false;
         }
 
         if (intent.hasExtra(AlarmClock.EXTRA_RINGTONE)) {
-            selection.append(" AND ").append(Alarm.RINGTONE).append("=?");
-
             // If the intent explicitly specified a NULL ringtone, treat it as the default ringtone.
             final Uri defaultRingtone = DataModel.getDataModel().getDefaultAlarmRingtoneUri();
             final Uri ringtone = getAlertFromIntent(intent, defaultRingtone);
-            args.add(ringtone.toString());
+            if (!ringtone.equals(alarm.alert)) {
+                return false;
+            }
         }
+
+        return true;
     }
 }
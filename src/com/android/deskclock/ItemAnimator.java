@@ -21,12 +21,14 @@ import android.animation.AnimatorListenerAdapter;
 import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
 import android.animation.PropertyValuesHolder;
+import android.animation.TimeInterpolator;
 import androidx.annotation.NonNull;
 import androidx.collection.ArrayMap;
 import androidx.recyclerview.widget.RecyclerView.State;
 import androidx.recyclerview.widget.RecyclerView.ViewHolder;
 import androidx.recyclerview.widget.SimpleItemAnimator;
 import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -37,6 +39,18 @@ import static android.view.View.TRANSLATION_X;
 
 public class ItemAnimator extends SimpleItemAnimator {
 
+    /** Identifies the kind of animation performed by a {@link PooledAnimation}. */
+    private static final int ADD = 0;
+    private static final int REMOVE = 1;
+    private static final int MOVE = 2;
+
+    /** The maximum number of idle animations retained for reuse. */
+    private static final int MAX_POOL_SIZE = 16;
+
+    /** The interpolator used by {@link ObjectAnimator} when none is specified. */
+    private static final TimeInterpolator DEFAULT_INTERPOLATOR =
+            new AccelerateDecelerateInterpolator();
+
     private final List<Animator> mAddAnimatorsList = new ArrayList<>();
     private final List<Animator> mRemoveAnimatorsList = new ArrayList<>();
     private final List<Animator> mChangeAnimatorsList = new ArrayList<>();
@@ -44,28 +58,25 @@ public class ItemAnimator extends SimpleItemAnimator {
 
     private final Map<ViewHolder, Animator> mAnimators = new ArrayMap<>();
 
+    /** Add, remove and move animations created since the last call to runPendingAnimations. */
+    private final List<PooledAnimation> mPendingAnimations = new ArrayList<>();
+
+    /** Idle add, remove and move animations available for reuse. */
+    private final List<PooledAnimation> mAnimationPool = new ArrayList<>();
+
+    /** Measures the frame times of item animations in debug builds; {@code null} otherwise. */
+    private final FrameTimeHistogram mFrameTimeHistogram =
+            LogUtils.Logger.DEBUG ? new FrameTimeHistogram("Item animations") : null;
+
     @Override
     public boolean animateRemove(final ViewHolder holder) {
         endAnimation(holder);
 
-        final float prevAlpha = holder.itemView.getAlpha();
-
-        final Animator removeAnimator = ObjectAnimator.ofFloat(holder.itemView, View.ALPHA, 0f);
+        final PooledAnimation removeAnimation = obtainAnimation(holder, REMOVE);
+        final ObjectAnimator removeAnimator = removeAnimation.animator;
+        removeAnimator.setValues(PropertyValuesHolder.ofFloat(View.ALPHA, 0f));
         removeAnimator.setDuration(getRemoveDuration());
-        removeAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animator) {
-                dispatchRemoveStarting(holder);
-            }
 
-            @Override
-            public void onAnimationEnd(Animator animator) {
-                animator.removeAllListeners();
-                mAnimators.remove(holder);
-                holder.itemView.setAlpha(prevAlpha);
-                dispatchRemoveFinished(holder);
-            }
-        });
         mRemoveAnimatorsList.add(removeAnimator);
         mAnimators.put(holder, removeAnimator);
         return true;
@@ -75,25 +86,13 @@ public class ItemAnimator extends SimpleItemAnimator {
     public boolean animateAdd(final ViewHolder holder) {
         endAnimation(holder);
 
-        final float prevAlpha = holder.itemView.getAlpha();
+        final PooledAnimation addAnimation = obtainAnimation(holder, ADD);
         holder.itemView.setAlpha(0f);
 
-        final Animator addAnimator = ObjectAnimator.ofFloat(holder.itemView, View.ALPHA, 1f)
-                .setDuration(getAddDuration());
-        addAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animator) {
-                dispatchAddStarting(holder);
-            }
+        final ObjectAnimator addAnimator = addAnimation.animator;
+        addAnimator.setValues(PropertyValuesHolder.ofFloat(View.ALPHA, 1f));
+        addAnimator.setDuration(getAddDuration());
 
-            @Override
-            public void onAnimationEnd(Animator animator) {
-                animator.removeAllListeners();
-                mAnimators.remove(holder);
-                holder.itemView.setAlpha(prevAlpha);
-                dispatchAddFinished(holder);
-            }
-        });
         mAddAnimatorsList.add(addAnimator);
         mAnimators.put(holder, addAnimator);
         return true;
@@ -112,42 +111,27 @@ public class ItemAnimator extends SimpleItemAnimator {
             return false;
         }
 
+        final PooledAnimation moveAnimation = obtainAnimation(holder, MOVE);
         final View view = holder.itemView;
-        final float prevTranslationX = view.getTranslationX();
-        final float prevTranslationY = view.getTranslationY();
         view.setTranslationX(-deltaX);
         view.setTranslationY(-deltaY);
 
-        final ObjectAnimator moveAnimator;
+        final ObjectAnimator moveAnimator = moveAnimation.animator;
         if (deltaX != 0 && deltaY != 0) {
             final PropertyValuesHolder moveX = PropertyValuesHolder.ofFloat(TRANSLATION_X, 0f);
             final PropertyValuesHolder moveY = PropertyValuesHolder.ofFloat(TRANSLATION_Y, 0f);
-            moveAnimator = ObjectAnimator.ofPropertyValuesHolder(holder.itemView, moveX, moveY);
+            moveAnimator.setValues(moveX, moveY);
         } else if (deltaX != 0) {
             final PropertyValuesHolder moveX = PropertyValuesHolder.ofFloat(TRANSLATION_X, 0f);
-            moveAnimator = ObjectAnimator.ofPropertyValuesHolder(holder.itemView, moveX);
+            moveAnimator.setValues(moveX);
         } else {
             final PropertyValuesHolder moveY = PropertyValuesHolder.ofFloat(TRANSLATION_Y, 0f);
-            moveAnimator = ObjectAnimator.ofPropertyValuesHolder(holder.itemView, moveY);
+            moveAnimator.setValues(moveY);
         }
 
         moveAnimator.setDuration(moveDuration);
         moveAnimator.setInterpolator(AnimatorUtils.INTERPOLATOR_FAST_OUT_SLOW_IN);
-        moveAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animator) {
-                dispatchMoveStarting(holder);
-            }
 
-            @Override
-            public void onAnimationEnd(Animator animator) {
-                animator.removeAllListeners();
-                mAnimators.remove(holder);
-                view.setTranslationX(prevTranslationX);
-                view.setTranslationY(prevTranslationY);
-                dispatchMoveFinished(holder);
-            }
-        });
         mMoveAnimatorsList.add(moveAnimator);
         mAnimators.put(holder, moveAnimator);
 
@@ -253,50 +237,66 @@ public class ItemAnimator extends SimpleItemAnimator {
 
     @Override
     public void runPendingAnimations() {
-        final AnimatorSet removeAnimatorSet = new AnimatorSet();
-        removeAnimatorSet.playTogether(mRemoveAnimatorsList);
-        mRemoveAnimatorsList.clear();
-
-        final AnimatorSet addAnimatorSet = new AnimatorSet();
-        addAnimatorSet.playTogether(mAddAnimatorsList);
-        mAddAnimatorsList.clear();
-
-        final AnimatorSet changeAnimatorSet = new AnimatorSet();
-        changeAnimatorSet.playTogether(mChangeAnimatorsList);
-        mChangeAnimatorsList.clear();
-
-        final AnimatorSet moveAnimatorSet = new AnimatorSet();
-        moveAnimatorSet.playTogether(mMoveAnimatorsList);
+        // Required order: removes, then changes & moves simultaneously, then additions. Stages
+        // without animations are skipped so they do not delay the stages that follow.
+        final List<Animator> stages = new ArrayList<>(3);
+        addStage(stages, mRemoveAnimatorsList);
+        mChangeAnimatorsList.addAll(mMoveAnimatorsList);
         mMoveAnimatorsList.clear();
+        addStage(stages, mChangeAnimatorsList);
+        addStage(stages, mAddAnimatorsList);
+
+        // The pooled animations are referenced by the set below until it ends; only then may they
+        // be reused.
+        final List<PooledAnimation> batch = new ArrayList<>(mPendingAnimations);
+        mPendingAnimations.clear();
+        for (PooledAnimation animation : batch) {
+            animation.batched = true;
+        }
+
+        if (stages.isEmpty()) {
+            recycleAnimations(batch);
+            dispatchFinishedWhenDone();
+            return;
+        }
 
         final AnimatorSet pendingAnimatorSet = new AnimatorSet();
         pendingAnimatorSet.addListener(new AnimatorListenerAdapter() {
             @Override
             public void onAnimationEnd(Animator animator) {
                 animator.removeAllListeners();
+                recycleAnimations(batch);
                 dispatchFinishedWhenDone();
             }
         });
-        // Required order: removes, then changes & moves simultaneously, then additions. There are
-        // redundant edges because changes or moves may be empty, causing the removes to incorrectly
-        // play immediately.
-        pendingAnimatorSet.play(removeAnimatorSet).before(changeAnimatorSet);
-        pendingAnimatorSet.play(removeAnimatorSet).before(moveAnimatorSet);
-        pendingAnimatorSet.play(changeAnimatorSet).with(moveAnimatorSet);
-        pendingAnimatorSet.play(addAnimatorSet).after(changeAnimatorSet);
-        pendingAnimatorSet.play(addAnimatorSet).after(moveAnimatorSet);
+        pendingAnimatorSet.playSequentially(stages);
+        if (mFrameTimeHistogram != null) {
+            mFrameTimeHistogram.start();
+        }
         pendingAnimatorSet.start();
     }
 
+    /**
+     * Moves the {@code animators} into a new set that plays them together and appends it to
+     * {@code stages}, unless there are no {@code animators}.
+     */
+    private static void addStage(List<Animator> stages, List<Animator> animators) {
+        if (animators.isEmpty()) {
+            return;
+        }
+
+        final AnimatorSet stage = new AnimatorSet();
+        stage.playTogether(animators);
+        animators.clear();
+        stages.add(stage);
+    }
+
     @Override
     public void endAnimation(ViewHolder holder) {
         final Animator animator = mAnimators.get(holder);
 
         mAnimators.remove(holder);
-        mAddAnimatorsList.remove(animator);
-        mRemoveAnimatorsList.remove(animator);
-        mChangeAnimatorsList.remove(animator);
-        mMoveAnimatorsList.remove(animator);
+        removePendingAnimator(animator);
 
         if (animator != null) {
             animator.end();
@@ -311,9 +311,28 @@ public class ItemAnimator extends SimpleItemAnimator {
         for (Animator animator : animatorList) {
             animator.end();
         }
+
+        // Ended animators must not be started by the next call to runPendingAnimations.
+        mAddAnimatorsList.clear();
+        mRemoveAnimatorsList.clear();
+        mChangeAnimatorsList.clear();
+        mMoveAnimatorsList.clear();
+        mPendingAnimations.clear();
+
         dispatchFinishedWhenDone();
     }
 
+    /**
+     * Removes the {@code animator} from the animators awaiting the next call to
+     * {@link #runPendingAnimations}.
+     */
+    private void removePendingAnimator(Animator animator) {
+        mAddAnimatorsList.remove(animator);
+        mRemoveAnimatorsList.remove(animator);
+        mChangeAnimatorsList.remove(animator);
+        mMoveAnimatorsList.remove(animator);
+    }
+
     @Override
     public boolean isRunning() {
         return !mAnimators.isEmpty();
@@ -321,10 +340,42 @@ public class ItemAnimator extends SimpleItemAnimator {
 
     private void dispatchFinishedWhenDone() {
         if (!isRunning()) {
+            if (mFrameTimeHistogram != null) {
+                mFrameTimeHistogram.stop();
+            }
             dispatchAnimationsFinished();
         }
     }
 
+    /**
+     * @param holder the view holder to animate
+     * @param type one of {@link #ADD}, {@link #REMOVE} or {@link #MOVE}
+     * @return an idle animation of the {@code holder}'s view, reused from the pool if possible
+     */
+    private PooledAnimation obtainAnimation(ViewHolder holder, int type) {
+        final int size = mAnimationPool.size();
+        final PooledAnimation animation = size == 0
+                ? new PooledAnimation() : mAnimationPool.remove(size - 1);
+        animation.reset(holder, type);
+        mPendingAnimations.add(animation);
+        return animation;
+    }
+
+    private void recycleAnimations(List<PooledAnimation> animations) {
+        for (PooledAnimation animation : animations) {
+            animation.batched = false;
+            recycleAnimation(animation);
+        }
+    }
+
+    private void recycleAnimation(PooledAnimation animation) {
+        animation.holder = null;
+        animation.animator.setTarget(null);
+        if (mAnimationPool.size() < MAX_POOL_SIZE) {
+            mAnimationPool.add(animation);
+        }
+    }
+
     @Override
     public @NonNull ItemHolderInfo recordPreLayoutInformation(@NonNull State state,
             @NonNull ViewHolder viewHolder, @AdapterChanges int changeFlags,
@@ -363,6 +414,101 @@ public class ItemAnimator extends SimpleItemAnimator {
         }
     }
 
+    /**
+     * An add, remove or move animation of a view holder's item view. Instances, along with their
+     * animator and listener, are reused once their animation and the set containing it have
+     * ended. Fading item views are drawn from a hardware layer while they animate.
+     */
+    private final class PooledAnimation extends AnimatorListenerAdapter {
+
+        private final ObjectAnimator animator = new ObjectAnimator();
+
+        /** The view holder being animated; {@code null} while this animation is idle. */
+        private ViewHolder holder;
+
+        /** One of {@link #ADD}, {@link #REMOVE} or {@link #MOVE}. */
+        private int type;
+
+        /** {@code true} while this animation belongs to a started set of pending animations. */
+        private boolean batched;
+
+        /** The properties of the item view restored when this animation ends. */
+        private float prevAlpha;
+        private float prevTranslationX;
+        private float prevTranslationY;
+        private int prevLayerType;
+
+        private void reset(ViewHolder holder, int type) {
+            this.holder = holder;
+            this.type = type;
+
+            final View view = holder.itemView;
+            prevAlpha = view.getAlpha();
+            prevTranslationX = view.getTranslationX();
+            prevTranslationY = view.getTranslationY();
+            prevLayerType = view.getLayerType();
+
+            // Discard listeners left behind by a set that previously contained this animator.
+            animator.removeAllListeners();
+            animator.addListener(this);
+            animator.setTarget(view);
+            animator.setStartDelay(0L);
+            animator.setInterpolator(DEFAULT_INTERPOLATOR);
+        }
+
+        @Override
+        public void onAnimationStart(Animator animator) {
+            if (type != MOVE) {
+                holder.itemView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            }
+
+            switch (type) {
+                case ADD:
+                    dispatchAddStarting(holder);
+                    break;
+                case REMOVE:
+                    dispatchRemoveStarting(holder);
+                    break;
+                case MOVE:
+                    dispatchMoveStarting(holder);
+                    break;
+            }
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animator) {
+            final ViewHolder holder = this.holder;
+            final View view = holder.itemView;
+            mAnimators.remove(holder);
+
+            switch (type) {
+                case ADD:
+                    view.setLayerType(prevLayerType, null);
+                    view.setAlpha(prevAlpha);
+                    dispatchAddFinished(holder);
+                    break;
+                case REMOVE:
+                    view.setLayerType(prevLayerType, null);
+                    view.setAlpha(prevAlpha);
+                    dispatchRemoveFinished(holder);
+                    break;
+                case MOVE:
+                    view.setTranslationX(prevTranslationX);
+                    view.setTranslationY(prevTranslationY);
+                    dispatchMoveFinished(holder);
+                    break;
+            }
+
+            // Animations ended before they were batched are not referenced by any set, but must
+            // also be withdrawn from the next batch before they are reused.
+            if (!batched) {
+                mPendingAnimations.remove(this);
+                removePendingAnimator(animator);
+                recycleAnimation(this);
+            }
+        }
+    }
+
     public interface OnAnimateChangeListener {
         Animator onAnimateChange(ViewHolder oldHolder, ViewHolder newHolder, long duration);
         Animator onAnimateChange(List<Object> payloads, int fromLeft, int fromTop, int fromRight,
@@ -19,6 +19,13 @@ package com.android.deskclock;
 import android.os.Build;
 import android.util.Log;
 
+import com.android.deskclock.data.Clock;
+
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
 public class LogUtils {
 
     /**
@@ -26,6 +33,30 @@ public class LogUtils {
      */
     private final static Logger DEFAULT_LOGGER = new Logger("AlarmClock");
 
+    /** The number of scheduling events retained for {@link #dumpSchedulingEvents}. */
+    private static final int SCHEDULING_EVENT_CAPACITY = 64;
+
+    /** The wall clock time at which each retained scheduling event was recorded. */
+    private static final long[] sEventTimes = new long[SCHEDULING_EVENT_CAPACITY];
+
+    /** The name of each retained scheduling event; always a constant string. */
+    private static final String[] sEventNames = new String[SCHEDULING_EVENT_CAPACITY];
+
+    /** The id of the subject of each retained scheduling event. */
+    private static final long[] sEventIds = new long[SCHEDULING_EVENT_CAPACITY];
+
+    /** The state or other code associated with each retained scheduling event. */
+    private static final int[] sEventCodes = new int[SCHEDULING_EVENT_CAPACITY];
+
+    /** The target time of each retained scheduling event; 0 if it has none. */
+    private static final long[] sEventTargetTimes = new long[SCHEDULING_EVENT_CAPACITY];
+
+    /** The total number of scheduling events ever recorded. */
+    private static int sEventCount;
+
+    /** The clock against which scheduling events are recorded; read without locking. */
+    private static volatile Clock sClock = Clock.SYSTEM;
+
     public static void v(String message, Object... args) {
         DEFAULT_LOGGER.v(message, args);
     }
@@ -58,6 +89,60 @@ public class LogUtils {
         DEFAULT_LOGGER.wtf(e);
     }
 
+    /**
+     * @param clock the clock against which scheduling events are recorded; {@code null} restores
+     *      the device clock
+     */
+    public static void setClock(Clock clock) {
+        sClock = clock == null ? Clock.SYSTEM : clock;
+    }
+
+    /**
+     * Records a scheduling event in a fixed-size in-memory buffer regardless of the log level so
+     * the most recent events can be retrieved by {@link #dumpSchedulingEvents}. Recording does
+     * not allocate.
+     *
+     * @param name a constant string that names the event
+     * @param id the id of the subject of the event, e.g. an alarm instance id
+     * @param code the state or other code associated with the event
+     * @param targetTime the wall clock time the event refers to; 0 if it has none
+     */
+    public static void recordSchedulingEvent(String name, long id, int code, long targetTime) {
+        final long now = sClock.currentTimeMillis();
+        synchronized (sEventTimes) {
+            final int index = sEventCount % SCHEDULING_EVENT_CAPACITY;
+            sEventTimes[index] = now;
+            sEventNames[index] = name;
+            sEventIds[index] = id;
+            sEventCodes[index] = code;
+            sEventTargetTimes[index] = targetTime;
+            sEventCount++;
+        }
+    }
+
+    /**
+     * Writes the most recently recorded scheduling events, oldest first.
+     */
+    public static void dumpSchedulingEvents(PrintWriter writer) {
+        final SimpleDateFormat format = new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.US);
+        final Date date = new Date();
+        synchronized (sEventTimes) {
+            final int size = Math.min(sEventCount, SCHEDULING_EVENT_CAPACITY);
+            writer.printf("Scheduling events (%d of %d):%n", size, sEventCount);
+            for (int i = sEventCount - size; i < sEventCount; i++) {
+                final int index = i % SCHEDULING_EVENT_CAPACITY;
+                date.setTime(sEventTimes[index]);
+                writer.printf("  %s %s id=%d code=%d", format.format(date), sEventNames[index],
+                        sEventIds[index], sEventCodes[index]);
+                if (sEventTargetTimes[index] != 0) {
+                    date.setTime(sEventTargetTimes[index]);
+                    writer.printf(" target=%s", format.format(date));
+                }
+                writer.println();
+            }
+        }
+    }
+
     public final static class Logger {
 
         /**
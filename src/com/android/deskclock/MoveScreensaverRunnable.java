@@ -19,24 +19,41 @@ package com.android.deskclock;
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.animation.AnimatorSet;
+import android.text.Layout;
+import android.text.format.DateFormat;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.view.animation.AccelerateInterpolator;
 import android.view.animation.DecelerateInterpolator;
 import android.view.animation.Interpolator;
+import android.widget.TextClock;
 
 import com.android.deskclock.uidata.UiDataModel;
 
+import java.util.Calendar;
+
 import static com.android.deskclock.AnimatorUtils.getAlphaAnimator;
 import static com.android.deskclock.AnimatorUtils.getScaleAnimator;
+import static java.util.Calendar.HOUR_OF_DAY;
+import static java.util.Calendar.MINUTE;
 
 /**
  * This runnable chooses a random initial position for {@link #mSaverView} within
  * {@link #mContentView} if {@link #mSaverView} is transparent. It also schedules itself to run
  * each minute, at which time {@link #mSaverView} is faded out, set to a new random location, and
  * faded in.
+ *
+ * <p>In low power mode {@link #mSaverView} is instead moved without animation so the screen is
+ * redrawn only once per minute, and the redraw itself is kept small. The saver view is expected
+ * to render into a hardware layer (see {@link Utils#dimClockView}), which acts as a cached bitmap:
+ * moving the view only changes where that layer is composited, and the digital clock within it
+ * is fixed to the width of the widest time it can display so a new minute re-renders only the
+ * digital clock inside the layer and never lays out the view hierarchy.</p>
  */
 public final class MoveScreensaverRunnable implements Runnable {
 
+    private static final LogUtils.Logger LOGGER = new LogUtils.Logger("MoveScreensaver");
+
     /** The duration over which the fade in/out animations occur. */
     private static final long FADE_TIME = 3000L;
 
@@ -52,9 +69,39 @@ public final class MoveScreensaverRunnable implements Runnable {
     /** The display within the {@link #mContentView} that is randomly positioned. */
     private final View mSaverView;
 
+    /** Counts the frames drawn by {@link #mContentView} while the saver view is moving. */
+    private final ViewTreeObserver.OnDrawListener mFrameCounter =
+            new ViewTreeObserver.OnDrawListener() {
+                @Override
+                public void onDraw() {
+                    mFrameCount++;
+                }
+            };
+
+    /** Counts the layout passes of {@link #mContentView} while the saver view is moving. */
+    private final ViewTreeObserver.OnGlobalLayoutListener mLayoutCounter =
+            new ViewTreeObserver.OnGlobalLayoutListener() {
+                @Override
+                public void onGlobalLayout() {
+                    mLayoutCount++;
+                }
+            };
+
     /** Tracks the currently executing animation if any; used to gracefully stop the animation. */
     private Animator mActiveAnimator;
 
+    /** {@code true} if the saver view is moved without fade and scale animations. */
+    private boolean mLowPowerMode;
+
+    /** The number of frames drawn since the movement was last started. */
+    private int mFrameCount;
+
+    /** The number of layout passes since the movement was last started. */
+    private int mLayoutCount;
+
+    /** The number of times the saver view was positioned since the movement was last started. */
+    private int mMoveCount;
+
     /**
      * @param contentView contains the {@code saverView}
      * @param saverView a child view of {@code contentView} that periodically moves around
@@ -64,6 +111,16 @@ public final class MoveScreensaverRunnable implements Runnable {
         mSaverView = saverView;
     }
 
+    /**
+     * Low power mode takes effect the next time the movement is started.
+     *
+     * @param lowPowerMode {@code true} to move the saver view without fade and scale animations
+     *      and to fix the width of its digital clock so that time changes do not cause layout
+     */
+    public void setLowPowerMode(boolean lowPowerMode) {
+        mLowPowerMode = lowPowerMode;
+    }
+
     /**
      * Start or restart the random movement of the saver view within the content view.
      */
@@ -71,14 +128,30 @@ public final class MoveScreensaverRunnable implements Runnable {
         // Stop any existing animations or callbacks.
         stop();
 
+        mFrameCount = 0;
+        mLayoutCount = 0;
+        mMoveCount = 0;
+        mContentView.getViewTreeObserver().addOnDrawListener(mFrameCounter);
+        mContentView.getViewTreeObserver().addOnGlobalLayoutListener(mLayoutCounter);
+
+        // The time format may have changed since the movement was last started.
+        if (mLowPowerMode) {
+            final View digitalClock = mSaverView.findViewById(R.id.digital_clock);
+            if (digitalClock instanceof TextClock && digitalClock.getVisibility() == View.VISIBLE) {
+                fixWidthToWidestTime((TextClock) digitalClock);
+            }
+        }
+
         // Reset the alpha to 0 so saver view will be randomly positioned within the new bounds.
         mSaverView.setAlpha(0);
 
         // Execute the position updater runnable to choose the first random position of saver view.
         run();
 
-        // Schedule callbacks every minute to adjust the position of mSaverView.
-        UiDataModel.getUiDataModel().addMinuteCallback(this, -FADE_TIME);
+        // Schedule callbacks every minute to adjust the position of mSaverView. Animated moves
+        // begin early so the saver view is hidden when the minute changes.
+        final long offset = mLowPowerMode ? 0 : -FADE_TIME;
+        UiDataModel.getUiDataModel().addMinuteCallback(this, offset);
     }
 
     /**
@@ -87,6 +160,15 @@ public final class MoveScreensaverRunnable implements Runnable {
     public void stop() {
         UiDataModel.getUiDataModel().removePeriodicCallback(this);
 
+        if (mContentView.getViewTreeObserver().isAlive()) {
+            mContentView.getViewTreeObserver().removeOnDrawListener(mFrameCounter);
+            mContentView.getViewTreeObserver().removeOnGlobalLayoutListener(mLayoutCounter);
+        }
+        if (mMoveCount > 0) {
+            LOGGER.i("Drew %d frames and %d layouts for %d moves (low power mode: %b)",
+                    mFrameCount, mLayoutCount, mMoveCount, mLowPowerMode);
+        }
+
         // End any animation currently running.
         if (mActiveAnimator != null) {
             mActiveAnimator.end();
@@ -98,6 +180,12 @@ public final class MoveScreensaverRunnable implements Runnable {
     public void run() {
         Utils.enforceMainLooper();
 
+        mMoveCount++;
+        if (mLowPowerMode) {
+            moveWithoutAnimation();
+            return;
+        }
+
         final boolean selectInitialPosition = mSaverView.getAlpha() == 0f;
         if (selectInitialPosition) {
             // When selecting an initial position for the saver view the width and height of
@@ -148,6 +236,75 @@ public final class MoveScreensaverRunnable implements Runnable {
         }
     }
 
+    /**
+     * Moves the saver view to a new random position in a single frame. Only the position at which
+     * the saver view's hardware layer is composited changes, so the clock is not redrawn.
+     */
+    private void moveWithoutAnimation() {
+        final boolean selectInitialPosition = mSaverView.getAlpha() == 0f;
+
+        // See run() for why the initial position is chosen within the smallest dimension.
+        final int width, height;
+        if (selectInitialPosition) {
+            width = height = Math.min(mContentView.getWidth(), mContentView.getHeight());
+        } else {
+            width = mContentView.getWidth();
+            height = mContentView.getHeight();
+        }
+
+        mSaverView.setX(getRandomPoint(width - mSaverView.getWidth()));
+        mSaverView.setY(getRandomPoint(height - mSaverView.getHeight()));
+        mSaverView.setAlpha(1f);
+    }
+
+    /**
+     * Fixes the width of the {@code clock} to that of the widest time it can display in its
+     * current format. A {@link android.widget.TextView} whose minimum and maximum widths are equal
+     * only invalidates itself when its text changes, so a new minute no longer requests a layout
+     * of the hierarchy and only the clock's region of the hardware layer is re-rendered.
+     */
+    private static void fixWidthToWidestTime(TextClock clock) {
+        final CharSequence format = clock.is24HourModeEnabled()
+                ? clock.getFormat24Hour() : clock.getFormat12Hour();
+        if (format == null) {
+            return;
+        }
+
+        // Minutes are formatted independently of hours, so find the widest minute first and then
+        // the widest hour displayed with it.
+        final Calendar calendar = Calendar.getInstance();
+        calendar.set(HOUR_OF_DAY, 0);
+        int widestMinute = 0;
+        float widest = 0;
+        for (int minute = 0; minute < 60; minute++) {
+            calendar.set(MINUTE, minute);
+            final float width = getTimeWidth(clock, format, calendar);
+            if (width > widest) {
+                widest = width;
+                widestMinute = minute;
+            }
+        }
+
+        calendar.set(MINUTE, widestMinute);
+        for (int hour = 1; hour < 24; hour++) {
+            calendar.set(HOUR_OF_DAY, hour);
+            widest = Math.max(widest, getTimeWidth(clock, format, calendar));
+        }
+
+        final int width = (int) Math.ceil(widest)
+                + clock.getCompoundPaddingLeft() + clock.getCompoundPaddingRight();
+        clock.setMinWidth(width);
+        clock.setMaxWidth(width);
+    }
+
+    /**
+     * @return the width of the time in {@code calendar} when formatted and drawn by the clock;
+     *      the spans of the format, e.g. a smaller am/pm, are taken into account
+     */
+    private static float getTimeWidth(TextClock clock, CharSequence format, Calendar calendar) {
+        return Layout.getDesiredWidth(DateFormat.format(format, calendar), clock.getPaint());
+    }
+
     /**
      * @return a random integer between 0 and the {@code maximum} exclusive.
      */
@@ -111,6 +111,7 @@ public final class Screensaver extends DreamService {
                 | View.SYSTEM_UI_FLAG_LAYOUT_FULLSCREEN);
 
         mPositionUpdater = new MoveScreensaverRunnable(mContentView, mMainClockView);
+        mPositionUpdater.setLowPowerMode(DataModel.getDataModel().getScreensaverLowPowerModeOn());
 
         // We want the screen saver to exit upon user interaction.
         setInteractive(false);
@@ -32,6 +32,7 @@ import android.view.Window;
 import android.view.WindowManager;
 import android.widget.TextClock;
 
+import com.android.deskclock.data.DataModel;
 import com.android.deskclock.events.Events;
 import com.android.deskclock.uidata.UiDataModel;
 
@@ -129,6 +130,7 @@ public class ScreensaverActivity extends BaseActivity {
         mContentView.setOnSystemUiVisibilityChangeListener(new InteractionListener());
 
         mPositionUpdater = new MoveScreensaverRunnable(mContentView, mMainClockView);
+        mPositionUpdater.setLowPowerMode(DataModel.getDataModel().getScreensaverLowPowerModeOn());
 
         final Intent intent = getIntent();
         if (intent != null) {
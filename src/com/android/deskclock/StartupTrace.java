@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.view.Choreographer;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Records the time spent in sections of work performed while the process starts, such as the
+ * construction of data models, until a mark such as the first frame or the first ringtone
+ * playback ends startup. Sections are always emitted to systrace, but are only recorded in memory
+ * during startup, so the records cannot be displaced by work done later in a long-lived process.
+ * The records may be printed via {@link #dump}, or exported via {@link #dumpJson} in the trace
+ * event format read by Perfetto and chrome://tracing:
+ * <pre>
+ * adb shell dumpsys activity com.android.deskclock/.DeskClock startup-trace-json
+ * </pre>
+ */
+public final class StartupTrace {
+
+    /** The dump argument that selects the JSON export of the trace. */
+    public static final String DUMP_JSON_ARG = "startup-trace-json";
+
+    /** The number of records retained; later records are dropped rather than overwrite these. */
+    private static final int CAPACITY = 128;
+
+    /** The elapsed realtime at which this process started, in nanoseconds. */
+    private static final long PROCESS_START_NANOS = getProcessStartNanos();
+
+    private static final String[] sNames = new String[CAPACITY];
+    private static final long[] sStartNanos = new long[CAPACITY];
+
+    /** The duration of each section; -1 for marks. */
+    private static final long[] sDurationNanos = new long[CAPACITY];
+    private static final int[] sThreadIds = new int[CAPACITY];
+
+    /** The number of records written. */
+    private static int sCount;
+
+    /** The number of records dropped during startup because the capacity was exhausted. */
+    private static int sDroppedCount;
+
+    /** {@code true} once startup has ended and nothing more is recorded. */
+    private static boolean sStartupEnded;
+
+    private StartupTrace() {}
+
+    /**
+     * Begins a section of work on the calling thread. Each call must be balanced by a call to
+     * {@link #endSection} on the same thread, typically in a {@code finally} block.
+     *
+     * @param name describes the section of work
+     * @return the start time of the section to be passed to {@link #endSection}
+     */
+    public static long beginSection(String name) {
+        Trace.beginSection(name);
+        return SystemClock.elapsedRealtimeNanos();
+    }
+
+    /**
+     * @param name describes the section of work; matches the name passed to {@link #beginSection}
+     * @param startNanos the value returned by the matching call to {@link #beginSection}
+     */
+    public static void endSection(String name, long startNanos) {
+        final long durationNanos = SystemClock.elapsedRealtimeNanos() - startNanos;
+        Trace.endSection();
+        record(name, startNanos, durationNanos);
+    }
+
+    /**
+     * Records an instant that ends startup, e.g. the first time an alarm makes a sound, unless
+     * startup has already ended. Nothing is recorded after it.
+     *
+     * @param name describes the instant
+     */
+    public static void markStartupEnded(String name) {
+        final long nowNanos = SystemClock.elapsedRealtimeNanos();
+        synchronized (StartupTrace.class) {
+            record(name, nowNanos, -1);
+            sStartupEnded = true;
+        }
+    }
+
+    /**
+     * Ends startup with a mark when the next frame begins on the calling thread, which must have
+     * a looper.
+     *
+     * @param name describes the frame
+     */
+    public static void markStartupEndedOnNextFrame(final String name) {
+        Choreographer.getInstance().postFrameCallback(new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                markStartupEnded(name);
+            }
+        });
+    }
+
+    /**
+     * Writes each retained record relative to the start of the process.
+     */
+    public static synchronized void dump(PrintWriter pw) {
+        pw.printf(Locale.US, "Startup trace (ms since process start, %s):%n",
+                sStartupEnded ? "ended" : "in progress");
+        for (int i = 0; i < sCount; i++) {
+            final double startMillis = toMillis(sStartNanos[i] - PROCESS_START_NANOS);
+            if (sDurationNanos[i] < 0) {
+                pw.printf(Locale.US, "  %10.2f          [%d] %s%n", startMillis,
+                        sThreadIds[i], sNames[i]);
+            } else {
+                pw.printf(Locale.US, "  %10.2f %7.2fms [%d] %s%n", startMillis,
+                        toMillis(sDurationNanos[i]), sThreadIds[i], sNames[i]);
+            }
+        }
+        if (sDroppedCount > 0) {
+            pw.printf(Locale.US, "  %d records dropped%n", sDroppedCount);
+        }
+    }
+
+    /**
+     * Writes each retained record as a trace event in JSON. Sections are complete events and marks
+     * are instant events; times are in microseconds since the start of the process.
+     */
+    public static synchronized void dumpJson(PrintWriter pw) {
+        final int pid = Process.myPid();
+        pw.print("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        for (int i = 0; i < sCount; i++) {
+            if (i > 0) {
+                pw.print(',');
+            }
+            pw.print("\n{\"name\":\"");
+            pw.print(escapeJson(sNames[i]));
+            pw.printf(Locale.US, "\",\"pid\":%d,\"tid\":%d,\"ts\":%d", pid, sThreadIds[i],
+                    (sStartNanos[i] - PROCESS_START_NANOS) / 1000);
+            if (sDurationNanos[i] < 0) {
+                pw.print(",\"ph\":\"i\",\"s\":\"p\"}");
+            } else {
+                pw.printf(Locale.US, ",\"ph\":\"X\",\"dur\":%d}", sDurationNanos[i] / 1000);
+            }
+        }
+        pw.println("\n]}");
+    }
+
+    private static String escapeJson(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static synchronized void record(String name, long startNanos, long durationNanos) {
+        if (sStartupEnded) {
+            return;
+        }
+        if (sCount == CAPACITY) {
+            sDroppedCount++;
+            return;
+        }
+
+        sNames[sCount] = name;
+        sStartNanos[sCount] = startNanos;
+        sDurationNanos[sCount] = durationNanos;
+        sThreadIds[sCount] = Process.myTid();
+        sCount++;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000d;
+    }
+
+    /**
+     * @return the time at which this process started; prior to N the time at which this class was
+     *      loaded, which occurs early in the creation of the application
+     */
+    @TargetApi(Build.VERSION_CODES.N)
+    private static long getProcessStartNanos() {
+        if (Utils.isNOrLater()) {
+            return Process.getStartElapsedRealtime() * 1000000L;
+        }
+        return SystemClock.elapsedRealtimeNanos();
+    }
+}
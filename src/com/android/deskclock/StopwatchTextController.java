@@ -16,7 +16,6 @@
 
 package com.android.deskclock;
 
-import android.content.Context;
 import android.widget.TextView;
 
 import com.android.deskclock.uidata.UiDataModel;
@@ -33,6 +32,9 @@ public final class StopwatchTextController {
     private final TextView mMainTextView;
     private final TextView mHundredthsTextView;
 
+    /** Composes the main text; the text view copies it, so it is reused for every update. */
+    private final StringBuilder mTimeBuilder = new StringBuilder(16);
+
     private long mLastTime = Long.MIN_VALUE;
 
     public StopwatchTextController(TextView mainTextView, TextView hundredthsTextView) {
@@ -62,9 +64,10 @@ public final class StopwatchTextController {
         // Avoid unnecessary computations and garbage creation if seconds have not changed since
         // last layout pass.
         if ((mLastTime / SECOND_IN_MILLIS) != (accumulatedTime / SECOND_IN_MILLIS)) {
-            final Context context = mMainTextView.getContext();
-            final String time = Utils.getTimeString(context, hours, minutes, seconds);
-            mMainTextView.setText(time);
+            mTimeBuilder.setLength(0);
+            UiDataModel.getUiDataModel().appendFormattedTime(mTimeBuilder, hours, minutes,
+                    seconds);
+            mMainTextView.setText(mTimeBuilder);
         }
         mLastTime = accumulatedTime;
     }
@@ -18,17 +18,26 @@ package com.android.deskclock;
 
 import android.widget.TextView;
 
+import com.android.deskclock.uidata.UiDataModel;
+
 import static android.text.format.DateUtils.HOUR_IN_MILLIS;
 import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
 import static android.text.format.DateUtils.SECOND_IN_MILLIS;
 
 /**
- * A controller which will format a provided time in millis to display as a timer.
+ * A controller which will format a provided time in millis to display as a timer. The text is only
+ * formatted and set when the displayed number of seconds changes.
  */
 public final class TimerTextController {
 
     private final TextView mTextView;
 
+    /** Composes the text; the text view copies it, so it is reused for every update. */
+    private final StringBuilder mTimeBuilder = new StringBuilder(16);
+
+    /** The signed number of seconds displayed by the text view; {@link Long#MIN_VALUE} if none. */
+    private long mDisplayedSeconds = Long.MIN_VALUE;
+
     public TimerTextController(TextView textView) {
         mTextView = textView;
     }
@@ -62,11 +71,18 @@ public final class TimerTextController {
             }
         }
 
-        String time = Utils.getTimeString(mTextView.getContext(), hours, minutes, seconds);
-        if (isNegative && !(hours == 0 && minutes == 0 && seconds == 0)) {
-            time = "\u2212" + time;
+        final long totalSeconds = hours * 3600L + minutes * 60L + seconds;
+        final long displayedSeconds = isNegative ? -totalSeconds : totalSeconds;
+        if (displayedSeconds == mDisplayedSeconds) {
+            return;
         }
+        mDisplayedSeconds = displayedSeconds;
 
-        mTextView.setText(time);
+        mTimeBuilder.setLength(0);
+        if (isNegative && totalSeconds != 0) {
+            mTimeBuilder.append('\u2212');
+        }
+        UiDataModel.getUiDataModel().appendFormattedTime(mTimeBuilder, hours, minutes, seconds);
+        mTextView.setText(mTimeBuilder);
     }
 }
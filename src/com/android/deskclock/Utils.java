@@ -25,6 +25,7 @@ import android.appwidget.AppWidgetManager;
 import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
+import android.content.SharedPreferences;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
@@ -68,7 +69,10 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.regex.Pattern;
 
 import static android.app.PendingIntent.FLAG_UPDATE_CURRENT;
 import static android.appwidget.AppWidgetManager.OPTION_APPWIDGET_HOST_CATEGORY;
@@ -543,6 +547,77 @@ public class Utils {
         return DataModel.getDataModel().currentTimeMillis();
     }
 
+    /**
+     * Opens a preferences file dedicated to one domain of application data, in the same storage
+     * area as the default preferences, moving the file there first if a restore placed it in
+     * credential encrypted storage. Any preferences whose keys match {@code keys} are moved into
+     * it from {@code defaultPrefs}; besides upgrades, this picks up data that a restore from an
+     * older backup wrote into the default preferences.
+     *
+     * @param defaultPrefs the preferences that held the data before it was moved
+     * @param name the name of the dedicated preferences file
+     * @param keys matches the keys of the data that belong in the dedicated preferences file
+     * @return the dedicated preferences
+     */
+    @TargetApi(Build.VERSION_CODES.N)
+    public static SharedPreferences getSharedPreferences(Context context,
+            SharedPreferences defaultPrefs, String name, Pattern keys) {
+        final Context storageContext;
+        if (isNOrLater()) {
+            // A restore from backup writes the file into the credential encrypted storage area.
+            // Move it into the device encrypted storage area alongside the default preferences.
+            storageContext = context.createDeviceProtectedStorageContext();
+            if (!storageContext.moveSharedPreferencesFrom(context, name)) {
+                LogUtils.wtf("Failed to migrate shared preferences %s", name);
+            }
+        } else {
+            storageContext = context;
+        }
+        final SharedPreferences prefs = storageContext.getSharedPreferences(name,
+                Context.MODE_PRIVATE);
+
+        SharedPreferences.Editor editor = null;
+        SharedPreferences.Editor defaultEditor = null;
+        for (Map.Entry<String, ?> entry : defaultPrefs.getAll().entrySet()) {
+            final String key = entry.getKey();
+            if (!keys.matcher(key).matches()) {
+                continue;
+            }
+
+            if (editor == null) {
+                editor = prefs.edit();
+                defaultEditor = defaultPrefs.edit();
+            }
+
+            final Object value = entry.getValue();
+            if (value instanceof Integer) {
+                editor.putInt(key, (Integer) value);
+            } else if (value instanceof Long) {
+                editor.putLong(key, (Long) value);
+            } else if (value instanceof Boolean) {
+                editor.putBoolean(key, (Boolean) value);
+            } else if (value instanceof Float) {
+                editor.putFloat(key, (Float) value);
+            } else if (value instanceof String) {
+                editor.putString(key, (String) value);
+            } else if (value instanceof Set) {
+                @SuppressWarnings("unchecked")
+                final Set<String> strings = (Set<String>) value;
+                editor.putStringSet(key, strings);
+            }
+            defaultEditor.remove(key);
+        }
+
+        // Callers may hold locks, so the files are not written synchronously. Asynchronous writes
+        // reach the disk in the order they are applied, so the default preferences forget the
+        // moved data only after the dedicated preferences have been written.
+        if (editor != null) {
+            editor.apply();
+            defaultEditor.apply();
+        }
+        return prefs;
+    }
+
     /**
      * @param context to obtain strings.
      * @param displayMinutes whether or not minutes should be included
@@ -581,23 +656,6 @@ public class Utils {
         return timeString;
     }
 
-    /**
-     * @param context The context from which to obtain strings
-     * @param hours Hours to display (if any)
-     * @param minutes Minutes to display (if any)
-     * @param seconds Seconds to display
-     * @return Provided time formatted as a String
-     */
-    static String getTimeString(Context context, int hours, int minutes, int seconds) {
-        if (hours != 0) {
-            return context.getString(R.string.hours_minutes_seconds, hours, minutes, seconds);
-        }
-        if (minutes != 0) {
-            return context.getString(R.string.minutes_seconds, minutes, seconds);
-        }
-        return context.getString(R.string.seconds, seconds);
-    }
-
     public static final class ClickAccessibilityDelegate extends AccessibilityDelegateCompat {
 
         /** The label for talkback to apply to the view */
@@ -22,6 +22,7 @@ import android.view.Menu;
 import android.view.MenuItem;
 
 import com.android.deskclock.R;
+import com.android.deskclock.data.DataModel;
 import com.android.deskclock.settings.SettingsActivity;
 
 import static android.view.Menu.NONE;
@@ -54,6 +55,8 @@ public final class SettingsMenuItemController implements MenuItemController {
 
     @Override
     public void onPrepareOptionsItem(MenuItem item) {
+        // The settings screen lists the time zones; load them before it may be opened.
+        DataModel.getDataModel().preloadTimeZones();
     }
 
     @Override
@@ -20,13 +20,17 @@ import android.app.AlarmManager;
 import android.app.AlarmManager.AlarmClockInfo;
 import android.app.PendingIntent;
 import android.content.BroadcastReceiver;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
+import android.content.OperationApplicationException;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Handler;
 import android.os.PowerManager;
+import android.os.RemoteException;
 import android.provider.Settings;
 import androidx.core.app.NotificationManagerCompat;
 import android.text.format.DateFormat;
@@ -39,12 +43,15 @@ import com.android.deskclock.AsyncHandler;
 import com.android.deskclock.DeskClock;
 import com.android.deskclock.LogUtils;
 import com.android.deskclock.R;
+import com.android.deskclock.StartupTrace;
 import com.android.deskclock.Utils;
 import com.android.deskclock.data.DataModel;
 import com.android.deskclock.events.Events;
 import com.android.deskclock.provider.Alarm;
 import com.android.deskclock.provider.AlarmInstance;
+import com.android.deskclock.provider.ClockContract;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Comparator;
@@ -143,6 +150,28 @@ public final class AlarmStateManager extends BroadcastReceiver {
     private static StateChangeScheduler sStateChangeScheduler =
             new AlarmManagerStateChangeScheduler();
 
+    // The depth of nested scheduling sessions on each thread.
+    private static final ThreadLocal<int[]> sSessionDepth = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
+
+    // Indicates the next alarm must be updated when the outermost session on a thread ends.
+    private static final ThreadLocal<boolean[]> sNextAlarmPending = new ThreadLocal<boolean[]>() {
+        @Override
+        protected boolean[] initialValue() {
+            return new boolean[1];
+        }
+    };
+
+    // Guards the next alarm most recently published to the system.
+    private static final Object sNextAlarmLock = new Object();
+
+    // Identifies the next alarm most recently published to the system; null if none has been.
+    private static String sPublishedNextAlarm;
+
     private static final String ACTION_SET_POWEROFF_ALARM =
             "org.codeaurora.poweroffalarm.action.SET_ALARM";
 
@@ -171,22 +200,94 @@ public final class AlarmStateManager extends BroadcastReceiver {
         sStateChangeScheduler = stateChangeScheduler;
     }
 
+    /**
+     * Begins a scheduling session on the calling thread. Until the matching call to
+     * {@link #endSchedulingSession} the next alarm is not updated; instead it is updated once
+     * when the outermost session ends, if any operation within the session required it. Sessions
+     * may be nested.
+     */
+    public static void beginSchedulingSession() {
+        sSessionDepth.get()[0]++;
+    }
+
+    /**
+     * Ends a scheduling session begun by {@link #beginSchedulingSession}. Callers should end the
+     * session in a {@code finally} block so the next alarm is always brought up to date.
+     *
+     * @param context application context
+     */
+    public static void endSchedulingSession(Context context) {
+        final int[] depth = sSessionDepth.get();
+        if (depth[0] == 0) {
+            LogUtils.wtf("Scheduling session ended without having begun");
+            return;
+        }
+
+        depth[0]--;
+        final boolean[] pending = sNextAlarmPending.get();
+        if (depth[0] == 0 && pending[0]) {
+            pending[0] = false;
+            updateNextAlarm(context);
+        }
+    }
+
     /**
      * Update the next alarm stored in framework. This value is also displayed in digital widgets
-     * and the clock tab in this app.
+     * and the clock tab in this app. Within a scheduling session the update is deferred until
+     * the outermost session ends.
      */
     private static void updateNextAlarm(Context context) {
-        final AlarmInstance nextAlarm = getNextFiringAlarm(context);
+        if (sSessionDepth.get()[0] > 0) {
+            sNextAlarmPending.get()[0] = true;
+            return;
+        }
 
-        if (nextAlarm != null) {
-            setPowerOffAlarm(context, nextAlarm);
+        synchronized (sNextAlarmLock) {
+            final AlarmInstance nextAlarm = getNextFiringAlarm(context);
+
+            // Skip the system calls if the system already holds this next alarm.
+            final String published = getPublishedNextAlarm(context, nextAlarm);
+            if (published.equals(sPublishedNextAlarm)) {
+                LogUtils.v("Next alarm is unchanged: %s", published);
+                return;
+            }
+
+            if (nextAlarm != null) {
+                setPowerOffAlarm(context, nextAlarm);
+            }
+
+            LogUtils.recordSchedulingEvent("next-alarm",
+                    nextAlarm == null ? AlarmInstance.INVALID_ID : nextAlarm.mId,
+                    nextAlarm == null ? -1 : nextAlarm.mAlarmState,
+                    nextAlarm == null ? 0 : nextAlarm.getAlarmTime().getTimeInMillis());
+
+            if (Utils.isPreL()) {
+                updateNextAlarmInSystemSettings(context, nextAlarm);
+            } else {
+                updateNextAlarmInAlarmManager(context, nextAlarm);
+            }
+
+            sPublishedNextAlarm = published;
+        }
+    }
+
+    /**
+     * @return a description of everything the system is told about the {@code nextAlarm}; two
+     *      equal descriptions need not be published twice
+     */
+    private static String getPublishedNextAlarm(Context context, AlarmInstance nextAlarm) {
+        if (nextAlarm == null) {
+            return "";
         }
 
+        final long alarmTime = nextAlarm.getAlarmTime().getTimeInMillis();
         if (Utils.isPreL()) {
-            updateNextAlarmInSystemSettings(context, nextAlarm);
-        } else {
-            updateNextAlarmInAlarmManager(context, nextAlarm);
+            // The formatted time also depends on the locale and the 12/24 hour preference.
+            final CharSequence time = AlarmUtils.getFormattedTime(context,
+                    nextAlarm.getAlarmTime());
+            return nextAlarm.mId + "@" + alarmTime + " " + time;
         }
+        return nextAlarm.mId + "@" + alarmTime;
     }
 
     /**
@@ -301,7 +402,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
                 nextRepeatedInstance = alarm.createInstanceAfter(instance.getAlarmTime());
             }
 
-            LogUtils.i("Creating new instance for repeating alarm " + alarm.id + " at " +
+            LogUtils.i("Creating new instance for repeating alarm %d at %s", alarm.id,
                     AlarmUtils.getFormattedTime(context, nextRepeatedInstance.getAlarmTime()));
             AlarmInstance.addInstance(cr, nextRepeatedInstance);
             registerInstance(context, nextRepeatedInstance, true);
@@ -496,12 +597,12 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         // Calculate the new snooze alarm time
         final int snoozeMinutes = DataModel.getDataModel().getSnoozeLength();
-        Calendar newAlarmTime = Calendar.getInstance();
+        Calendar newAlarmTime = getCurrentTime();
         newAlarmTime.add(Calendar.MINUTE, snoozeMinutes);
 
         // Update alarm state and new alarm time in db.
-        LogUtils.i("Setting snoozed state to instance " + instance.mId + " for "
-                + AlarmUtils.getFormattedTime(context, newAlarmTime));
+        LogUtils.i("Setting snoozed state to instance %d for %s", instance.mId,
+                AlarmUtils.getFormattedTime(context, newAlarmTime));
         instance.setAlarmTime(newAlarmTime);
         instance.mAlarmState = AlarmInstance.SNOOZE_STATE;
         AlarmInstance.updateInstance(context.getContentResolver(), instance);
@@ -730,7 +831,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
             // There is a chance that the TIME_SET occurred right when the alarm should go off, so
             // we need to add a check to see if we should fire the alarm instead of marking it
             // missed.
-            Calendar alarmBuffer = Calendar.getInstance();
+            Calendar alarmBuffer = getCurrentTime();
             alarmBuffer.setTime(alarmTime.getTime());
             alarmBuffer.add(Calendar.SECOND, ALARM_FIRE_BUFFER);
             if (currentTime.before(alarmBuffer)) {
@@ -800,12 +901,88 @@ public final class AlarmStateManager extends BroadcastReceiver {
         updateNextAlarm(context);
     }
 
+    /**
+     * Replaces all existing alarm instances with the next instance of each enabled alarm. All
+     * database changes are applied within a single provider transaction, each new instance is
+     * registered without updating the next alarm, and the next alarm is updated once at the end.
+     * This is used after a restore, where none of the existing instances are relevant.
+     *
+     * @param context application context
+     * @param alarms the alarms whose next instances should be scheduled
+     * @return the number of instances scheduled
+     */
+    public static int replaceAllInstances(Context context, List<Alarm> alarms) {
+        beginSchedulingSession();
+        try {
+            return replaceAllInstancesInSession(context, alarms);
+        } finally {
+            endSchedulingSession(context);
+        }
+    }
+
+    private static int replaceAllInstancesInSession(Context context, List<Alarm> alarms) {
+        final ContentResolver cr = context.getContentResolver();
+        final ArrayList<ContentProviderOperation> operations = new ArrayList<>();
+
+        // Remove the notifications and scheduled state changes of all existing instances. Their
+        // state is not updated because they are about to be deleted.
+        final List<AlarmInstance> oldInstances = AlarmInstance.getInstances(cr, null);
+        for (AlarmInstance instance : oldInstances) {
+            AlarmService.stopAlarm(context, instance);
+            AlarmNotifications.clearNotification(context, instance);
+            cancelScheduledInstanceStateChange(context, instance);
+            operations.add(ContentProviderOperation
+                    .newDelete(AlarmInstance.getContentUri(instance.mId)).build());
+        }
+
+        // Create the next instance of each enabled alarm.
+        final Calendar now = getCurrentTime();
+        final List<AlarmInstance> newInstances = new ArrayList<>(alarms.size());
+        for (Alarm alarm : alarms) {
+            if (alarm.enabled) {
+                final AlarmInstance instance = alarm.createInstanceAfter(now);
+                newInstances.add(instance);
+                operations.add(ContentProviderOperation.newInsert(AlarmInstance.CONTENT_URI)
+                        .withValues(AlarmInstance.createContentValues(instance)).build());
+            }
+        }
+
+        final ContentProviderResult[] results;
+        try {
+            results = cr.applyBatch(ClockContract.AUTHORITY, operations);
+        } catch (RemoteException | OperationApplicationException e) {
+            LogUtils.e("Unable to replace alarm instances", e);
+            updateNextAlarm(context);
+            return 0;
+        }
+
+        // The inserts follow the deletes, so their results are at the end.
+        final int firstInsert = oldInstances.size();
+        for (int i = 0; i < newInstances.size(); i++) {
+            final AlarmInstance instance = newInstances.get(i);
+            instance.mId = AlarmInstance.getId(results[firstInsert + i].uri);
+            registerInstance(context, instance, false /* updateNextAlarm */);
+        }
+
+        updateNextAlarm(context);
+        return newInstances.size();
+    }
+
     /**
      * Fix and update all alarm instance when a time change event occurs.
      *
      * @param context application context
      */
     public static void fixAlarmInstances(Context context) {
+        beginSchedulingSession();
+        try {
+            fixAlarmInstancesInSession(context);
+        } finally {
+            endSchedulingSession(context);
+        }
+    }
+
+    private static void fixAlarmInstancesInSession(Context context) {
         LogUtils.i("Fixing alarm instances");
         // Register all instances after major time changes or when phone restarts
         final ContentResolver contentResolver = context.getContentResolver();
@@ -917,8 +1094,17 @@ public final class AlarmStateManager extends BroadcastReceiver {
     }
 
     public static void handleIntent(Context context, Intent intent) {
+        final long startNanos = StartupTrace.beginSection("AlarmStateManager.handleIntent");
+        try {
+            handleIntentInSection(context, intent);
+        } finally {
+            StartupTrace.endSection("AlarmStateManager.handleIntent", startNanos);
+        }
+    }
+
+    private static void handleIntentInSection(Context context, Intent intent) {
         final String action = intent.getAction();
-        LogUtils.v("AlarmStateManager received intent " + intent);
+        LogUtils.v("AlarmStateManager received intent %s", intent);
         if (CHANGE_STATE_ACTION.equals(action)) {
             Uri uri = intent.getData();
             AlarmInstance instance = AlarmInstance.getInstance(context.getContentResolver(),
@@ -950,10 +1136,19 @@ public final class AlarmStateManager extends BroadcastReceiver {
                 }
             }
 
-            if (alarmState >= 0) {
-                setAlarmState(context, instance, alarmState);
-            } else {
-                registerInstance(context, instance, true);
+            LogUtils.recordSchedulingEvent("change-state", instance.mId, alarmState,
+                    instance.getAlarmTime().getTimeInMillis());
+
+            // A state change may cascade into the parent alarm and its other instances.
+            beginSchedulingSession();
+            try {
+                if (alarmState >= 0) {
+                    setAlarmState(context, instance, alarmState);
+                } else {
+                    registerInstance(context, instance, true);
+                }
+            } finally {
+                endSchedulingSession(context);
             }
         } else if (SHOW_AND_DISMISS_ALARM_ACTION.equals(action)) {
             Uri uri = intent.getData();
@@ -992,8 +1187,8 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
     /**
      * Abstract away how the current time is computed. If no implementation of this interface is
-     * given the default is to return {@link Calendar#getInstance()}. Otherwise, the factory
-     * instance is consulted for the current time.
+     * given the default is to return {@link DataModel#getCalendar()}, which reads the clock shared
+     * by all models. Otherwise, the factory instance is consulted for the current time.
      */
     interface CurrentTimeFactory {
         Calendar getCurrentTime();
@@ -1038,6 +1233,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
             final long timeInMillis = time.getTimeInMillis();
             LogUtils.i("Scheduling state change %d to instance %d at %s (%d)", newState,
                     instance.mId, AlarmUtils.getFormattedTime(context, time), timeInMillis);
+            LogUtils.recordSchedulingEvent("schedule", instance.mId, newState, timeInMillis);
             final Intent stateChangeIntent =
                     createStateChangeIntent(context, ALARM_MANAGER_TAG, instance, newState);
             // Treat alarm state change as high priority, use foreground broadcasts
@@ -1056,7 +1252,8 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         @Override
         public void cancelScheduledInstanceStateChange(Context context, AlarmInstance instance) {
-            LogUtils.v("Canceling instance " + instance.mId + " timers");
+            LogUtils.v("Canceling instance %d timers", instance.mId);
+            LogUtils.recordSchedulingEvent("cancel", instance.mId, instance.mAlarmState, 0);
 
             // Create a PendingIntent that will match any one set for this instance
             PendingIntent pendingIntent = PendingIntent.getService(context, instance.hashCode(),
@@ -28,6 +28,7 @@ public class AlarmItemHolder extends ItemAdapter.ItemHolder<Alarm> {
     private static final java.lang.String EXPANDED_KEY = "expanded";
     private final AlarmInstance mAlarmInstance;
     private final AlarmTimeClickHandler mAlarmTimeClickHandler;
+    private final AlarmRenderModel mRenderModel = new AlarmRenderModel();
     private boolean mExpanded;
 
     public AlarmItemHolder(Alarm alarm, AlarmInstance alarmInstance,
@@ -51,6 +52,13 @@ public class AlarmItemHolder extends ItemAdapter.ItemHolder<Alarm> {
         return mAlarmInstance;
     }
 
+    /**
+     * @return the text displayed for this alarm, shared by its collapsed and expanded views
+     */
+    AlarmRenderModel getRenderModel() {
+        return mRenderModel;
+    }
+
     public void expand() {
         if (!isExpanded()) {
             mExpanded = true;
@@ -22,7 +22,6 @@ import android.widget.CompoundButton;
 import android.widget.ImageView;
 import android.widget.TextView;
 
-import com.android.deskclock.AlarmUtils;
 import com.android.deskclock.ItemAdapter;
 import com.android.deskclock.ItemAnimator;
 import com.android.deskclock.R;
@@ -86,7 +85,8 @@ public abstract class AlarmItemViewHolder extends ItemAdapter.ItemViewHolder<Ala
         bindOnOffSwitch(alarm);
         bindClock(alarm);
         final Context context = itemView.getContext();
-        itemView.setContentDescription(clock.getText() + " " + alarm.getLabelOrDefault(context));
+        final String label = itemHolder.getRenderModel().getLabelOrDefault(context, alarm);
+        itemView.setContentDescription(clock.getText() + " " + label);
     }
 
     protected void bindOnOffSwitch(Alarm alarm) {
@@ -100,15 +100,14 @@ public abstract class AlarmItemViewHolder extends ItemAdapter.ItemViewHolder<Ala
         clock.setAlpha(alarm.enabled ? CLOCK_ENABLED_ALPHA : CLOCK_DISABLED_ALPHA);
     }
 
-    protected boolean bindPreemptiveDismissButton(Context context, Alarm alarm,
-            AlarmInstance alarmInstance) {
+    protected boolean bindPreemptiveDismissButton(Context context, AlarmItemHolder itemHolder) {
+        final Alarm alarm = itemHolder.item;
+        final AlarmInstance alarmInstance = itemHolder.getAlarmInstance();
         final boolean canBind = alarm.canPreemptivelyDismiss() && alarmInstance != null;
         if (canBind) {
             preemptiveDismissButton.setVisibility(View.VISIBLE);
-            final String dismissText = alarm.instanceState == AlarmInstance.SNOOZE_STATE
-                    ? context.getString(R.string.alarm_alert_snooze_until,
-                            AlarmUtils.getAlarmText(context, alarmInstance, false))
-                    : context.getString(R.string.alarm_alert_dismiss_text);
+            final String dismissText =
+                    itemHolder.getRenderModel().getDismissText(context, alarm, alarmInstance);
             preemptiveDismissButton.setText(dismissText);
             preemptiveDismissButton.setClickable(true);
         } else {
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.alarms.dataadapter;
+
+import android.content.Context;
+import android.net.Uri;
+import android.text.TextUtils;
+
+import com.android.deskclock.AlarmUtils;
+import com.android.deskclock.R;
+import com.android.deskclock.Utils;
+import com.android.deskclock.data.DataModel;
+import com.android.deskclock.data.Weekdays;
+import com.android.deskclock.provider.Alarm;
+import com.android.deskclock.provider.AlarmInstance;
+
+import java.util.Calendar;
+
+/**
+ * The text displayed for an alarm item, computed once and reused by every bind of the item.
+ * Alarms are edited in place by the click handlers, so each getter compares the alarm properties
+ * its text is derived from with those it was last computed from and recomputes only on a change.
+ */
+final class AlarmRenderModel {
+
+    /** The label from which the label text was computed. */
+    private String mLabel;
+    private String mLabelOrDefault;
+    private String mLabelDescription;
+    private String mEditLabelDescription;
+
+    /** The weekdays and weekday order from which the repeat text was computed. */
+    private int mDaysOfWeekBits = -1;
+    private Weekdays.Order mWeekdayOrder;
+    private String mDaysOfWeekText;
+    private String mDaysOfWeekDescription;
+
+    /** The ringtone from which the ringtone text was computed. */
+    private Uri mAlert;
+    private String mRingtoneTitle;
+    private String mRingtoneDescription;
+    private boolean mSilent;
+
+    /** The alarm time and state from which the upcoming instance text was computed. */
+    private int mUpcomingHour = -1;
+    private int mUpcomingMinutes = -1;
+    private int mUpcomingInstanceState = -1;
+    private String mUpcomingInstanceText;
+
+    /** The time at which the upcoming instance text was computed. */
+    private long mUpcomingInstanceTime;
+
+    /** The time at which the alarm passes today or midnight passes, changing "today/tomorrow". */
+    private long mUpcomingInstanceExpiry;
+
+    /** The text of the preemptive dismiss button; the alarm instance never changes. */
+    private String mDismissText;
+
+    String getLabelOrDefault(Context context, Alarm alarm) {
+        updateLabel(context, alarm);
+        return mLabelOrDefault;
+    }
+
+    /**
+     * @return a description of the label; {@code null} if the alarm has no label
+     */
+    String getLabelDescription(Context context, Alarm alarm) {
+        updateLabel(context, alarm);
+        return mLabelDescription;
+    }
+
+    String getEditLabelDescription(Context context, Alarm alarm) {
+        updateLabel(context, alarm);
+        return mEditLabelDescription;
+    }
+
+    String getDaysOfWeekText(Context context, Alarm alarm) {
+        updateDaysOfWeek(context, alarm);
+        return mDaysOfWeekText;
+    }
+
+    String getDaysOfWeekDescription(Context context, Alarm alarm) {
+        updateDaysOfWeek(context, alarm);
+        return mDaysOfWeekDescription;
+    }
+
+    String getRingtoneTitle(Context context, Alarm alarm) {
+        updateRingtone(context, alarm);
+        return mRingtoneTitle;
+    }
+
+    String getRingtoneDescription(Context context, Alarm alarm) {
+        updateRingtone(context, alarm);
+        return mRingtoneDescription;
+    }
+
+    boolean isSilent(Context context, Alarm alarm) {
+        updateRingtone(context, alarm);
+        return mSilent;
+    }
+
+    /**
+     * @return "Today" or "Tomorrow" to describe when a non-repeating alarm fires next
+     */
+    String getUpcomingInstanceText(Context context, Alarm alarm) {
+        final Calendar calendar = DataModel.getDataModel().getCalendar();
+        final long now = calendar.getTimeInMillis();
+        if (mUpcomingInstanceText != null
+                && now >= mUpcomingInstanceTime && now < mUpcomingInstanceExpiry
+                && mUpcomingHour == alarm.hour && mUpcomingMinutes == alarm.minutes
+                && mUpcomingInstanceState == alarm.instanceState) {
+            return mUpcomingInstanceText;
+        }
+
+        final boolean tomorrow = Alarm.isTomorrow(alarm, calendar);
+        mUpcomingInstanceText = context.getString(tomorrow
+                ? R.string.alarm_tomorrow : R.string.alarm_today);
+        mUpcomingHour = alarm.hour;
+        mUpcomingMinutes = alarm.minutes;
+        mUpcomingInstanceState = alarm.instanceState;
+        mUpcomingInstanceTime = now;
+
+        // "Tomorrow" becomes "today" at midnight; "today" becomes "tomorrow" at the alarm time.
+        if (tomorrow) {
+            calendar.add(Calendar.DAY_OF_YEAR, 1);
+            calendar.set(Calendar.HOUR_OF_DAY, 0);
+            calendar.set(Calendar.MINUTE, 0);
+        } else {
+            calendar.set(Calendar.HOUR_OF_DAY, alarm.hour);
+            calendar.set(Calendar.MINUTE, alarm.minutes);
+        }
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        mUpcomingInstanceExpiry = calendar.getTimeInMillis();
+
+        return mUpcomingInstanceText;
+    }
+
+    String getDismissText(Context context, Alarm alarm, AlarmInstance alarmInstance) {
+        if (mDismissText == null) {
+            mDismissText = alarm.instanceState == AlarmInstance.SNOOZE_STATE
+                    ? context.getString(R.string.alarm_alert_snooze_until,
+                            AlarmUtils.getAlarmText(context, alarmInstance, false))
+                    : context.getString(R.string.alarm_alert_dismiss_text);
+        }
+        return mDismissText;
+    }
+
+    private void updateLabel(Context context, Alarm alarm) {
+        if (mLabelOrDefault != null && TextUtils.equals(mLabel, alarm.label)) {
+            return;
+        }
+
+        mLabel = alarm.label;
+        if (TextUtils.isEmpty(alarm.label)) {
+            mLabelOrDefault = context.getString(R.string.default_label);
+            mLabelDescription = null;
+            mEditLabelDescription = context.getString(R.string.no_label_specified);
+        } else {
+            mLabelOrDefault = alarm.label;
+            mLabelDescription = context.getString(R.string.label_description) + " " + alarm.label;
+            mEditLabelDescription = mLabelDescription;
+        }
+    }
+
+    private void updateDaysOfWeek(Context context, Alarm alarm) {
+        final Weekdays.Order weekdayOrder = DataModel.getDataModel().getWeekdayOrder();
+        final int bits = alarm.daysOfWeek.getBits();
+        if (mDaysOfWeekBits == bits && mWeekdayOrder == weekdayOrder) {
+            return;
+        }
+
+        mDaysOfWeekBits = bits;
+        mWeekdayOrder = weekdayOrder;
+        mDaysOfWeekText = alarm.daysOfWeek.toString(context, weekdayOrder);
+        mDaysOfWeekDescription = alarm.daysOfWeek.toAccessibilityString(context, weekdayOrder);
+    }
+
+    private void updateRingtone(Context context, Alarm alarm) {
+        if (mRingtoneTitle != null && mAlert != null && mAlert.equals(alarm.alert)) {
+            return;
+        }
+
+        mAlert = alarm.alert;
+        mRingtoneTitle = DataModel.getDataModel().getRingtoneTitle(alarm.alert);
+        mRingtoneDescription =
+                context.getString(R.string.ringtone_description) + " " + mRingtoneTitle;
+        mSilent = Utils.RINGTONE_SILENT.equals(alarm.alert);
+    }
+}
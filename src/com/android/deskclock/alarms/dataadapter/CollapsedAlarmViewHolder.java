@@ -31,13 +31,9 @@ import android.widget.TextView;
 import com.android.deskclock.AnimatorUtils;
 import com.android.deskclock.ItemAdapter;
 import com.android.deskclock.R;
-import com.android.deskclock.data.DataModel;
-import com.android.deskclock.data.Weekdays;
 import com.android.deskclock.events.Events;
 import com.android.deskclock.provider.Alarm;
-import com.android.deskclock.provider.AlarmInstance;
 
-import java.util.Calendar;
 import java.util.List;
 
 /**
@@ -99,49 +95,41 @@ public final class CollapsedAlarmViewHolder extends AlarmItemViewHolder {
     protected void onBindItemView(AlarmItemHolder itemHolder) {
         super.onBindItemView(itemHolder);
         final Alarm alarm = itemHolder.item;
-        final AlarmInstance alarmInstance = itemHolder.getAlarmInstance();
+        final AlarmRenderModel renderModel = itemHolder.getRenderModel();
         final Context context = itemView.getContext();
-        bindRepeatText(context, alarm);
-        bindReadOnlyLabel(context, alarm);
-        bindUpcomingInstance(context, alarm);
-        bindPreemptiveDismissButton(context, alarm, alarmInstance);
+        bindRepeatText(context, alarm, renderModel);
+        bindReadOnlyLabel(context, alarm, renderModel);
+        bindUpcomingInstance(context, alarm, renderModel);
+        bindPreemptiveDismissButton(context, itemHolder);
     }
 
-    private void bindReadOnlyLabel(Context context, Alarm alarm) {
+    private void bindReadOnlyLabel(Context context, Alarm alarm, AlarmRenderModel renderModel) {
         if (alarm.label != null && alarm.label.length() != 0) {
             alarmLabel.setText(alarm.label);
             alarmLabel.setVisibility(View.VISIBLE);
-            alarmLabel.setContentDescription(context.getString(R.string.label_description)
-                    + " " + alarm.label);
+            alarmLabel.setContentDescription(renderModel.getLabelDescription(context, alarm));
         } else {
             alarmLabel.setVisibility(View.GONE);
         }
     }
 
-    private void bindRepeatText(Context context, Alarm alarm) {
+    private void bindRepeatText(Context context, Alarm alarm, AlarmRenderModel renderModel) {
         if (alarm.daysOfWeek.isRepeating()) {
-            final Weekdays.Order weekdayOrder = DataModel.getDataModel().getWeekdayOrder();
-            final String daysOfWeekText = alarm.daysOfWeek.toString(context, weekdayOrder);
-            daysOfWeek.setText(daysOfWeekText);
-
-            final String string = alarm.daysOfWeek.toAccessibilityString(context, weekdayOrder);
-            daysOfWeek.setContentDescription(string);
-
+            daysOfWeek.setText(renderModel.getDaysOfWeekText(context, alarm));
+            daysOfWeek.setContentDescription(renderModel.getDaysOfWeekDescription(context, alarm));
             daysOfWeek.setVisibility(View.VISIBLE);
         } else {
             daysOfWeek.setVisibility(View.GONE);
         }
     }
 
-    private void bindUpcomingInstance(Context context, Alarm alarm) {
+    private void bindUpcomingInstance(Context context, Alarm alarm,
+            AlarmRenderModel renderModel) {
         if (alarm.daysOfWeek.isRepeating()) {
             upcomingInstanceLabel.setVisibility(View.GONE);
         } else {
             upcomingInstanceLabel.setVisibility(View.VISIBLE);
-            final String labelText = Alarm.isTomorrow(alarm, Calendar.getInstance()) ?
-                    context.getString(R.string.alarm_tomorrow) :
-                    context.getString(R.string.alarm_today);
-            upcomingInstanceLabel.setText(labelText);
+            upcomingInstanceLabel.setText(renderModel.getUpcomingInstanceText(context, alarm));
         }
     }
 
@@ -166,6 +154,9 @@ public final class CollapsedAlarmViewHolder extends AlarmItemViewHolder {
         final Animator changeAnimatorSet = isCollapsing
                 ? createCollapsingAnimator((AlarmItemViewHolder) oldHolder, duration)
                 : createExpandingAnimator((AlarmItemViewHolder) newHolder, duration);
+        // The changing views only fade, so they may be drawn from layers for the duration.
+        AnimatorUtils.addLayerListener(changeAnimatorSet, alarmLabel,
+                daysOfWeek, upcomingInstanceLabel, hairLine, preemptiveDismissButton);
         changeAnimatorSet.addListener(new AnimatorListenerAdapter() {
             @Override
             public void onAnimationEnd(Animator animator) {
@@ -71,6 +71,9 @@ public final class ExpandedAlarmViewHolder extends AlarmItemViewHolder {
 
     private final boolean mHasVibrator;
 
+    /** The resource id of the ringtone icon currently displayed; 0 if none is displayed. */
+    private int mRingtoneIconId;
+
     private ExpandedAlarmViewHolder(View itemView, boolean hasVibrator) {
         super(itemView);
 
@@ -193,26 +196,27 @@ public final class ExpandedAlarmViewHolder extends AlarmItemViewHolder {
         super.onBindItemView(itemHolder);
 
         final Alarm alarm = itemHolder.item;
-        final AlarmInstance alarmInstance = itemHolder.getAlarmInstance();
+        final AlarmRenderModel renderModel = itemHolder.getRenderModel();
         final Context context = itemView.getContext();
-        bindEditLabel(context, alarm);
+        bindEditLabel(context, alarm, renderModel);
         bindDaysOfWeekButtons(alarm, context);
         bindVibrator(alarm);
-        bindRingtone(context, alarm);
-        bindPreemptiveDismissButton(context, alarm, alarmInstance);
+        bindRingtone(context, alarm, renderModel);
+        bindPreemptiveDismissButton(context, itemHolder);
     }
 
-    private void bindRingtone(Context context, Alarm alarm) {
-        final String title = DataModel.getDataModel().getRingtoneTitle(alarm.alert);
-        ringtone.setText(title);
-
-        final String description = context.getString(R.string.ringtone_description);
-        ringtone.setContentDescription(description + " " + title);
-
-        final boolean silent = Utils.RINGTONE_SILENT.equals(alarm.alert);
-        final Drawable icon = Utils.getVectorDrawable(context,
-                silent ? R.drawable.ic_ringtone_silent : R.drawable.ic_ringtone);
-        ringtone.setCompoundDrawablesRelativeWithIntrinsicBounds(icon, null, null, null);
+    private void bindRingtone(Context context, Alarm alarm, AlarmRenderModel renderModel) {
+        ringtone.setText(renderModel.getRingtoneTitle(context, alarm));
+        ringtone.setContentDescription(renderModel.getRingtoneDescription(context, alarm));
+
+        // Only inflate a new icon if it differs from the one displayed.
+        final int iconId = renderModel.isSilent(context, alarm)
+                ? R.drawable.ic_ringtone_silent : R.drawable.ic_ringtone;
+        if (mRingtoneIconId != iconId) {
+            mRingtoneIconId = iconId;
+            final Drawable icon = Utils.getVectorDrawable(context, iconId);
+            ringtone.setCompoundDrawablesRelativeWithIntrinsicBounds(icon, null, null, null);
+        }
     }
 
     private void bindDaysOfWeekButtons(Alarm alarm, Context context) {
@@ -237,11 +241,9 @@ public final class ExpandedAlarmViewHolder extends AlarmItemViewHolder {
         }
     }
 
-    private void bindEditLabel(Context context, Alarm alarm) {
+    private void bindEditLabel(Context context, Alarm alarm, AlarmRenderModel renderModel) {
         editLabel.setText(alarm.label);
-        editLabel.setContentDescription(alarm.label != null && alarm.label.length() > 0
-                ? context.getString(R.string.label_description) + " " + alarm.label
-                : context.getString(R.string.no_label_specified));
+        editLabel.setContentDescription(renderModel.getEditLabelDescription(context, alarm));
     }
 
     private void bindVibrator(Alarm alarm) {
@@ -324,6 +326,9 @@ public final class ExpandedAlarmViewHolder extends AlarmItemViewHolder {
         final Animator changeAnimatorSet = isExpanding
                 ? createExpandingAnimator((AlarmItemViewHolder) oldHolder, duration)
                 : createCollapsingAnimator((AlarmItemViewHolder) newHolder, duration);
+        // The changing views only fade, so they may be drawn from layers for the duration.
+        AnimatorUtils.addLayerListener(changeAnimatorSet, repeat, editLabel,
+                repeatDays, vibrate, ringtone, hairLine, delete, preemptiveDismissButton);
         changeAnimatorSet.addListener(new AnimatorListenerAdapter() {
             @Override
             public void onAnimationEnd(Animator animator) {
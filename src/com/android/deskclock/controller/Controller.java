@@ -21,8 +21,11 @@ import android.content.Context;
 import androidx.annotation.StringRes;
 
 import com.android.deskclock.Utils;
+import com.android.deskclock.events.CountingEventTracker;
 import com.android.deskclock.events.EventTracker;
 
+import java.io.PrintWriter;
+
 import static com.android.deskclock.Utils.enforceMainLooper;
 
 /**
@@ -38,6 +41,9 @@ public final class Controller {
     /** The controller that dispatches app events to event trackers. */
     private EventController mEventController;
 
+    /** The event tracker that counts app events for diagnostic dumps. */
+    private CountingEventTracker mEventCounter;
+
     /** The controller that interacts with voice interaction sessions on M+. */
     private VoiceController mVoiceController;
 
@@ -54,6 +60,8 @@ public final class Controller {
         if (mContext != context) {
             mContext = context.getApplicationContext();
             mEventController = new EventController();
+            mEventCounter = new CountingEventTracker(mContext);
+            mEventController.addEventTracker(mEventCounter);
             mVoiceController = new VoiceController();
             if (Utils.isNMR1OrLater()) {
                 mShortcutController = new ShortcutController(mContext);
@@ -83,7 +91,8 @@ public final class Controller {
 
     /**
      * Tracks an event. Events have a category, action and label. This method can be used to track
-     * events such as button presses or other user interactions with your application.
+     * events such as button presses or other user interactions with your application. Events are
+     * delivered to event trackers asynchronously, so this method may be called from any thread.
      *
      * @param category resource id of event category
      * @param action resource id of event action
@@ -93,6 +102,13 @@ public final class Controller {
         mEventController.sendEvent(category, action, label);
     }
 
+    /**
+     * @param writer receives the number of events tracked in each category
+     */
+    public void dumpEvents(PrintWriter writer) {
+        mEventCounter.dump(writer);
+    }
+
     //
     // Voice Interaction
     //
@@ -16,16 +16,74 @@
 
 package com.android.deskclock.controller;
 
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
 import androidx.annotation.StringRes;
 
+import com.android.deskclock.LogUtils;
 import com.android.deskclock.events.EventTracker;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+/**
+ * Dispatches app events to event trackers on a background thread so that reporting an event never
+ * delays the alarm, timer or UI action that raised it. Events are queued in a bounded lock-free
+ * ring buffer and delivered in batches. If the buffer is full the event is dropped and counted.
+ */
 class EventController {
 
-    private final Collection<EventTracker> mEventTrackers = new ArrayList<>();
+    private static final LogUtils.Logger LOGGER = new LogUtils.Logger("EventController");
+
+    /** The number of events that may be queued; must be a power of 2. */
+    private static final int CAPACITY = 128;
+
+    private static final int MASK = CAPACITY - 1;
+
+    private final Collection<EventTracker> mEventTrackers = new CopyOnWriteArrayList<>();
+
+    /**
+     * The sequence of each slot in the ring buffer. A slot may be written by the producer claiming
+     * position {@code p} when its sequence is {@code p} and read by the consumer when its sequence
+     * is {@code p + 1}.
+     */
+    private final AtomicLongArray mSequences = new AtomicLongArray(CAPACITY);
+
+    private final int[] mCategories = new int[CAPACITY];
+    private final int[] mActions = new int[CAPACITY];
+    private final int[] mLabels = new int[CAPACITY];
+
+    /** The next position to be claimed by a producer. */
+    private final AtomicLong mTail = new AtomicLong();
+
+    /** The next position to be read by the consumer; only accessed on the dispatch thread. */
+    private long mHead;
+
+    /** The number of events dropped because the ring buffer was full. */
+    private final AtomicInteger mDroppedEvents = new AtomicInteger();
+
+    /** The number of dropped events most recently reported. */
+    private int mReportedDroppedEvents;
+
+    /** {@code true} while a batch is scheduled but has not yet started to drain. */
+    private final AtomicBoolean mDispatchScheduled = new AtomicBoolean();
+
+    /** Runs on the dispatch thread to deliver all queued events. */
+    private final Runnable mDispatcher = new Dispatcher();
+
+    /** The handler of the dispatch thread; created lazily by the first event. */
+    private volatile Handler mHandler;
+
+    EventController() {
+        for (int i = 0; i < CAPACITY; i++) {
+            mSequences.set(i, i);
+        }
+    }
 
     void addEventTracker(EventTracker eventTracker) {
         mEventTrackers.add(eventTracker);
@@ -35,9 +93,83 @@ class EventController {
         mEventTrackers.remove(eventTracker);
     }
 
+    /**
+     * Queues an event for delivery to all event trackers. This method never blocks and may be
+     * called from any thread.
+     */
     void sendEvent(@StringRes int category, @StringRes int action, @StringRes int label) {
-        for (EventTracker eventTracker : mEventTrackers) {
-            eventTracker.sendEvent(category, action, label);
+        while (true) {
+            final long position = mTail.get();
+            final int index = (int) (position & MASK);
+            final long sequence = mSequences.get(index);
+            if (sequence < position) {
+                // The consumer has not yet read the event a full lap ago; the buffer is full.
+                mDroppedEvents.incrementAndGet();
+                return;
+            }
+            if (sequence == position && mTail.compareAndSet(position, position + 1)) {
+                mCategories[index] = category;
+                mActions[index] = action;
+                mLabels[index] = label;
+                mSequences.set(index, position + 1);
+                break;
+            }
+            // Another producer claimed the slot first; try the next one.
+        }
+
+        if (mDispatchScheduled.compareAndSet(false, true)) {
+            getHandler().post(mDispatcher);
+        }
+    }
+
+    private Handler getHandler() {
+        if (mHandler == null) {
+            synchronized (this) {
+                if (mHandler == null) {
+                    final HandlerThread thread = new HandlerThread("EventController",
+                            Process.THREAD_PRIORITY_BACKGROUND);
+                    thread.start();
+                    mHandler = new Handler(thread.getLooper());
+                }
+            }
+        }
+        return mHandler;
+    }
+
+    /**
+     * Delivers every queued event to every event tracker.
+     */
+    private final class Dispatcher implements Runnable {
+        @Override
+        public void run() {
+            // Clear the flag first so an event queued during this batch schedules the next one.
+            mDispatchScheduled.set(false);
+
+            int delivered = 0;
+            while (true) {
+                final int index = (int) (mHead & MASK);
+                if (mSequences.get(index) != mHead + 1) {
+                    break;
+                }
+
+                final int category = mCategories[index];
+                final int action = mActions[index];
+                final int label = mLabels[index];
+                mSequences.set(index, mHead + CAPACITY);
+                mHead++;
+
+                for (EventTracker eventTracker : mEventTrackers) {
+                    eventTracker.sendEvent(category, action, label);
+                }
+                delivered++;
+            }
+
+            final int dropped = mDroppedEvents.get();
+            if (dropped != mReportedDroppedEvents) {
+                LOGGER.w("Dropped %d events; delivered %d in the last batch",
+                        dropped - mReportedDroppedEvents, delivered);
+                mReportedDroppedEvents = dropped;
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -51,6 +51,12 @@ final class CityDAO {
     /** Prefix for a key to a preference that stores the id of a selected city. */
     private static final String CITY_ID = "city_id_";
 
+    /** The name of the preferences file that stores the selected cities. */
+    static final String PREFS_NAME = "cities";
+
+    /** Matches the keys of all preferences that store the selected cities. */
+    static final Pattern KEYS = Pattern.compile(NUMBER_OF_CITIES + "|" + CITY_ID + "\\d+");
+
     private CityDAO() {}
 
     /**
@@ -80,14 +80,14 @@ final class CityModel {
 
     CityModel(Context context, SharedPreferences prefs, SettingsModel settingsModel) {
         mContext = context;
-        mPrefs = prefs;
+        mPrefs = Utils.getSharedPreferences(context, prefs, CityDAO.PREFS_NAME, CityDAO.KEYS);
         mSettingsModel = settingsModel;
 
         // Clear caches affected by locale when locale changes.
         final IntentFilter localeBroadcastFilter = new IntentFilter(Intent.ACTION_LOCALE_CHANGED);
         mContext.registerReceiver(mLocaleChangedReceiver, localeBroadcastFilter);
 
-        // Clear caches affected by preferences when preferences change.
+        // Clear caches affected by settings when settings change.
         prefs.registerOnSharedPreferenceChangeListener(mPreferenceListener);
     }
 
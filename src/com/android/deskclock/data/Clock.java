@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import android.os.SystemClock;
+
+import java.util.TimeZone;
+
+/**
+ * A source of the current time. All time read through {@link DataModel} comes from a single clock
+ * so that it can be replaced, e.g. by a {@link VirtualClock}, to make time deterministic.
+ */
+public interface Clock {
+
+    /** Reads time from the device. */
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public long elapsedRealtime() {
+            return SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public TimeZone getTimeZone() {
+            return TimeZone.getDefault();
+        }
+    };
+
+    /**
+     * @return the current wall clock time in milliseconds
+     */
+    long currentTimeMillis();
+
+    /**
+     * @return milliseconds since boot, including time spent in sleep
+     */
+    long elapsedRealtime();
+
+    /**
+     * @return the time zone in which the wall clock time is presented
+     */
+    TimeZone getTimeZone();
+}
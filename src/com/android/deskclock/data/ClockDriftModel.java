@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import com.android.deskclock.LogUtils;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
+import static android.text.format.DateUtils.SECOND_IN_MILLIS;
+
+/**
+ * Timers and the stopwatch measure time with the monotonic clock, but record the wall clock time
+ * alongside it because only the wall clock survives a reboot. While any timer or the stopwatch is
+ * running, this model is asked periodically to measure how far the two clocks have drifted apart
+ * since they recorded them. Drift beyond a threshold is corrected by rebasing the recorded times on
+ * the monotonic clock, so that it cannot accumulate and surface as a jump after the next reboot.
+ * All corrected timers are stored with a single batched write.
+ */
+final class ClockDriftModel {
+
+    /** The period between drift checks. */
+    static final long CHECK_INTERVAL = 15 * MINUTE_IN_MILLIS;
+
+    /** Drift of at least this many milliseconds in either direction is corrected. */
+    static final long DRIFT_THRESHOLD = SECOND_IN_MILLIS;
+
+    /** The model from which both clocks are read. */
+    private final TimeModel mTimeModel;
+
+    /** The number of drift checks performed. */
+    private int mCheckCount;
+
+    /** The number of timers and stopwatches whose recorded times were corrected. */
+    private int mCorrectionCount;
+
+    /** The largest drift measured, in milliseconds; positive when the wall clock ran ahead. */
+    private long mMaxDrift;
+
+    /** The sum of the magnitudes of all corrected drifts, in milliseconds. */
+    private long mCorrectedDrift;
+
+    ClockDriftModel(TimeModel timeModel) {
+        mTimeModel = timeModel;
+    }
+
+    /**
+     * @return {@code true} iff any of the {@code timers} records times that may drift
+     */
+    static boolean hasRunningTimers(List<Timer> timers) {
+        for (Timer timer : timers) {
+            if (!timer.isReset() && !timer.isPaused()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Measures the drift of each running timer and the stopwatch and corrects any that exceeds
+     * the threshold. Either model may be {@code null} if it has not been built, in which case
+     * nothing it stores can be running in this process.
+     */
+    void checkDrift(TimerModel timerModel, StopwatchModel stopwatchModel) {
+        mCheckCount++;
+
+        final long now = mTimeModel.elapsedRealtime();
+        final long wallClock = mTimeModel.currentTimeMillis();
+
+        if (timerModel != null) {
+            final List<Timer> corrected = new ArrayList<>();
+            for (Timer timer : timerModel.getTimers()) {
+                if (timer.isReset() || timer.isPaused()) {
+                    continue;
+                }
+
+                final long drift = measureDrift(now, wallClock, timer.getLastStartTime(),
+                        timer.getLastWallClockTime());
+                if (recordDrift(drift)) {
+                    LogUtils.i("Correcting %d ms of clock drift in timer %d", drift,
+                            timer.getId());
+                    corrected.add(timer.updateAfterTimeSet());
+                }
+            }
+            if (!corrected.isEmpty()) {
+                timerModel.updateTimers(corrected);
+            }
+        }
+
+        if (stopwatchModel != null) {
+            final Stopwatch stopwatch = stopwatchModel.getStopwatch();
+            if (stopwatch.isRunning()) {
+                final long drift = measureDrift(now, wallClock, stopwatch.getLastStartTime(),
+                        stopwatch.getLastWallClockTime());
+                if (recordDrift(drift)) {
+                    LogUtils.i("Correcting %d ms of clock drift in the stopwatch", drift);
+                    stopwatchModel.setStopwatch(stopwatch.updateAfterTimeSet());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the drift check count, correction count and drift magnitudes to the given
+     * {@code writer}.
+     */
+    void dump(PrintWriter writer) {
+        writer.printf("Clock drift: %d checks, %d corrections, %d ms corrected, %d ms max drift%n",
+                mCheckCount, mCorrectionCount, mCorrectedDrift, mMaxDrift);
+    }
+
+    /**
+     * @param now the current monotonic time
+     * @param wallClock the current wall clock time
+     * @param lastStartTime the monotonic time recorded alongside {@code lastWallClockTime}
+     * @param lastWallClockTime the wall clock time recorded alongside {@code lastStartTime}
+     * @return the amount by which the wall clock advanced more than the monotonic clock since the
+     *      times were recorded; {@code 0} if the recorded times predate a reboot
+     */
+    static long measureDrift(long now, long wallClock, long lastStartTime,
+            long lastWallClockTime) {
+        final long monotonicDelta = now - lastStartTime;
+        if (monotonicDelta < 0) {
+            // The recorded times predate a reboot that has not yet been handled; leave them to
+            // the reboot handling.
+            return 0;
+        }
+
+        return (wallClock - lastWallClockTime) - monotonicDelta;
+    }
+
+    /**
+     * @param drift a drift returned by {@link #measureDrift}
+     * @return {@code true} iff the {@code drift} is large enough to be corrected
+     */
+    private boolean recordDrift(long drift) {
+        if (Math.abs(drift) > Math.abs(mMaxDrift)) {
+            mMaxDrift = drift;
+        }
+        if (Math.abs(drift) < DRIFT_THRESHOLD) {
+            return false;
+        }
+
+        mCorrectionCount++;
+        mCorrectedDrift += Math.abs(drift);
+        return true;
+    }
+}
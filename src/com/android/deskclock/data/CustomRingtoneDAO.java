@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * This class encapsulates the transfer of data between {@link CustomRingtone} domain objects and
@@ -43,6 +44,13 @@ final class CustomRingtoneDAO {
     /** Prefix for a key to a preference that stores the title associated with the ringtone id. */
     private static final String RINGTONE_TITLE = "ringtone_title_";
 
+    /** The name of the preferences file that stores the custom ringtones. */
+    static final String PREFS_NAME = "custom_ringtones";
+
+    /** Matches the keys of all preferences that store the custom ringtones. */
+    static final Pattern KEYS = Pattern.compile(RINGTONE_IDS + "|" + NEXT_RINGTONE_ID + "|("
+            + RINGTONE_URI + "|" + RINGTONE_TITLE + ")\\d+");
+
     private CustomRingtoneDAO() {}
 
     /**
@@ -25,13 +25,16 @@ import android.net.Uri;
 import android.os.Handler;
 import android.os.Looper;
 import androidx.annotation.StringRes;
+import androidx.annotation.VisibleForTesting;
 import android.view.View;
 
 import com.android.deskclock.Predicate;
 import com.android.deskclock.R;
+import com.android.deskclock.StartupTrace;
 import com.android.deskclock.Utils;
 import com.android.deskclock.timer.TimerService;
 
+import java.io.PrintWriter;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Comparator;
@@ -188,12 +191,24 @@ public final class DataModel {
     /** The model from which notification data are fetched. */
     private NotificationModel mNotificationModel;
 
-    /** The model from which time data are fetched. */
-    private TimeModel mTimeModel;
+    /**
+     * The model from which time data are fetched. It is constructed eagerly, as it costs nothing
+     * to build, so that time can be read from any thread without taking this model's lock.
+     */
+    private volatile TimeModel mTimeModel;
 
     /** The model from which ringtone data are fetched. */
     private RingtoneModel mRingtoneModel;
 
+    /** The model that corrects clock drift in running timers and the stopwatch. */
+    private ClockDriftModel mClockDriftModel;
+
+    /** Periodically checks for clock drift while any timer or the stopwatch is running. */
+    private final ClockDriftCheck mClockDriftCheck = new ClockDriftCheck();
+
+    /** The shared preferences from which sub-models read and write their data. */
+    private SharedPreferences mPrefs;
+
     public static DataModel getDataModel() {
         return sDataModel;
     }
@@ -201,23 +216,34 @@ public final class DataModel {
     private DataModel() {}
 
     /**
-     * Initializes the data model with the context and shared preferences to be used.
+     * Initializes the data model with the context and shared preferences to be used. Apart from
+     * the time model, each sub-model is constructed on first use, along with the sub-models it
+     * depends upon, so that a process started to handle a single broadcast only pays for the
+     * models it needs.
      */
     public void init(Context context, SharedPreferences prefs) {
-        if (mContext != context) {
-            mContext = context.getApplicationContext();
-
-            mTimeModel = new TimeModel(mContext);
-            mWidgetModel = new WidgetModel(prefs);
-            mNotificationModel = new NotificationModel();
-            mRingtoneModel = new RingtoneModel(mContext, prefs);
-            mSettingsModel = new SettingsModel(mContext, prefs, mTimeModel);
-            mCityModel = new CityModel(mContext, prefs, mSettingsModel);
-            mAlarmModel = new AlarmModel(mContext, mSettingsModel);
-            mSilentSettingsModel = new SilentSettingsModel(mContext, mNotificationModel);
-            mStopwatchModel = new StopwatchModel(mContext, prefs, mNotificationModel);
-            mTimerModel = new TimerModel(mContext, prefs, mSettingsModel, mRingtoneModel,
-                    mNotificationModel);
+        final long startNanos = StartupTrace.beginSection("DataModel.init");
+        try {
+            synchronized (this) {
+                if (mContext != context) {
+                    mContext = context.getApplicationContext();
+                    mPrefs = prefs;
+
+                    mTimeModel = new TimeModel(mContext);
+                    mWidgetModel = null;
+                    mNotificationModel = null;
+                    mRingtoneModel = null;
+                    mSettingsModel = null;
+                    mCityModel = null;
+                    mAlarmModel = null;
+                    mSilentSettingsModel = null;
+                    mStopwatchModel = null;
+                    mTimerModel = null;
+                    mClockDriftModel = null;
+                }
+            }
+        } finally {
+            StartupTrace.endSection("DataModel.init", startNanos);
         }
     }
 
@@ -236,8 +262,8 @@ public final class DataModel {
      */
     public void updateAfterReboot() {
         enforceMainLooper();
-        mTimerModel.updateTimersAfterReboot();
-        mStopwatchModel.setStopwatch(getStopwatch().updateAfterReboot());
+        getTimerModel().updateTimersAfterReboot();
+        getStopwatchModel().setStopwatch(getStopwatch().updateAfterReboot());
     }
 
     /**
@@ -245,8 +271,8 @@ public final class DataModel {
      */
     public void updateAfterTimeSet() {
         enforceMainLooper();
-        mTimerModel.updateTimersAfterTimeSet();
-        mStopwatchModel.setStopwatch(getStopwatch().updateAfterTimeSet());
+        getTimerModel().updateTimersAfterTimeSet();
+        getStopwatchModel().setStopwatch(getStopwatch().updateAfterTimeSet());
     }
 
     /**
@@ -290,14 +316,14 @@ public final class DataModel {
     public void setApplicationInForeground(boolean inForeground) {
         enforceMainLooper();
 
-        if (mNotificationModel.isApplicationInForeground() != inForeground) {
-            mNotificationModel.setApplicationInForeground(inForeground);
+        if (getNotificationModel().isApplicationInForeground() != inForeground) {
+            getNotificationModel().setApplicationInForeground(inForeground);
 
             // Refresh all notifications in response to a change in app open state.
-            mTimerModel.updateNotification();
-            mTimerModel.updateMissedNotification();
-            mStopwatchModel.updateNotification();
-            mSilentSettingsModel.updateSilentState();
+            getTimerModel().updateNotification();
+            getTimerModel().updateMissedNotification();
+            getStopwatchModel().updateNotification();
+            getSilentSettingsModel().updateSilentState();
         }
     }
 
@@ -306,7 +332,7 @@ public final class DataModel {
      */
     public boolean isApplicationInForeground() {
         enforceMainLooper();
-        return mNotificationModel.isApplicationInForeground();
+        return getNotificationModel().isApplicationInForeground();
     }
 
     /**
@@ -315,9 +341,9 @@ public final class DataModel {
      */
     public void updateAllNotifications() {
         enforceMainLooper();
-        mTimerModel.updateNotification();
-        mTimerModel.updateMissedNotification();
-        mStopwatchModel.updateNotification();
+        getTimerModel().updateNotification();
+        getTimerModel().updateMissedNotification();
+        getStopwatchModel().updateNotification();
     }
 
     //
@@ -329,7 +355,7 @@ public final class DataModel {
      */
     public List<City> getAllCities() {
         enforceMainLooper();
-        return mCityModel.getAllCities();
+        return getCityModel().getAllCities();
     }
 
     /**
@@ -337,7 +363,7 @@ public final class DataModel {
      */
     public City getHomeCity() {
         enforceMainLooper();
-        return mCityModel.getHomeCity();
+        return getCityModel().getHomeCity();
     }
 
     /**
@@ -345,7 +371,7 @@ public final class DataModel {
      */
     public List<City> getUnselectedCities() {
         enforceMainLooper();
-        return mCityModel.getUnselectedCities();
+        return getCityModel().getUnselectedCities();
     }
 
     /**
@@ -353,7 +379,7 @@ public final class DataModel {
      */
     public List<City> getSelectedCities() {
         enforceMainLooper();
-        return mCityModel.getSelectedCities();
+        return getCityModel().getSelectedCities();
     }
 
     /**
@@ -361,7 +387,7 @@ public final class DataModel {
      */
     public void setSelectedCities(Collection<City> cities) {
         enforceMainLooper();
-        mCityModel.setSelectedCities(cities);
+        getCityModel().setSelectedCities(cities);
     }
 
     /**
@@ -369,7 +395,7 @@ public final class DataModel {
      */
     public Comparator<City> getCityIndexComparator() {
         enforceMainLooper();
-        return mCityModel.getCityIndexComparator();
+        return getCityModel().getCityIndexComparator();
     }
 
     /**
@@ -377,7 +403,7 @@ public final class DataModel {
      */
     public CitySort getCitySort() {
         enforceMainLooper();
-        return mCityModel.getCitySort();
+        return getCityModel().getCitySort();
     }
 
     /**
@@ -385,7 +411,7 @@ public final class DataModel {
      */
     public void toggleCitySort() {
         enforceMainLooper();
-        mCityModel.toggleCitySort();
+        getCityModel().toggleCitySort();
     }
 
     /**
@@ -393,7 +419,7 @@ public final class DataModel {
      */
     public void addCityListener(CityListener cityListener) {
         enforceMainLooper();
-        mCityModel.addCityListener(cityListener);
+        getCityModel().addCityListener(cityListener);
     }
 
     /**
@@ -401,7 +427,7 @@ public final class DataModel {
      */
     public void removeCityListener(CityListener cityListener) {
         enforceMainLooper();
-        mCityModel.removeCityListener(cityListener);
+        getCityModel().removeCityListener(cityListener);
     }
 
     //
@@ -413,7 +439,7 @@ public final class DataModel {
      */
     public void addTimerListener(TimerListener timerListener) {
         enforceMainLooper();
-        mTimerModel.addTimerListener(timerListener);
+        getTimerModel().addTimerListener(timerListener);
     }
 
     /**
@@ -421,7 +447,7 @@ public final class DataModel {
      */
     public void removeTimerListener(TimerListener timerListener) {
         enforceMainLooper();
-        mTimerModel.removeTimerListener(timerListener);
+        getTimerModel().removeTimerListener(timerListener);
     }
 
     /**
@@ -429,7 +455,7 @@ public final class DataModel {
      */
     public List<Timer> getTimers() {
         enforceMainLooper();
-        return mTimerModel.getTimers();
+        return getTimerModel().getTimers();
     }
 
     /**
@@ -437,7 +463,7 @@ public final class DataModel {
      */
     public List<Timer> getExpiredTimers() {
         enforceMainLooper();
-        return mTimerModel.getExpiredTimers();
+        return getTimerModel().getExpiredTimers();
     }
 
     /**
@@ -446,7 +472,7 @@ public final class DataModel {
      */
     public Timer getTimer(int timerId) {
         enforceMainLooper();
-        return mTimerModel.getTimer(timerId);
+        return getTimerModel().getTimer(timerId);
     }
 
     /**
@@ -455,7 +481,7 @@ public final class DataModel {
      */
     public Timer getMostRecentExpiredTimer() {
         enforceMainLooper();
-        return mTimerModel.getMostRecentExpiredTimer();
+        return getTimerModel().getMostRecentExpiredTimer();
     }
 
     /**
@@ -466,7 +492,7 @@ public final class DataModel {
      */
     public Timer addTimer(long length, String label, boolean deleteAfterUse) {
         enforceMainLooper();
-        return mTimerModel.addTimer(length, label, deleteAfterUse);
+        return getTimerModel().addTimer(length, label, deleteAfterUse);
     }
 
     /**
@@ -474,7 +500,7 @@ public final class DataModel {
      */
     public void removeTimer(Timer timer) {
         enforceMainLooper();
-        mTimerModel.removeTimer(timer);
+        getTimerModel().removeTimer(timer);
     }
 
     /**
@@ -491,7 +517,7 @@ public final class DataModel {
     public void startTimer(Service service, Timer timer) {
         enforceMainLooper();
         final Timer started = timer.start();
-        mTimerModel.updateTimer(started);
+        getTimerModel().updateTimer(started);
         if (timer.getRemainingTime() <= 0) {
             if (service != null) {
                 expireTimer(service, started);
@@ -506,7 +532,7 @@ public final class DataModel {
      */
     public void pauseTimer(Timer timer) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.pause());
+        getTimerModel().updateTimer(timer.pause());
     }
 
     /**
@@ -515,7 +541,7 @@ public final class DataModel {
      */
     public void expireTimer(Service service, Timer timer) {
         enforceMainLooper();
-        mTimerModel.expireTimer(service, timer);
+        getTimerModel().expireTimer(service, timer);
     }
 
     /**
@@ -524,7 +550,7 @@ public final class DataModel {
      */
     public Timer resetTimer(Timer timer) {
         enforceMainLooper();
-        return mTimerModel.resetTimer(timer, false /* allowDelete */, 0 /* eventLabelId */);
+        return getTimerModel().resetTimer(timer, false /* allowDelete */, 0 /* eventLabelId */);
     }
 
     /**
@@ -538,7 +564,7 @@ public final class DataModel {
      */
     public Timer resetOrDeleteTimer(Timer timer, @StringRes int eventLabelId) {
         enforceMainLooper();
-        return mTimerModel.resetTimer(timer, true /* allowDelete */, eventLabelId);
+        return getTimerModel().resetTimer(timer, true /* allowDelete */, eventLabelId);
     }
 
     /**
@@ -548,7 +574,7 @@ public final class DataModel {
      */
     public void resetOrDeleteExpiredTimers(@StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetOrDeleteExpiredTimers(eventLabelId);
+        getTimerModel().resetOrDeleteExpiredTimers(eventLabelId);
     }
 
     /**
@@ -558,7 +584,7 @@ public final class DataModel {
      */
     public void resetUnexpiredTimers(@StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetUnexpiredTimers(eventLabelId);
+        getTimerModel().resetUnexpiredTimers(eventLabelId);
     }
 
     /**
@@ -568,7 +594,7 @@ public final class DataModel {
      */
     public void resetMissedTimers(@StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetMissedTimers(eventLabelId);
+        getTimerModel().resetMissedTimers(eventLabelId);
     }
 
     /**
@@ -576,7 +602,7 @@ public final class DataModel {
      */
     public void addTimerMinute(Timer timer) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.addMinute());
+        getTimerModel().updateTimer(timer.addMinute());
     }
 
     /**
@@ -585,7 +611,7 @@ public final class DataModel {
      */
     public void setTimerLabel(Timer timer, String label) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.setLabel(label));
+        getTimerModel().updateTimer(timer.setLabel(label));
     }
 
     /**
@@ -594,7 +620,7 @@ public final class DataModel {
      */
     public void setTimerLength(Timer timer, long length) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.setLength(length));
+        getTimerModel().updateTimer(timer.setLength(length));
     }
 
     /**
@@ -605,18 +631,36 @@ public final class DataModel {
         enforceMainLooper();
 
         final Timer updated = timer.setRemainingTime(remainingTime);
-        mTimerModel.updateTimer(updated);
+        getTimerModel().updateTimer(updated);
         if (timer.isRunning() && timer.getRemainingTime() <= 0) {
             mContext.startService(TimerService.createTimerExpiredIntent(mContext, updated));
         }
     }
 
+    /**
+     * @param writer receives the number of timer expiration wakeups and the wakeups saved by
+     *      expiring timers due at nearly the same time together
+     */
+    public void dumpTimerExpiries(PrintWriter writer) {
+        enforceMainLooper();
+        getTimerModel().dumpExpiries(writer);
+    }
+
+    /**
+     * @param writer receives the number of clock drift checks and corrections made to running
+     *      timers and the stopwatch
+     */
+    public void dumpClockDrift(PrintWriter writer) {
+        enforceMainLooper();
+        getClockDriftModel().dump(writer);
+    }
+
     /**
      * Updates the timer notifications to be current.
      */
     public void updateTimerNotification() {
         enforceMainLooper();
-        mTimerModel.updateNotification();
+        getTimerModel().updateNotification();
     }
 
     /**
@@ -624,7 +668,7 @@ public final class DataModel {
      */
     public Uri getDefaultTimerRingtoneUri() {
         enforceMainLooper();
-        return mTimerModel.getDefaultTimerRingtoneUri();
+        return getTimerModel().getDefaultTimerRingtoneUri();
     }
 
     /**
@@ -632,7 +676,7 @@ public final class DataModel {
      */
     public boolean isTimerRingtoneSilent() {
         enforceMainLooper();
-        return mTimerModel.isTimerRingtoneSilent();
+        return getTimerModel().isTimerRingtoneSilent();
     }
 
     /**
@@ -640,7 +684,7 @@ public final class DataModel {
      */
     public Uri getTimerRingtoneUri() {
         enforceMainLooper();
-        return mTimerModel.getTimerRingtoneUri();
+        return getTimerModel().getTimerRingtoneUri();
     }
 
     /**
@@ -648,7 +692,7 @@ public final class DataModel {
      */
     public void setTimerRingtoneUri(Uri uri) {
         enforceMainLooper();
-        mTimerModel.setTimerRingtoneUri(uri);
+        getTimerModel().setTimerRingtoneUri(uri);
     }
 
     /**
@@ -656,7 +700,7 @@ public final class DataModel {
      */
     public String getTimerRingtoneTitle() {
         enforceMainLooper();
-        return mTimerModel.getTimerRingtoneTitle();
+        return getTimerModel().getTimerRingtoneTitle();
     }
 
     /**
@@ -665,7 +709,7 @@ public final class DataModel {
      */
     public long getTimerCrescendoDuration() {
         enforceMainLooper();
-        return mTimerModel.getTimerCrescendoDuration();
+        return getTimerModel().getTimerCrescendoDuration();
     }
 
     /**
@@ -673,7 +717,7 @@ public final class DataModel {
      */
     public boolean getTimerVibrate() {
         enforceMainLooper();
-        return mTimerModel.getTimerVibrate();
+        return getTimerModel().getTimerVibrate();
     }
 
     /**
@@ -681,7 +725,7 @@ public final class DataModel {
      */
     public void setTimerVibrate(boolean enabled) {
         enforceMainLooper();
-        mTimerModel.setTimerVibrate(enabled);
+        getTimerModel().setTimerVibrate(enabled);
     }
 
     //
@@ -693,7 +737,7 @@ public final class DataModel {
      */
     public Uri getDefaultAlarmRingtoneUri() {
         enforceMainLooper();
-        return mAlarmModel.getDefaultAlarmRingtoneUri();
+        return getAlarmModel().getDefaultAlarmRingtoneUri();
     }
 
     /**
@@ -701,7 +745,7 @@ public final class DataModel {
      */
     public void setDefaultAlarmRingtoneUri(Uri uri) {
         enforceMainLooper();
-        mAlarmModel.setDefaultAlarmRingtoneUri(uri);
+        getAlarmModel().setDefaultAlarmRingtoneUri(uri);
     }
 
     /**
@@ -710,7 +754,7 @@ public final class DataModel {
      */
     public long getAlarmCrescendoDuration() {
         enforceMainLooper();
-        return mAlarmModel.getAlarmCrescendoDuration();
+        return getAlarmModel().getAlarmCrescendoDuration();
     }
 
     /**
@@ -718,21 +762,21 @@ public final class DataModel {
      */
     public AlarmVolumeButtonBehavior getAlarmVolumeButtonBehavior() {
         enforceMainLooper();
-        return mAlarmModel.getAlarmVolumeButtonBehavior();
+        return getAlarmModel().getAlarmVolumeButtonBehavior();
     }
 
     /**
      * @return the number of minutes an alarm may ring before it has timed out and becomes missed
      */
     public int getAlarmTimeout() {
-        return mAlarmModel.getAlarmTimeout();
+        return getAlarmModel().getAlarmTimeout();
     }
 
     /**
      * @return the number of minutes an alarm will remain snoozed before it rings again
      */
     public int getSnoozeLength() {
-        return mAlarmModel.getSnoozeLength();
+        return getAlarmModel().getSnoozeLength();
     }
 
     //
@@ -744,7 +788,7 @@ public final class DataModel {
      */
     public void addStopwatchListener(StopwatchListener stopwatchListener) {
         enforceMainLooper();
-        mStopwatchModel.addStopwatchListener(stopwatchListener);
+        getStopwatchModel().addStopwatchListener(stopwatchListener);
     }
 
     /**
@@ -752,7 +796,7 @@ public final class DataModel {
      */
     public void removeStopwatchListener(StopwatchListener stopwatchListener) {
         enforceMainLooper();
-        mStopwatchModel.removeStopwatchListener(stopwatchListener);
+        getStopwatchModel().removeStopwatchListener(stopwatchListener);
     }
 
     /**
@@ -760,7 +804,7 @@ public final class DataModel {
      */
     public Stopwatch getStopwatch() {
         enforceMainLooper();
-        return mStopwatchModel.getStopwatch();
+        return getStopwatchModel().getStopwatch();
     }
 
     /**
@@ -768,7 +812,7 @@ public final class DataModel {
      */
     public Stopwatch startStopwatch() {
         enforceMainLooper();
-        return mStopwatchModel.setStopwatch(getStopwatch().start());
+        return getStopwatchModel().setStopwatch(getStopwatch().start());
     }
 
     /**
@@ -776,7 +820,7 @@ public final class DataModel {
      */
     public Stopwatch pauseStopwatch() {
         enforceMainLooper();
-        return mStopwatchModel.setStopwatch(getStopwatch().pause());
+        return getStopwatchModel().setStopwatch(getStopwatch().pause());
     }
 
     /**
@@ -784,7 +828,7 @@ public final class DataModel {
      */
     public Stopwatch resetStopwatch() {
         enforceMainLooper();
-        return mStopwatchModel.setStopwatch(getStopwatch().reset());
+        return getStopwatchModel().setStopwatch(getStopwatch().reset());
     }
 
     /**
@@ -792,7 +836,7 @@ public final class DataModel {
      */
     public List<Lap> getLaps() {
         enforceMainLooper();
-        return mStopwatchModel.getLaps();
+        return getStopwatchModel().getLaps();
     }
 
     /**
@@ -800,7 +844,7 @@ public final class DataModel {
      */
     public Lap addLap() {
         enforceMainLooper();
-        return mStopwatchModel.addLap();
+        return getStopwatchModel().addLap();
     }
 
     /**
@@ -808,7 +852,7 @@ public final class DataModel {
      */
     public boolean canAddMoreLaps() {
         enforceMainLooper();
-        return mStopwatchModel.canAddMoreLaps();
+        return getStopwatchModel().canAddMoreLaps();
     }
 
     /**
@@ -816,7 +860,7 @@ public final class DataModel {
      */
     public long getLongestLapTime() {
         enforceMainLooper();
-        return mStopwatchModel.getLongestLapTime();
+        return getStopwatchModel().getLongestLapTime();
     }
 
     /**
@@ -825,7 +869,7 @@ public final class DataModel {
      */
     public long getCurrentLapTime(long time) {
         enforceMainLooper();
-        return mStopwatchModel.getCurrentLapTime(time);
+        return getStopwatchModel().getCurrentLapTime(time);
     }
 
     //
@@ -837,28 +881,39 @@ public final class DataModel {
      * @return the current time in milliseconds
      */
     public long currentTimeMillis() {
-        return mTimeModel.currentTimeMillis();
+        return getTimeModel().currentTimeMillis();
     }
 
     /**
      * @return milliseconds since boot, including time spent in sleep
      */
     public long elapsedRealtime() {
-        return mTimeModel.elapsedRealtime();
+        return getTimeModel().elapsedRealtime();
     }
 
     /**
      * @return {@code true} if 24 hour time format is selected; {@code false} otherwise
      */
     public boolean is24HourFormat() {
-        return mTimeModel.is24HourFormat();
+        return getTimeModel().is24HourFormat();
     }
 
     /**
      * @return a new calendar object initialized to the {@link #currentTimeMillis()}
      */
     public Calendar getCalendar() {
-        return mTimeModel.getCalendar();
+        return getTimeModel().getCalendar();
+    }
+
+    /**
+     * Replaces the source of all time read through this model, e.g. with a {@link VirtualClock}
+     * to replay days of activity deterministically.
+     *
+     * @param clock the new source of time; {@code null} restores the device clock
+     */
+    @VisibleForTesting
+    public void setClock(Clock clock) {
+        getTimeModel().setClock(clock);
     }
 
     //
@@ -872,7 +927,7 @@ public final class DataModel {
      */
     public void loadRingtoneTitles() {
         enforceNotMainLooper();
-        mRingtoneModel.loadRingtoneTitles();
+        getRingtoneModel().loadRingtoneTitles();
     }
 
     /**
@@ -880,7 +935,7 @@ public final class DataModel {
      */
     public void loadRingtonePermissions() {
         enforceNotMainLooper();
-        mRingtoneModel.loadRingtonePermissions();
+        getRingtoneModel().loadRingtonePermissions();
     }
 
     /**
@@ -889,7 +944,7 @@ public final class DataModel {
      */
     public String getRingtoneTitle(Uri uri) {
         enforceMainLooper();
-        return mRingtoneModel.getRingtoneTitle(uri);
+        return getRingtoneModel().getRingtoneTitle(uri);
     }
 
     /**
@@ -899,7 +954,7 @@ public final class DataModel {
      */
     public CustomRingtone addCustomRingtone(Uri uri, String title) {
         enforceMainLooper();
-        return mRingtoneModel.addCustomRingtone(uri, title);
+        return getRingtoneModel().addCustomRingtone(uri, title);
     }
 
     /**
@@ -907,7 +962,7 @@ public final class DataModel {
      */
     public void removeCustomRingtone(Uri uri) {
         enforceMainLooper();
-        mRingtoneModel.removeCustomRingtone(uri);
+        getRingtoneModel().removeCustomRingtone(uri);
     }
 
     /**
@@ -915,7 +970,7 @@ public final class DataModel {
      */
     public List<CustomRingtone> getCustomRingtones() {
         enforceMainLooper();
-        return mRingtoneModel.getCustomRingtones();
+        return getRingtoneModel().getCustomRingtones();
     }
 
     //
@@ -929,7 +984,7 @@ public final class DataModel {
      */
     public void updateWidgetCount(Class widgetClass, int count, @StringRes int eventCategoryId) {
         enforceMainLooper();
-        mWidgetModel.updateWidgetCount(widgetClass, count, eventCategoryId);
+        getWidgetModel().updateWidgetCount(widgetClass, count, eventCategoryId);
     }
 
     //
@@ -941,7 +996,7 @@ public final class DataModel {
      */
     public void addSilentSettingsListener(OnSilentSettingsListener silentSettingsListener) {
         enforceMainLooper();
-        mSilentSettingsModel.addSilentSettingsListener(silentSettingsListener);
+        getSilentSettingsModel().addSilentSettingsListener(silentSettingsListener);
     }
 
     /**
@@ -949,14 +1004,14 @@ public final class DataModel {
      */
     public void removeSilentSettingsListener(OnSilentSettingsListener silentSettingsListener) {
         enforceMainLooper();
-        mSilentSettingsModel.removeSilentSettingsListener(silentSettingsListener);
+        getSilentSettingsModel().removeSilentSettingsListener(silentSettingsListener);
     }
 
     /**
      * @return the id used to discriminate relevant AlarmManager callbacks from defunct ones
      */
     public int getGlobalIntentId() {
-        return mSettingsModel.getGlobalIntentId();
+        return getSettingsModel().getGlobalIntentId();
     }
 
     /**
@@ -964,7 +1019,7 @@ public final class DataModel {
      */
     public void updateGlobalIntentId() {
         enforceMainLooper();
-        mSettingsModel.updateGlobalIntentId();
+        getSettingsModel().updateGlobalIntentId();
     }
 
     /**
@@ -972,7 +1027,7 @@ public final class DataModel {
      */
     public ClockStyle getClockStyle() {
         enforceMainLooper();
-        return mSettingsModel.getClockStyle();
+        return getSettingsModel().getClockStyle();
     }
 
     /**
@@ -980,7 +1035,7 @@ public final class DataModel {
      */
     public boolean getDisplayClockSeconds() {
         enforceMainLooper();
-        return mSettingsModel.getDisplayClockSeconds();
+        return getSettingsModel().getDisplayClockSeconds();
     }
 
     /**
@@ -988,7 +1043,7 @@ public final class DataModel {
      */
     public void setDisplayClockSeconds(boolean displaySeconds) {
         enforceMainLooper();
-        mSettingsModel.setDisplayClockSeconds(displaySeconds);
+        getSettingsModel().setDisplayClockSeconds(displaySeconds);
     }
 
     /**
@@ -996,7 +1051,7 @@ public final class DataModel {
      */
     public ClockStyle getScreensaverClockStyle() {
         enforceMainLooper();
-        return mSettingsModel.getScreensaverClockStyle();
+        return getSettingsModel().getScreensaverClockStyle();
     }
 
     /**
@@ -1004,7 +1059,15 @@ public final class DataModel {
      */
     public boolean getScreensaverNightModeOn() {
         enforceMainLooper();
-        return mSettingsModel.getScreensaverNightModeOn();
+        return getSettingsModel().getScreensaverNightModeOn();
+    }
+
+    /**
+     * @return {@code true} if the screen saver should move its clock without animation
+     */
+    public boolean getScreensaverLowPowerModeOn() {
+        enforceMainLooper();
+        return getSettingsModel().getScreensaverLowPowerModeOn();
     }
 
     /**
@@ -1013,7 +1076,7 @@ public final class DataModel {
      */
     public boolean getShowHomeClock() {
         enforceMainLooper();
-        return mSettingsModel.getShowHomeClock();
+        return getSettingsModel().getShowHomeClock();
     }
 
     /**
@@ -1022,21 +1085,21 @@ public final class DataModel {
      */
     public Weekdays.Order getWeekdayOrder() {
         enforceMainLooper();
-        return mSettingsModel.getWeekdayOrder();
+        return getSettingsModel().getWeekdayOrder();
     }
 
     /**
      * @return {@code true} if the restore process (of backup and restore) has completed
      */
     public boolean isRestoreBackupFinished() {
-        return mSettingsModel.isRestoreBackupFinished();
+        return getSettingsModel().isRestoreBackupFinished();
     }
 
     /**
      * @param finished {@code true} means the restore process (of backup and restore) has completed
      */
     public void setRestoreBackupFinished(boolean finished) {
-        mSettingsModel.setRestoreBackupFinished(finished);
+        getSettingsModel().setRestoreBackupFinished(finished);
     }
 
     /**
@@ -1044,7 +1107,240 @@ public final class DataModel {
      */
     public TimeZones getTimeZones() {
         enforceMainLooper();
-        return mSettingsModel.getTimeZones();
+        return getSettingsModel().getTimeZones();
+    }
+
+    /**
+     * Starts loading the time zones available for selection in the background so that they are
+     * ready before a time zone picker is shown.
+     */
+    public void preloadTimeZones() {
+        enforceMainLooper();
+        getSettingsModel().preloadTimeZones();
+    }
+
+    //
+    // Sub-models
+    //
+    // Each sub-model is constructed on first use from any thread. Its dependencies are fetched
+    // through these accessors, so they are constructed first.
+    //
+
+    private TimeModel getTimeModel() {
+        return mTimeModel;
+    }
+
+    private synchronized WidgetModel getWidgetModel() {
+        if (mWidgetModel == null) {
+            final long startNanos = StartupTrace.beginSection("WidgetModel");
+            try {
+                mWidgetModel = new WidgetModel(mContext, mPrefs);
+            } finally {
+                StartupTrace.endSection("WidgetModel", startNanos);
+            }
+        }
+        return mWidgetModel;
+    }
+
+    private synchronized NotificationModel getNotificationModel() {
+        if (mNotificationModel == null) {
+            final long startNanos = StartupTrace.beginSection("NotificationModel");
+            try {
+                mNotificationModel = new NotificationModel();
+            } finally {
+                StartupTrace.endSection("NotificationModel", startNanos);
+            }
+        }
+        return mNotificationModel;
+    }
+
+    private synchronized RingtoneModel getRingtoneModel() {
+        if (mRingtoneModel == null) {
+            final long startNanos = StartupTrace.beginSection("RingtoneModel");
+            try {
+                mRingtoneModel = new RingtoneModel(mContext, mPrefs);
+            } finally {
+                StartupTrace.endSection("RingtoneModel", startNanos);
+            }
+        }
+        return mRingtoneModel;
+    }
+
+    private synchronized SettingsModel getSettingsModel() {
+        if (mSettingsModel == null) {
+            final long startNanos = StartupTrace.beginSection("SettingsModel");
+            try {
+                mSettingsModel = new SettingsModel(mContext, mPrefs, getTimeModel());
+            } finally {
+                StartupTrace.endSection("SettingsModel", startNanos);
+            }
+        }
+        return mSettingsModel;
+    }
+
+    private synchronized CityModel getCityModel() {
+        if (mCityModel == null) {
+            final long startNanos = StartupTrace.beginSection("CityModel");
+            try {
+                mCityModel = new CityModel(mContext, mPrefs, getSettingsModel());
+            } finally {
+                StartupTrace.endSection("CityModel", startNanos);
+            }
+        }
+        return mCityModel;
+    }
+
+    private synchronized AlarmModel getAlarmModel() {
+        if (mAlarmModel == null) {
+            final long startNanos = StartupTrace.beginSection("AlarmModel");
+            try {
+                mAlarmModel = new AlarmModel(mContext, getSettingsModel());
+            } finally {
+                StartupTrace.endSection("AlarmModel", startNanos);
+            }
+        }
+        return mAlarmModel;
+    }
+
+    private synchronized SilentSettingsModel getSilentSettingsModel() {
+        if (mSilentSettingsModel == null) {
+            final long startNanos = StartupTrace.beginSection("SilentSettingsModel");
+            try {
+                mSilentSettingsModel = new SilentSettingsModel(mContext, getNotificationModel());
+            } finally {
+                StartupTrace.endSection("SilentSettingsModel", startNanos);
+            }
+        }
+        return mSilentSettingsModel;
+    }
+
+    private synchronized StopwatchModel getStopwatchModel() {
+        if (mStopwatchModel == null) {
+            final long startNanos = StartupTrace.beginSection("StopwatchModel");
+            try {
+                mStopwatchModel = new StopwatchModel(mContext, mPrefs, getNotificationModel());
+            } finally {
+                StartupTrace.endSection("StopwatchModel", startNanos);
+            }
+
+            final StopwatchModel stopwatchModel = mStopwatchModel;
+            getHandler().post(new Runnable() {
+                @Override
+                public void run() {
+                    stopwatchModel.addStopwatchListener(mClockDriftCheck);
+                    mClockDriftCheck.update();
+                }
+            });
+        }
+        return mStopwatchModel;
+    }
+
+    private synchronized TimerModel getTimerModel() {
+        if (mTimerModel == null) {
+            final long startNanos = StartupTrace.beginSection("TimerModel");
+            try {
+                mTimerModel = new TimerModel(mContext, mPrefs, getSettingsModel(),
+                        getRingtoneModel(), getNotificationModel());
+            } finally {
+                StartupTrace.endSection("TimerModel", startNanos);
+            }
+
+            final TimerModel timerModel = mTimerModel;
+            getHandler().post(new Runnable() {
+                @Override
+                public void run() {
+                    timerModel.addTimerListener(mClockDriftCheck);
+                    mClockDriftCheck.update();
+                }
+            });
+        }
+        return mTimerModel;
+    }
+
+    private synchronized ClockDriftModel getClockDriftModel() {
+        if (mClockDriftModel == null) {
+            final long startNanos = StartupTrace.beginSection("ClockDriftModel");
+            try {
+                mClockDriftModel = new ClockDriftModel(getTimeModel());
+            } finally {
+                StartupTrace.endSection("ClockDriftModel", startNanos);
+            }
+        }
+        return mClockDriftModel;
+    }
+
+    /**
+     * Checks for clock drift and schedules the next check while any timer or the stopwatch is
+     * running. Listens to the timer and stopwatch models once they are built so that checks start
+     * and stop with them; a process that never builds either model never checks. Accessed only on
+     * the main thread.
+     */
+    private final class ClockDriftCheck implements Runnable, TimerListener, StopwatchListener {
+
+        /** {@code true} iff this check is posted to the handler. */
+        private boolean mScheduled;
+
+        @Override
+        public void run() {
+            mScheduled = false;
+
+            final TimerModel timerModel;
+            final StopwatchModel stopwatchModel;
+            synchronized (DataModel.this) {
+                timerModel = mTimerModel;
+                stopwatchModel = mStopwatchModel;
+            }
+            getClockDriftModel().checkDrift(timerModel, stopwatchModel);
+            update();
+        }
+
+        /**
+         * Schedules the next check if any timer or the stopwatch is running and cancels it
+         * otherwise.
+         */
+        private void update() {
+            final TimerModel timerModel;
+            final StopwatchModel stopwatchModel;
+            synchronized (DataModel.this) {
+                timerModel = mTimerModel;
+                stopwatchModel = mStopwatchModel;
+            }
+
+            final boolean running =
+                    (timerModel != null && ClockDriftModel.hasRunningTimers(timerModel.getTimers()))
+                    || (stopwatchModel != null && stopwatchModel.getStopwatch().isRunning());
+            if (running && !mScheduled) {
+                mScheduled = true;
+                getHandler().postDelayed(this, ClockDriftModel.CHECK_INTERVAL);
+            } else if (!running && mScheduled) {
+                mScheduled = false;
+                getHandler().removeCallbacks(this);
+            }
+        }
+
+        @Override
+        public void timerAdded(Timer timer) {
+            update();
+        }
+
+        @Override
+        public void timerUpdated(Timer before, Timer after) {
+            update();
+        }
+
+        @Override
+        public void timerRemoved(Timer timer) {
+            update();
+        }
+
+        @Override
+        public void stopwatchUpdated(Stopwatch before, Stopwatch after) {
+            update();
+        }
+
+        @Override
+        public void lapAdded(Lap lap) {
+        }
     }
 
     /**
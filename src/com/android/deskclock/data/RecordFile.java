@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import android.util.AtomicFile;
+
+import com.android.deskclock.LogUtils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * A file of fixed-width records that grows by appending. Each record is followed by a checksum so
+ * that a record torn by a crash or power loss is detected; it and any records after it are
+ * discarded the next time the file is read. Rewrites replace the file atomically.
+ *
+ * <p>Loads, appends and rewrites are performed in order on a background thread, so a load always
+ * observes the appends and rewrites requested before it.</p>
+ */
+final class RecordFile {
+
+    private static final LogUtils.Logger LOGGER = new LogUtils.Logger("RecordFile");
+
+    /** The size of the checksum that follows each record. */
+    private static final int CHECKSUM_SIZE = 4;
+
+    /** Performs all file access for all record files in order. */
+    private static final ExecutorService sExecutor = Executors.newSingleThreadExecutor();
+
+    private final AtomicFile mFile;
+
+    /** The size of each record, excluding its checksum. */
+    private final int mRecordSize;
+
+    /** {@code true} once an interrupted rewrite has been rolled back, if one existed. */
+    private boolean mRestored;
+
+    RecordFile(File file, int recordSize) {
+        mFile = new AtomicFile(file);
+        mRecordSize = recordSize;
+    }
+
+    /**
+     * @return a new buffer, positioned at 0, to be filled with a record
+     */
+    ByteBuffer newRecord() {
+        return ByteBuffer.allocate(mRecordSize);
+    }
+
+    /**
+     * Reads the file in the background once prior appends and rewrites have completed.
+     *
+     * @param loader converts every intact record in the file, in the order they were written,
+     *      into the result; it is called on the background thread
+     * @return the result of the {@code loader}
+     */
+    <T> Future<T> load(final Loader<T> loader) {
+        return sExecutor.submit(new Callable<T>() {
+            @Override
+            public T call() {
+                return loader.load(readRecords());
+            }
+        });
+    }
+
+    /**
+     * @param record a record to add to the end of the file
+     */
+    void append(ByteBuffer record) {
+        final byte[] bytes = toBytes(record);
+        sExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                appendRecord(bytes);
+            }
+        });
+    }
+
+    /**
+     * @param records the records that replace the entire contents of the file
+     */
+    void rewrite(List<ByteBuffer> records) {
+        rewrite(records, null);
+    }
+
+    /**
+     * @param records the records that replace the entire contents of the file
+     * @param onRewritten run on the background thread once the records are durably stored;
+     *      {@code null} if no action is required
+     */
+    void rewrite(List<ByteBuffer> records, final Runnable onRewritten) {
+        final byte[] bytes = toBytes(records);
+        sExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (rewriteRecords(bytes) && onRewritten != null) {
+                    onRewritten.run();
+                }
+            }
+        });
+    }
+
+    private List<ByteBuffer> readRecords() {
+        restore();
+
+        final byte[] bytes;
+        try {
+            bytes = mFile.readFully();
+        } catch (FileNotFoundException e) {
+            return Collections.emptyList();
+        } catch (IOException e) {
+            LOGGER.e("Unable to read " + mFile.getBaseFile(), e);
+            return Collections.emptyList();
+        }
+
+        final int stride = mRecordSize + CHECKSUM_SIZE;
+        final List<ByteBuffer> records = new ArrayList<>(bytes.length / stride);
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final CRC32 crc = new CRC32();
+        while (buffer.remaining() >= stride) {
+            final int offset = buffer.position();
+            crc.reset();
+            crc.update(bytes, offset, mRecordSize);
+            if ((int) crc.getValue() != buffer.getInt(offset + mRecordSize)) {
+                break;
+            }
+
+            records.add(ByteBuffer.wrap(bytes, offset, mRecordSize).slice());
+            buffer.position(offset + stride);
+        }
+
+        // Discard a torn or corrupt tail so that subsequent appends follow the intact records.
+        final int intactLength = records.size() * stride;
+        if (intactLength != bytes.length) {
+            LOGGER.w("Discarding %d bytes from the end of %s", bytes.length - intactLength,
+                    mFile.getBaseFile());
+            truncate(intactLength);
+        }
+
+        return records;
+    }
+
+    private void appendRecord(byte[] bytes) {
+        restore();
+
+        FileOutputStream out = null;
+        try {
+            out = new FileOutputStream(mFile.getBaseFile(), true /* append */);
+            out.write(bytes);
+            out.getFD().sync();
+        } catch (IOException e) {
+            LOGGER.e("Unable to append to " + mFile.getBaseFile(), e);
+        } finally {
+            close(out);
+        }
+    }
+
+    private boolean rewriteRecords(byte[] bytes) {
+        restore();
+
+        FileOutputStream out = null;
+        try {
+            out = mFile.startWrite();
+            out.write(bytes);
+            mFile.finishWrite(out);
+            return true;
+        } catch (IOException e) {
+            LOGGER.e("Unable to rewrite " + mFile.getBaseFile(), e);
+            if (out != null) {
+                mFile.failWrite(out);
+            }
+            return false;
+        }
+    }
+
+    private void truncate(int length) {
+        RandomAccessFile file = null;
+        try {
+            file = new RandomAccessFile(mFile.getBaseFile(), "rw");
+            file.setLength(length);
+        } catch (IOException e) {
+            LOGGER.e("Unable to truncate " + mFile.getBaseFile(), e);
+        } finally {
+            close(file);
+        }
+    }
+
+    /**
+     * Opening the file for reading rolls back a rewrite that was interrupted by a crash. This must
+     * happen before the first append so that records are never appended to a partial rewrite.
+     */
+    private void restore() {
+        if (!mRestored) {
+            mRestored = true;
+            FileInputStream in = null;
+            try {
+                in = mFile.openRead();
+            } catch (FileNotFoundException ignored) {
+            } finally {
+                close(in);
+            }
+        }
+    }
+
+    /**
+     * @return the bytes of the {@code record} followed by its checksum
+     */
+    private byte[] toBytes(ByteBuffer record) {
+        return toBytes(Collections.singletonList(record));
+    }
+
+    /**
+     * @return the bytes of each of the {@code records} followed by its checksum
+     */
+    private byte[] toBytes(List<ByteBuffer> records) {
+        final int stride = mRecordSize + CHECKSUM_SIZE;
+        final ByteBuffer bytes = ByteBuffer.allocate(records.size() * stride);
+        final CRC32 crc = new CRC32();
+        for (ByteBuffer record : records) {
+            if (record.capacity() != mRecordSize) {
+                throw new IllegalArgumentException("Record size " + record.capacity()
+                        + " does not match " + mRecordSize);
+            }
+
+            crc.reset();
+            crc.update(record.array(), record.arrayOffset(), mRecordSize);
+            bytes.put(record.array(), record.arrayOffset(), mRecordSize);
+            bytes.putInt((int) crc.getValue());
+        }
+        return bytes.array();
+    }
+
+    /**
+     * Converts the records of a file into a result.
+     */
+    interface Loader<T> {
+        /**
+         * @param records every intact record in the file, in the order they were written
+         * @return the result of the load
+         */
+        T load(List<ByteBuffer> records);
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -29,18 +29,26 @@ import android.database.Cursor;
 import android.media.Ringtone;
 import android.media.RingtoneManager;
 import android.net.Uri;
+import android.os.Build;
 import android.os.Handler;
+import android.os.Looper;
+import android.provider.MediaStore;
 import android.provider.Settings;
 import android.util.ArrayMap;
 import android.util.ArraySet;
 
 import com.android.deskclock.LogUtils;
 import com.android.deskclock.R;
+import com.android.deskclock.Utils;
 import com.android.deskclock.provider.Alarm;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -56,8 +64,27 @@ final class RingtoneModel {
 
     private final SharedPreferences mPrefs;
 
-    /** Maps ringtone uri to ringtone title; looking up a title from scratch is expensive. */
-    private final Map<Uri, String> mRingtoneTitles = new ArrayMap<>(16);
+    /** The name of the preferences file that persists ringtone titles across processes. */
+    private static final String RINGTONE_TITLES_PREFS_NAME = "ringtone_titles";
+
+    /** The maximum number of ringtone titles held in memory and persisted. */
+    private static final int MAX_RINGTONE_TITLES = 256;
+
+    /**
+     * Maps ringtone uri to ringtone title; looking up a title from scratch is expensive. Entries
+     * are kept in access order so the least recently used title is evicted first.
+     */
+    private final LinkedHashMap<Uri, String> mRingtoneTitles =
+            new LinkedHashMap<>(16, 0.75f, true /* accessOrder */);
+
+    /** Persists ringtone titles so they survive process death; see {@link RingtoneTitleDAO}. */
+    private final SharedPreferences mTitlePrefs;
+
+    /** {@code true} once the persisted ringtone titles have been read into memory. */
+    private boolean mPersistedTitlesLoaded;
+
+    /** {@code true} once the titles of all system ringtones have been cached. */
+    private boolean mSystemTitlesLoaded;
 
     /** Clears data structures containing data that is locale-sensitive. */
     @SuppressWarnings("FieldCanBeLocal")
@@ -68,7 +95,15 @@ final class RingtoneModel {
 
     RingtoneModel(Context context, SharedPreferences prefs) {
         mContext = context;
-        mPrefs = prefs;
+        mPrefs = Utils.getSharedPreferences(context, prefs, CustomRingtoneDAO.PREFS_NAME,
+                CustomRingtoneDAO.KEYS);
+
+        // Begin reading the persisted titles from disk; titles may be needed while the device is
+        // locked (e.g. when an alarm fires) so they are kept in device protected storage.
+        final Context storageContext = Utils.isNOrLater()
+                ? context.createDeviceProtectedStorageContext() : context;
+        mTitlePrefs = storageContext.getSharedPreferences(RINGTONE_TITLES_PREFS_NAME,
+                Context.MODE_PRIVATE);
 
         // Clear caches affected by system settings when system settings change.
         final ContentResolver cr = mContext.getContentResolver();
@@ -140,24 +175,32 @@ final class RingtoneModel {
 
     void loadRingtoneTitles() {
         // Early return if the cache is already primed.
-        if (!mRingtoneTitles.isEmpty()) {
-            return;
+        synchronized (mRingtoneTitles) {
+            if (mSystemTitlesLoaded) {
+                return;
+            }
         }
 
         final RingtoneManager ringtoneManager = new RingtoneManager(mContext);
         ringtoneManager.setType(STREAM_ALARM);
 
         // Cache a title for each system ringtone.
+        final Map<Uri, String> titles = new ArrayMap<>();
         try (Cursor cursor = ringtoneManager.getCursor()) {
             for (cursor.moveToFirst(); !cursor.isAfterLast(); cursor.moveToNext()) {
                 final String ringtoneTitle = cursor.getString(TITLE_COLUMN_INDEX);
                 final Uri ringtoneUri = ringtoneManager.getRingtoneUri(cursor.getPosition());
-                mRingtoneTitles.put(ringtoneUri, ringtoneTitle);
+                titles.put(ringtoneUri, ringtoneTitle);
             }
         } catch (Throwable ignored) {
             // best attempt only
             LogUtils.e("Error loading ringtone title cache", ignored);
         }
+
+        synchronized (mRingtoneTitles) {
+            putRingtoneTitles(titles);
+            mSystemTitlesLoaded = true;
+        }
     }
 
     String getRingtoneTitle(Uri uri) {
@@ -172,8 +215,12 @@ final class RingtoneModel {
             return customRingtone.getTitle();
         }
 
-        // Check the cache.
-        String title = mRingtoneTitles.get(uri);
+        // Check the cache, which includes titles persisted by earlier processes.
+        String title;
+        synchronized (mRingtoneTitles) {
+            loadPersistedRingtoneTitles();
+            title = mRingtoneTitles.get(uri);
+        }
 
         if (title == null) {
             // This is slow because a media player is created during Ringtone object creation.
@@ -185,11 +232,109 @@ final class RingtoneModel {
 
             // Cache the title for later use.
             title = ringtone.getTitle(mContext);
-            mRingtoneTitles.put(uri, title);
+            synchronized (mRingtoneTitles) {
+                putRingtoneTitles(Collections.singletonMap(uri, title));
+            }
         }
         return title;
     }
 
+    /**
+     * Reads titles persisted by earlier processes into memory if that has not yet occurred. The
+     * caller must hold the lock on {@link #mRingtoneTitles}.
+     */
+    private void loadPersistedRingtoneTitles() {
+        if (mPersistedTitlesLoaded) {
+            return;
+        }
+
+        mPersistedTitlesLoaded = true;
+        final Map<Uri, String> persisted = new ArrayMap<>();
+        RingtoneTitleDAO.getRingtoneTitles(mTitlePrefs, getTitleCacheMarker(), persisted);
+        for (Map.Entry<Uri, String> entry : persisted.entrySet()) {
+            // Titles cached during this process are newer than the persisted ones.
+            if (!mRingtoneTitles.containsKey(entry.getKey())) {
+                mRingtoneTitles.put(entry.getKey(), entry.getValue());
+            }
+        }
+        trimRingtoneTitles(Collections.<Uri>emptyList());
+    }
+
+    /**
+     * Caches the given titles in memory and on disk, evicting the least recently used titles if
+     * the cache grows too large. The caller must hold the lock on {@link #mRingtoneTitles}.
+     */
+    private void putRingtoneTitles(Map<Uri, String> titles) {
+        loadPersistedRingtoneTitles();
+
+        // Titles of the default ringtones name the current default, so they are not persisted.
+        final Map<Uri, String> persistable = new ArrayMap<>(titles.size());
+        for (Map.Entry<Uri, String> entry : titles.entrySet()) {
+            mRingtoneTitles.put(entry.getKey(), entry.getValue());
+            if (!RingtoneManager.isDefault(entry.getKey())) {
+                persistable.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        final List<Uri> evicted = new ArrayList<>();
+        trimRingtoneTitles(evicted);
+        persistable.keySet().removeAll(evicted);
+        if (!persistable.isEmpty() || !evicted.isEmpty()) {
+            RingtoneTitleDAO.updateRingtoneTitles(mTitlePrefs, persistable, evicted);
+        }
+    }
+
+    /**
+     * @param evicted receives the uris of the titles evicted to bound the size of the cache
+     */
+    private void trimRingtoneTitles(List<Uri> evicted) {
+        final Iterator<Uri> i = mRingtoneTitles.keySet().iterator();
+        while (mRingtoneTitles.size() > MAX_RINGTONE_TITLES && i.hasNext()) {
+            evicted.add(i.next());
+            i.remove();
+        }
+    }
+
+    /**
+     * Clears cached titles from memory and, if {@code persisted} is {@code true}, from disk.
+     */
+    private void clearRingtoneTitles(boolean persisted) {
+        synchronized (mRingtoneTitles) {
+            mRingtoneTitles.clear();
+            mSystemTitlesLoaded = false;
+            if (persisted) {
+                mPersistedTitlesLoaded = true;
+                RingtoneTitleDAO.removeRingtoneTitles(mTitlePrefs, getTitleCacheMarker());
+            } else {
+                mPersistedTitlesLoaded = false;
+            }
+        }
+    }
+
+    /**
+     * System ringtones live on the internal media volume. Its version changes when the volume is
+     * rescanned, e.g. after a system update renumbers the ringtones, but not when the title of an
+     * individual file is edited, so a persisted title may be stale until the next rescan. The
+     * version of the internal volume is only available from R; the build fingerprint is always
+     * included so that titles are refreshed by system updates on every release.
+     *
+     * @return identifies the build, media store version and locale against which titles were
+     *      resolved; {@code null} if the media store version is currently unavailable
+     */
+    private String getTitleCacheMarker() {
+        final String marker = Build.FINGERPRINT + "/" + Locale.getDefault();
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.R) {
+            return marker;
+        }
+
+        try {
+            return marker + "/" + MediaStore.getVersion(mContext, MediaStore.VOLUME_INTERNAL);
+        } catch (IllegalArgumentException e) {
+            LogUtils.w("Unable to determine internal media store version: %s", e);
+            return null;
+        }
+    }
+
     private List<CustomRingtone> getMutableCustomRingtones() {
         if (mCustomRingtones == null) {
             mCustomRingtones = CustomRingtoneDAO.getCustomRingtones(mPrefs);
@@ -206,7 +351,7 @@ final class RingtoneModel {
     private final class SystemAlarmAlertChangeObserver extends ContentObserver {
 
         private SystemAlarmAlertChangeObserver() {
-            super(new Handler());
+            super(new Handler(Looper.getMainLooper()));
         }
 
         @Override
@@ -214,7 +359,8 @@ final class RingtoneModel {
             super.onChange(selfChange);
 
             // Titles such as "Default ringtone (Oxygen)" are wrong after default ringtone changes.
-            mRingtoneTitles.clear();
+            // Titles of default ringtones are never persisted so only memory must be cleared.
+            clearRingtoneTitles(false);
         }
     }
 
@@ -225,7 +371,7 @@ final class RingtoneModel {
         @Override
         public void onReceive(Context context, Intent intent) {
             // Titles such as "Default ringtone (Oxygen)" are wrong after locale changes.
-            mRingtoneTitles.clear();
+            clearRingtoneTitles(true);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.text.TextUtils;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * This class encapsulates the transfer of cached ringtone titles between memory and their
+ * permanent storage in {@link SharedPreferences}. The stored titles are only valid for the media
+ * store version and locale recorded alongside them.
+ */
+final class RingtoneTitleDAO {
+
+    /** Key to a preference that identifies the media store version and locale of the titles. */
+    private static final String TITLE_CACHE_MARKER = "title_cache_marker";
+
+    /** Prefix for a key to a preference that stores the title associated with a ringtone uri. */
+    private static final String RINGTONE_TITLE = "title_";
+
+    private RingtoneTitleDAO() {}
+
+    /**
+     * Stored titles are discarded if they were recorded against a different {@code marker}.
+     *
+     * @param marker identifies the media store version and locale the titles must match;
+     *      {@code null} accepts the stored titles when the current marker cannot be determined
+     * @param titles receives the stored titles keyed by ringtone uri
+     */
+    static void getRingtoneTitles(SharedPreferences prefs, String marker, Map<Uri, String> titles) {
+        final String storedMarker = prefs.getString(TITLE_CACHE_MARKER, null);
+        if (marker != null && !TextUtils.equals(marker, storedMarker)) {
+            prefs.edit().clear().putString(TITLE_CACHE_MARKER, marker).apply();
+            return;
+        }
+
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            final String key = entry.getKey();
+            if (key.startsWith(RINGTONE_TITLE) && entry.getValue() instanceof String) {
+                final Uri uri = Uri.parse(key.substring(RINGTONE_TITLE.length()));
+                titles.put(uri, (String) entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * @param added titles to store keyed by ringtone uri
+     * @param evicted ringtone uris whose titles should no longer be stored
+     */
+    static void updateRingtoneTitles(SharedPreferences prefs, Map<Uri, String> added,
+            Collection<Uri> evicted) {
+        final SharedPreferences.Editor editor = prefs.edit();
+        for (Uri uri : evicted) {
+            editor.remove(RINGTONE_TITLE + uri);
+        }
+        for (Map.Entry<Uri, String> entry : added.entrySet()) {
+            editor.putString(RINGTONE_TITLE + entry.getKey(), entry.getValue());
+        }
+        editor.apply();
+    }
+
+    /**
+     * @param marker identifies the media store version and locale of titles stored hereafter
+     */
+    static void removeRingtoneTitles(SharedPreferences prefs, String marker) {
+        prefs.edit().clear().putString(TITLE_CACHE_MARKER, marker).apply();
+    }
+}
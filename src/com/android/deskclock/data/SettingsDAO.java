@@ -16,15 +16,20 @@
 
 package com.android.deskclock.data;
 
+import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.content.res.Resources;
+import android.icu.util.BasicTimeZone;
+import android.icu.util.TimeZoneTransition;
 import android.net.Uri;
+import android.os.Build;
 import android.provider.Settings;
 import androidx.annotation.NonNull;
 import android.text.format.DateUtils;
 
 import com.android.deskclock.R;
+import com.android.deskclock.Utils;
 import com.android.deskclock.data.DataModel.AlarmVolumeButtonBehavior;
 import com.android.deskclock.data.DataModel.CitySort;
 import com.android.deskclock.data.DataModel.ClockStyle;
@@ -33,7 +38,10 @@ import com.android.deskclock.settings.SettingsActivity;
 
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Locale;
+import java.util.Set;
 import java.util.TimeZone;
 
 import static android.text.format.DateUtils.HOUR_IN_MILLIS;
@@ -65,6 +73,9 @@ final class SettingsDAO {
     /** Key to a preference that indicates whether restore (of backup and restore) has completed. */
     private static final String KEY_RESTORE_BACKUP_FINISHED = "restore_finished";
 
+    /** Timezone offsets only change on quarter hours. */
+    private static final long QUARTER_HOUR_IN_MILLIS = 15 * MINUTE_IN_MILLIS;
+
     private SettingsDAO() {}
 
     /**
@@ -109,20 +120,21 @@ final class SettingsDAO {
     }
 
     /**
+     * @param timeZoneIds the ids of the timezones that may be chosen as the home timezone
      * @return the user's home timezone
      */
-    static TimeZone getHomeTimeZone(Context context, SharedPreferences prefs, TimeZone defaultTZ) {
+    static TimeZone getHomeTimeZone(SharedPreferences prefs, Set<String> timeZoneIds,
+            TimeZone defaultTZ) {
         String timeZoneId = prefs.getString(SettingsActivity.KEY_HOME_TZ, null);
 
         // If the recorded home timezone is legal, use it.
-        final TimeZones timeZones = getTimeZones(context, System.currentTimeMillis());
-        if (timeZones.contains(timeZoneId)) {
+        if (timeZoneIds.contains(timeZoneId)) {
             return TimeZone.getTimeZone(timeZoneId);
         }
 
         // No legal home timezone has yet been recorded, attempt to record the default.
         timeZoneId = defaultTZ.getID();
-        if (timeZones.contains(timeZoneId)) {
+        if (timeZoneIds.contains(timeZoneId)) {
             prefs.edit().putString(SettingsActivity.KEY_HOME_TZ, timeZoneId).apply();
         }
 
@@ -178,6 +190,13 @@ final class SettingsDAO {
         return prefs.getBoolean(ScreensaverSettingsActivity.KEY_NIGHT_MODE, false);
     }
 
+    /**
+     * @return {@code true} if the screen saver should move its clock without animation
+     */
+    static boolean getScreensaverLowPowerModeOn(SharedPreferences prefs) {
+        return prefs.getBoolean(ScreensaverSettingsActivity.KEY_LOW_POWER_MODE, false);
+    }
+
     /**
      * @return the uri of the selected ringtone or the {@code defaultUri} if no explicit selection
      *      has yet been made
@@ -310,6 +329,18 @@ final class SettingsDAO {
         return Integer.parseInt(string);
     }
 
+    /**
+     * Unlike the names and order of the timezones, their ids depend on neither the locale nor the
+     * current time, so they can be read without formatting and sorting the timezones.
+     *
+     * @return the ids of the timezones from which to choose a home timezone
+     */
+    static Set<String> getTimeZoneIds(Context context) {
+        final String[] timeZoneIds =
+                context.getResources().getStringArray(R.array.timezone_values);
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(timeZoneIds)));
+    }
+
     /**
      * @param currentTime timezone offsets created relative to this time
      * @return a description of the time zones available for selection
@@ -340,13 +371,43 @@ final class SettingsDAO {
         // Transfer the TimeZoneDescriptors into parallel arrays for easy consumption by the caller.
         final CharSequence[] tzIds = new CharSequence[descriptors.length];
         final CharSequence[] tzNames = new CharSequence[descriptors.length];
+        long validUntil = Long.MAX_VALUE;
         for (int i = 0; i < descriptors.length; i++) {
             final TimeZoneDescriptor descriptor = descriptors[i];
             tzIds[i] = descriptor.mTimeZoneId;
             tzNames[i] = descriptor.mTimeZoneName;
+            validUntil = Math.min(validUntil, getNextTransition(descriptor.mTimeZoneId,
+                    currentTime));
+        }
+
+        return new TimeZones(locale, tzIds, tzNames, currentTime, validUntil);
+    }
+
+    /**
+     * Transitions are only exposed from N. Before that, every offset in use is a multiple of a
+     * quarter hour and transitions fall on quarter hours, so offsets cannot change before the
+     * next quarter hour.
+     *
+     * @param timeZoneId identifies the timezone whose offset may change
+     * @param currentTime the time after which to look for a change
+     * @return the earliest time after {@code currentTime} at which the offset of the timezone may
+     *      change; {@link Long#MAX_VALUE} if it never changes
+     */
+    @TargetApi(Build.VERSION_CODES.N)
+    private static long getNextTransition(String timeZoneId, long currentTime) {
+        if (!Utils.isNOrLater()) {
+            return (currentTime / QUARTER_HOUR_IN_MILLIS + 1) * QUARTER_HOUR_IN_MILLIS;
+        }
+
+        final android.icu.util.TimeZone timeZone =
+                android.icu.util.TimeZone.getTimeZone(timeZoneId);
+        if (!(timeZone instanceof BasicTimeZone)) {
+            return currentTime + HOUR_IN_MILLIS;
         }
 
-        return new TimeZones(tzIds, tzNames);
+        final TimeZoneTransition transition =
+                ((BasicTimeZone) timeZone).getNextTransition(currentTime, false);
+        return transition == null ? Long.MAX_VALUE : transition.getTime();
     }
 
     private static ClockStyle getClockStyle(Context context, SharedPreferences prefs, String key) {
@@ -19,6 +19,7 @@ package com.android.deskclock.data;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.net.Uri;
+import android.os.AsyncTask;
 
 import com.android.deskclock.R;
 import com.android.deskclock.Utils;
@@ -26,6 +27,8 @@ import com.android.deskclock.data.DataModel.AlarmVolumeButtonBehavior;
 import com.android.deskclock.data.DataModel.CitySort;
 import com.android.deskclock.data.DataModel.ClockStyle;
 
+import java.util.Locale;
+import java.util.Set;
 import java.util.TimeZone;
 
 /**
@@ -43,6 +46,19 @@ final class SettingsModel {
     /** The uri of the default ringtone to use for timers until the user explicitly chooses one. */
     private Uri mDefaultTimerRingtoneUri;
 
+    /**
+     * The ids of the timezones from which to choose a home timezone; {@code null} until first
+     * read. They suffice to validate the home timezone, which is read far more often than the
+     * formatted timezones are displayed.
+     */
+    private volatile Set<String> mTimeZoneIds;
+
+    /** The timezones from which to choose a home timezone; {@code null} until first loaded. */
+    private volatile TimeZones mTimeZones;
+
+    /** {@code true} while the timezones are being loaded in the background. */
+    private boolean mLoadingTimeZones;
+
     SettingsModel(Context context, SharedPreferences prefs, TimeModel timeModel) {
         mContext = context;
         mPrefs = prefs;
@@ -69,7 +85,7 @@ final class SettingsModel {
     }
 
     TimeZone getHomeTimeZone() {
-        return SettingsDAO.getHomeTimeZone(mContext, mPrefs, TimeZone.getDefault());
+        return SettingsDAO.getHomeTimeZone(mPrefs, getTimeZoneIds(), TimeZone.getDefault());
     }
 
     ClockStyle getClockStyle() {
@@ -92,6 +108,10 @@ final class SettingsModel {
         return SettingsDAO.getScreensaverNightModeOn(mPrefs);
     }
 
+    boolean getScreensaverLowPowerModeOn() {
+        return SettingsDAO.getScreensaverLowPowerModeOn(mPrefs);
+    }
+
     boolean getShowHomeClock() {
         if (!SettingsDAO.getAutoShowHomeClock(mPrefs)) {
             return false;
@@ -99,10 +119,13 @@ final class SettingsModel {
 
         // Show the home clock if the current time and home time differ.
         // (By using UTC offset for this comparison the various DST rules are considered)
-        final TimeZone defaultTZ = TimeZone.getDefault();
-        final TimeZone homeTimeZone = SettingsDAO.getHomeTimeZone(mContext, mPrefs, defaultTZ);
-        final long now = System.currentTimeMillis();
-        return homeTimeZone.getOffset(now) != defaultTZ.getOffset(now);
+        final TimeZone currentTZ = mTimeModel.getTimeZone();
+        final long now = mTimeModel.currentTimeMillis();
+
+        // Only the device time zone, never the clock's, may be recorded as the home time zone.
+        final TimeZone homeTimeZone = SettingsDAO.getHomeTimeZone(mPrefs, getTimeZoneIds(),
+                TimeZone.getDefault());
+        return homeTimeZone.getOffset(now) != currentTZ.getOffset(now);
     }
 
     Uri getDefaultTimerRingtoneUri() {
@@ -169,7 +192,68 @@ final class SettingsModel {
         SettingsDAO.setTimerVibrate(mPrefs, enabled);
     }
 
+    /**
+     * @return the ids of the timezones from which to choose a home timezone
+     */
+    private Set<String> getTimeZoneIds() {
+        Set<String> timeZoneIds = mTimeZoneIds;
+        if (timeZoneIds == null) {
+            timeZoneIds = SettingsDAO.getTimeZoneIds(mContext);
+            mTimeZoneIds = timeZoneIds;
+        }
+
+        return timeZoneIds;
+    }
+
+    /**
+     * @return the timezones from which to choose a home timezone; they are rebuilt only when the
+     *      locale changes or the offset of a timezone may have changed
+     */
     TimeZones getTimeZones() {
-        return SettingsDAO.getTimeZones(mContext, mTimeModel.currentTimeMillis());
+        final long currentTime = mTimeModel.currentTimeMillis();
+        TimeZones timeZones = mTimeZones;
+        if (timeZones == null || !timeZones.isCurrent(Locale.getDefault(), currentTime)) {
+            timeZones = SettingsDAO.getTimeZones(mContext, currentTime);
+            mTimeZones = timeZones;
+        }
+
+        return timeZones;
+    }
+
+    /**
+     * Starts loading the timezones in the background so they are ready before they are needed,
+     * unless they are already loaded and current.
+     */
+    void preloadTimeZones() {
+        final long currentTime = mTimeModel.currentTimeMillis();
+        final TimeZones timeZones = mTimeZones;
+        if (mLoadingTimeZones
+                || (timeZones != null && timeZones.isCurrent(Locale.getDefault(), currentTime))) {
+            return;
+        }
+
+        mLoadingTimeZones = true;
+        new LoadTimeZonesTask().execute(currentTime);
+    }
+
+    /**
+     * Formats and sorts the timezones in the background and hands them to this model on the main
+     * thread, unless current timezones were loaded on demand in the meantime.
+     */
+    private final class LoadTimeZonesTask extends AsyncTask<Long, Void, TimeZones> {
+        @Override
+        protected TimeZones doInBackground(Long... currentTime) {
+            return SettingsDAO.getTimeZones(mContext, currentTime[0]);
+        }
+
+        @Override
+        protected void onPostExecute(TimeZones timeZones) {
+            mLoadingTimeZones = false;
+            final TimeZones current = mTimeZones;
+            final long currentTime = mTimeModel.currentTimeMillis();
+            if (current == null || !current.isCurrent(Locale.getDefault(), currentTime)) {
+                mTimeZones = timeZones;
+            }
+        }
     }
 }
\ No newline at end of file
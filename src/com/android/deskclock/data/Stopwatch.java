@@ -32,7 +32,7 @@ public final class Stopwatch {
     static final long UNUSED = Long.MIN_VALUE;
 
     /** The single, immutable instance of a reset stopwatch. */
-    private static final Stopwatch RESET_STOPWATCH = new Stopwatch(RESET, UNUSED, UNUSED, 0);
+    static final Stopwatch RESET_STOPWATCH = new Stopwatch(RESET, UNUSED, UNUSED, 0);
 
     /** Current state of this stopwatch. */
     private final State mState;
@@ -20,53 +20,111 @@ import android.content.SharedPreferences;
 
 import com.android.deskclock.data.Stopwatch.State;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Future;
 
 import static com.android.deskclock.data.Stopwatch.State.RESET;
 
 /**
  * This class encapsulates the transfer of data between {@link Stopwatch} and {@link Lap} domain
- * objects and their permanent storage in {@link SharedPreferences}.
+ * objects and their permanent storage in a {@link RecordFile}. Each change to the stopwatch and
+ * each recorded lap is appended as a single fixed-width record, so recording a lap does not
+ * rewrite any other data. The file is rewritten when the laps are cleared.
+ *
+ * <p>Each record holds an int header, which identifies the record type and stopwatch state,
+ * followed by three longs. The latest stopwatch record describes the stopwatch; every lap record
+ * describes a lap.</p>
  */
 final class StopwatchDAO {
 
-    /** Key to a preference that stores the state of the stopwatch. */
+    /** The name of the file that stores the stopwatch and its laps. */
+    static final String FILE_NAME = "stopwatch";
+
+    /** The size of each record: an int header followed by three longs. */
+    static final int RECORD_SIZE = 4 + 3 * 8;
+
+    /** The header type of a record describing the state of the stopwatch. */
+    private static final int STOPWATCH_RECORD = 1;
+
+    /** The header type of a record describing a lap. */
+    private static final int LAP_RECORD = 2;
+
+    /** The number of superseded stopwatch records tolerated before the file is compacted. */
+    private static final int MAX_SUPERSEDED_RECORDS = 32;
+
+    /** Key to a legacy preference that stores the state of the stopwatch. */
     private static final String STATE = "sw_state";
 
-    /** Key to a preference that stores the last start time of the stopwatch. */
+    /** Key to a legacy preference that stores the last start time of the stopwatch. */
     private static final String LAST_START_TIME = "sw_start_time";
 
-    /** Key to a preference that stores the epoch time when the stopwatch last started. */
+    /** Key to a legacy preference that stores the epoch time when the stopwatch last started. */
     private static final String LAST_WALL_CLOCK_TIME = "sw_wall_clock_time";
 
-    /** Key to a preference that stores the accumulated elapsed time of the stopwatch. */
+    /** Key to a legacy preference that stores the accumulated elapsed time of the stopwatch. */
     private static final String ACCUMULATED_TIME = "sw_accum_time";
 
-    /** Prefix for a key to a preference that stores the number of recorded laps. */
+    /** Key to a legacy preference that stores the number of recorded laps. */
     private static final String LAP_COUNT = "sw_lap_num";
 
-    /** Prefix for a key to a preference that stores accumulated time at the end of a lap. */
+    /** Prefix for a key to a legacy preference that stores accumulated time at the end of a lap. */
     private static final String LAP_ACCUMULATED_TIME = "sw_lap_time_";
 
     private StopwatchDAO() {}
 
     /**
-     * @return the stopwatch from permanent storage or a reset stopwatch if none exists
+     * Reads the stopwatch and its laps in the background. Stopwatch data stored in preferences by
+     * earlier versions of the application is moved into the {@code file} at the same time.
+     *
+     * @return the stopwatch and its laps from permanent storage
      */
-    static Stopwatch getStopwatch(SharedPreferences prefs) {
-        final int stateIndex = prefs.getInt(STATE, RESET.ordinal());
-        final State state = State.values()[stateIndex];
-        final long lastStartTime = prefs.getLong(LAST_START_TIME, Stopwatch.UNUSED);
-        final long lastWallClockTime = prefs.getLong(LAST_WALL_CLOCK_TIME, Stopwatch.UNUSED);
-        final long accumulatedTime = prefs.getLong(ACCUMULATED_TIME, 0);
-        Stopwatch s = new Stopwatch(state, lastStartTime, lastWallClockTime, accumulatedTime);
+    static Future<StoredStopwatch> load(final SharedPreferences prefs, final RecordFile file) {
+        return file.load(new RecordFile.Loader<StoredStopwatch>() {
+            @Override
+            public StoredStopwatch load(List<ByteBuffer> records) {
+                if (records.isEmpty()) {
+                    records = migrate(prefs, file);
+                }
+                return new StoredStopwatch(getStopwatch(file, records), getLaps(records));
+            }
+        });
+    }
+
+    /**
+     * @return the stopwatch described by the {@code records} or a reset stopwatch if none exists
+     */
+    private static Stopwatch getStopwatch(RecordFile file, List<ByteBuffer> records) {
+        // Only the latest stopwatch record is relevant.
+        ByteBuffer latest = null;
+        int lapRecordCount = 0;
+        for (ByteBuffer record : records) {
+            final int type = getType(record);
+            if (type == STOPWATCH_RECORD) {
+                latest = record;
+            } else if (type == LAP_RECORD) {
+                lapRecordCount++;
+            }
+        }
+
+        Stopwatch s = latest == null ? Stopwatch.RESET_STOPWATCH : toStopwatch(latest);
 
         // If the stopwatch reports an illegal (negative) amount of time, remove the bad data.
         if (s.getTotalTime() < 0) {
             s = s.reset();
-            setStopwatch(prefs, s);
+            setStopwatch(file, s);
+        } else if (records.size() - lapRecordCount > MAX_SUPERSEDED_RECORDS + 1) {
+            // Drop the superseded stopwatch records.
+            final List<ByteBuffer> compacted = new ArrayList<>(lapRecordCount + 1);
+            compacted.add(latest);
+            for (ByteBuffer record : records) {
+                if (getType(record) == LAP_RECORD) {
+                    compacted.add(record);
+                }
+            }
+            file.rewrite(compacted);
         }
         return s;
     }
@@ -74,41 +132,31 @@ final class StopwatchDAO {
     /**
      * @param stopwatch the last state of the stopwatch
      */
-    static void setStopwatch(SharedPreferences prefs, Stopwatch stopwatch) {
-        final SharedPreferences.Editor editor = prefs.edit();
-
-        if (stopwatch.isReset()) {
-            editor.remove(STATE)
-                    .remove(LAST_START_TIME)
-                    .remove(LAST_WALL_CLOCK_TIME)
-                    .remove(ACCUMULATED_TIME);
-        } else {
-            editor.putInt(STATE, stopwatch.getState().ordinal())
-                    .putLong(LAST_START_TIME, stopwatch.getLastStartTime())
-                    .putLong(LAST_WALL_CLOCK_TIME, stopwatch.getLastWallClockTime())
-                    .putLong(ACCUMULATED_TIME, stopwatch.getAccumulatedTime());
-        }
-
-        editor.apply();
+    static void setStopwatch(RecordFile file, Stopwatch stopwatch) {
+        file.append(toRecord(file, stopwatch));
     }
 
     /**
-     * @return a list of recorded laps for the stopwatch
+     * @return the laps described by the {@code records}, most recent first
      */
-    static List<Lap> getLaps(SharedPreferences prefs) {
-        // Prepare the container to be filled with laps.
-        final int lapCount = prefs.getInt(LAP_COUNT, 0);
-        final List<Lap> laps = new ArrayList<>(lapCount);
+    private static List<Lap> getLaps(List<ByteBuffer> records) {
+        final List<Lap> laps = new ArrayList<>();
 
         long prevAccumulatedTime = 0;
 
-        // Lap numbers are 1-based and so the are corresponding shared preference keys.
-        for (int lapNumber = 1; lapNumber <= lapCount; lapNumber++) {
-            // Look up the accumulated time for the lap.
-            final String lapAccumulatedTimeKey = LAP_ACCUMULATED_TIME + lapNumber;
-            final long accumulatedTime = prefs.getLong(lapAccumulatedTimeKey, 0);
+        for (ByteBuffer record : records) {
+            if (getType(record) != LAP_RECORD) {
+                continue;
+            }
+
+            // Lap numbers are 1-based and recorded in order; ignore any record out of sequence.
+            final int lapNumber = (int) record.getLong(4);
+            if (lapNumber != laps.size() + 1) {
+                continue;
+            }
 
             // Lap time is the delta between accumulated time of this lap and prior lap.
+            final long accumulatedTime = record.getLong(12);
             final long lapTime = accumulatedTime - prevAccumulatedTime;
 
             // Create the lap instance from the data.
@@ -128,25 +176,114 @@ final class StopwatchDAO {
      * @param newLapCount the number of laps including the new lap
      * @param accumulatedTime the amount of time accumulate by the stopwatch at the end of the lap
      */
-    static void addLap(SharedPreferences prefs, int newLapCount, long accumulatedTime) {
-        prefs.edit()
-                .putInt(LAP_COUNT, newLapCount)
-                .putLong(LAP_ACCUMULATED_TIME + newLapCount, accumulatedTime)
-                .apply();
+    static void addLap(RecordFile file, int newLapCount, long accumulatedTime) {
+        final ByteBuffer record = file.newRecord();
+        record.putInt(0, LAP_RECORD)
+                .putLong(4, newLapCount)
+                .putLong(12, accumulatedTime);
+        file.append(record);
     }
 
     /**
-     * Remove the recorded laps for the stopwatch
+     * Remove the recorded laps for the stopwatch by rewriting the file with only the stopwatch.
+     *
+     * @param stopwatch the current state of the stopwatch
      */
-    static void clearLaps(SharedPreferences prefs) {
-        final SharedPreferences.Editor editor = prefs.edit();
+    static void clearLaps(RecordFile file, Stopwatch stopwatch) {
+        final List<ByteBuffer> records = stopwatch.isReset()
+                ? Collections.<ByteBuffer>emptyList()
+                : Collections.singletonList(toRecord(file, stopwatch));
+        file.rewrite(records);
+    }
+
+    /**
+     * Moves any stopwatch data stored in preferences by earlier versions of the application into
+     * the empty {@code file}.
+     *
+     * @return the records that now describe the stopwatch data
+     */
+    private static List<ByteBuffer> migrate(final SharedPreferences prefs, RecordFile file) {
+        if (!(prefs.contains(STATE) || prefs.contains(LAP_COUNT))) {
+            return Collections.emptyList();
+        }
+
+        final List<ByteBuffer> migrated = new ArrayList<>();
+        if (prefs.contains(STATE)) {
+            final State state = State.values()[prefs.getInt(STATE, RESET.ordinal())];
+            final long lastStartTime = prefs.getLong(LAST_START_TIME, Stopwatch.UNUSED);
+            final long lastWallClockTime = prefs.getLong(LAST_WALL_CLOCK_TIME, Stopwatch.UNUSED);
+            final long accumulatedTime = prefs.getLong(ACCUMULATED_TIME, 0);
+            migrated.add(toRecord(file,
+                    new Stopwatch(state, lastStartTime, lastWallClockTime, accumulatedTime)));
+        }
 
         final int lapCount = prefs.getInt(LAP_COUNT, 0);
         for (int lapNumber = 1; lapNumber <= lapCount; lapNumber++) {
-            editor.remove(LAP_ACCUMULATED_TIME + lapNumber);
+            final long accumulatedTime = prefs.getLong(LAP_ACCUMULATED_TIME + lapNumber, 0);
+            final ByteBuffer record = file.newRecord();
+            record.putInt(0, LAP_RECORD)
+                    .putLong(4, lapNumber)
+                    .putLong(12, accumulatedTime);
+            migrated.add(record);
+        }
+
+        // Only forget the preferences once the data is durably stored in the file.
+        file.rewrite(migrated, new Runnable() {
+            @Override
+            public void run() {
+                final SharedPreferences.Editor editor = prefs.edit()
+                        .remove(STATE)
+                        .remove(LAST_START_TIME)
+                        .remove(LAST_WALL_CLOCK_TIME)
+                        .remove(ACCUMULATED_TIME)
+                        .remove(LAP_COUNT);
+                for (int lapNumber = 1; lapNumber <= lapCount; lapNumber++) {
+                    editor.remove(LAP_ACCUMULATED_TIME + lapNumber);
+                }
+                editor.apply();
+            }
+        });
+
+        return migrated;
+    }
+
+    private static ByteBuffer toRecord(RecordFile file, Stopwatch stopwatch) {
+        final ByteBuffer record = file.newRecord();
+        record.putInt(0, STOPWATCH_RECORD | stopwatch.getState().ordinal() << 8)
+                .putLong(4, stopwatch.getLastStartTime())
+                .putLong(12, stopwatch.getLastWallClockTime())
+                .putLong(20, stopwatch.getAccumulatedTime());
+        return record;
+    }
+
+    private static Stopwatch toStopwatch(ByteBuffer record) {
+        final int stateIndex = record.getInt(0) >>> 8;
+        final State[] states = State.values();
+        if (stateIndex >= states.length) {
+            return Stopwatch.RESET_STOPWATCH;
         }
-        editor.remove(LAP_COUNT);
 
-        editor.apply();
+        return new Stopwatch(states[stateIndex], record.getLong(4), record.getLong(12),
+                record.getLong(20));
+    }
+
+    private static int getType(ByteBuffer record) {
+        return record.getInt(0) & 0xFF;
+    }
+
+    /**
+     * The stopwatch and its laps as read from permanent storage.
+     */
+    static final class StoredStopwatch {
+
+        final Stopwatch stopwatch;
+
+        /** The recorded laps, most recent first. */
+        final List<Lap> laps;
+
+        private StoredStopwatch(Stopwatch stopwatch, List<Lap> laps) {
+            this.stopwatch = stopwatch;
+            this.laps = laps;
+        }
     }
-}
\ No newline at end of file
+}
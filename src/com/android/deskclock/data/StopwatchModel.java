@@ -26,11 +26,17 @@ import android.content.SharedPreferences;
 import androidx.annotation.VisibleForTesting;
 import androidx.core.app.NotificationManagerCompat;
 
+import com.android.deskclock.LogUtils;
 import com.android.deskclock.R;
+import com.android.deskclock.Utils;
+import com.android.deskclock.data.StopwatchDAO.StoredStopwatch;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * All {@link Stopwatch} data is accessed via this model.
@@ -39,7 +45,11 @@ final class StopwatchModel {
 
     private final Context mContext;
 
-    private final SharedPreferences mPrefs;
+    /** Stores the stopwatch and its laps. */
+    private final RecordFile mRecordFile;
+
+    /** The stopwatch and its laps being read from {@link #mRecordFile} in the background. */
+    private final Future<StoredStopwatch> mStoredStopwatch;
 
     /** The model from which notification data are fetched. */
     private final NotificationModel mNotificationModel;
@@ -69,7 +79,13 @@ final class StopwatchModel {
 
     StopwatchModel(Context context, SharedPreferences prefs, NotificationModel notificationModel) {
         mContext = context;
-        mPrefs = prefs;
+
+        // The stopwatch is kept in the same storage as the preferences that once held it.
+        final Context storageContext = Utils.isNOrLater()
+                ? context.createDeviceProtectedStorageContext() : context;
+        mRecordFile = new RecordFile(new File(storageContext.getFilesDir(),
+                StopwatchDAO.FILE_NAME), StopwatchDAO.RECORD_SIZE);
+        mStoredStopwatch = StopwatchDAO.load(prefs, mRecordFile);
         mNotificationModel = notificationModel;
         mNotificationManager = NotificationManagerCompat.from(context);
         NotificationChannel channel = new NotificationChannel(STOPWATCH_BASE_CHANNEL_ID,
@@ -101,7 +117,7 @@ final class StopwatchModel {
      */
     Stopwatch getStopwatch() {
         if (mStopwatch == null) {
-            mStopwatch = StopwatchDAO.getStopwatch(mPrefs);
+            loadStopwatch();
         }
 
         return mStopwatch;
@@ -113,7 +129,7 @@ final class StopwatchModel {
     Stopwatch setStopwatch(Stopwatch stopwatch) {
         final Stopwatch before = getStopwatch();
         if (before != stopwatch) {
-            StopwatchDAO.setStopwatch(mPrefs, stopwatch);
+            StopwatchDAO.setStopwatch(mRecordFile, stopwatch);
             mStopwatch = stopwatch;
 
             // Refresh the stopwatch notification to reflect the latest stopwatch state.
@@ -154,7 +170,7 @@ final class StopwatchModel {
         final List<Lap> laps = getMutableLaps();
 
         final int lapNumber = laps.size() + 1;
-        StopwatchDAO.addLap(mPrefs, lapNumber, totalTime);
+        StopwatchDAO.addLap(mRecordFile, lapNumber, totalTime);
 
         final long prevAccumulatedTime = laps.isEmpty() ? 0 : laps.get(0).getAccumulatedTime();
         final long lapTime = totalTime - prevAccumulatedTime;
@@ -180,7 +196,7 @@ final class StopwatchModel {
      */
     @VisibleForTesting
     void clearLaps() {
-        StopwatchDAO.clearLaps(mPrefs);
+        StopwatchDAO.clearLaps(mRecordFile, getStopwatch());
         getMutableLaps().clear();
     }
 
@@ -247,12 +263,35 @@ final class StopwatchModel {
 
     private List<Lap> getMutableLaps() {
         if (mLaps == null) {
-            mLaps = StopwatchDAO.getLaps(mPrefs);
+            loadStopwatch();
         }
 
         return mLaps;
     }
 
+    /**
+     * Adopts the stopwatch and its laps read from storage, waiting for the read to complete if it
+     * is still in progress. The read began when this model was constructed and occurs once.
+     */
+    private void loadStopwatch() {
+        StoredStopwatch stored = null;
+        try {
+            stored = mStoredStopwatch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LogUtils.e("Interrupted reading the stopwatch", e);
+        } catch (ExecutionException e) {
+            LogUtils.e("Unable to read the stopwatch", e);
+        }
+
+        if (mStopwatch == null) {
+            mStopwatch = stored == null ? Stopwatch.RESET_STOPWATCH : stored.stopwatch;
+        }
+        if (mLaps == null) {
+            mLaps = stored == null ? new ArrayList<Lap>() : stored.laps;
+        }
+    }
+
     /**
      * Update the stopwatch notification in response to a locale change.
      */
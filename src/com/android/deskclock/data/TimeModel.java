@@ -17,19 +17,24 @@
 package com.android.deskclock.data;
 
 import android.content.Context;
-import android.os.SystemClock;
 import android.text.format.DateFormat;
 
+import com.android.deskclock.LogUtils;
+
 import java.util.Calendar;
+import java.util.TimeZone;
 
 /**
  * All time data is accessed via this model. This model exists so that time can be mocked for
- * testing purposes.
+ * testing purposes; all time is read from a replaceable {@link Clock}.
  */
 final class TimeModel {
 
     private final Context mContext;
 
+    /** The source of all time; may be read from any thread. */
+    private volatile Clock mClock = Clock.SYSTEM;
+
     TimeModel(Context context) {
         mContext = context;
     }
@@ -38,14 +43,21 @@ final class TimeModel {
      * @return the current time in milliseconds
      */
     long currentTimeMillis() {
-        return System.currentTimeMillis();
+        return mClock.currentTimeMillis();
     }
 
     /**
      * @return milliseconds since boot, including time spent in sleep
      */
     long elapsedRealtime() {
-        return SystemClock.elapsedRealtime();
+        return mClock.elapsedRealtime();
+    }
+
+    /**
+     * @return the time zone in which the current time is presented
+     */
+    TimeZone getTimeZone() {
+        return mClock.getTimeZone();
     }
 
     /**
@@ -59,8 +71,19 @@ final class TimeModel {
      * @return a new Calendar with the {@link #currentTimeMillis}
      */
     Calendar getCalendar() {
-        final Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(currentTimeMillis());
+        final Clock clock = mClock;
+        final Calendar calendar = Calendar.getInstance(clock.getTimeZone());
+        calendar.setTimeInMillis(clock.currentTimeMillis());
         return calendar;
     }
+
+    /**
+     * @param clock the new source of all time; {@code null} restores the device clock
+     */
+    void setClock(Clock clock) {
+        mClock = clock == null ? Clock.SYSTEM : clock;
+
+        // Scheduling events are logged against the same clock.
+        LogUtils.setClock(mClock);
+    }
 }
\ No newline at end of file
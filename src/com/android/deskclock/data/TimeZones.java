@@ -16,7 +16,9 @@
 
 package com.android.deskclock.data;
 
-import android.text.TextUtils;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * A read-only domain object representing the timezones from which to choose a "home" timezone.
@@ -26,9 +28,29 @@ public final class TimeZones {
     private final CharSequence[] mTimeZoneIds;
     private final CharSequence[] mTimeZoneNames;
 
-    TimeZones(CharSequence[] timeZoneIds, CharSequence[] timeZoneNames) {
+    /** The locale in which the timezone names were formatted. */
+    private final Locale mLocale;
+
+    /** The time at which the timezone offsets included in the names were computed. */
+    private final long mValidFrom;
+
+    /** The earliest time at which the offset of any of the timezones may change. */
+    private final long mValidUntil;
+
+    /** Maps each timezone id to its position in display order. */
+    private final Map<String, Integer> mPositions;
+
+    TimeZones(Locale locale, CharSequence[] timeZoneIds, CharSequence[] timeZoneNames,
+            long validFrom, long validUntil) {
+        mLocale = locale;
         mTimeZoneIds = timeZoneIds;
         mTimeZoneNames = timeZoneNames;
+        mValidFrom = validFrom;
+        mValidUntil = validUntil;
+        mPositions = new HashMap<>(timeZoneIds.length * 2);
+        for (int i = 0; i < timeZoneIds.length; i++) {
+            mPositions.put(timeZoneIds[i].toString(), i);
+        }
     }
 
     public CharSequence[] getTimeZoneIds() {
@@ -44,13 +66,12 @@ public final class TimeZones {
      * @return the timezone name with the {@code timeZoneId}; {@code null} if it does not exist
      */
     CharSequence getTimeZoneName(CharSequence timeZoneId) {
-        for (int i = 0; i < mTimeZoneIds.length; i++) {
-            if (TextUtils.equals(timeZoneId, mTimeZoneIds[i])) {
-                return mTimeZoneNames[i];
-            }
+        if (timeZoneId == null) {
+            return null;
         }
 
-        return null;
+        final Integer position = mPositions.get(timeZoneId.toString());
+        return position == null ? null : mTimeZoneNames[position];
     }
 
     /**
@@ -60,4 +81,18 @@ public final class TimeZones {
     boolean contains(String timeZoneId) {
         return getTimeZoneName(timeZoneId) != null;
     }
+
+    /**
+     * The names and order of the timezones depend on the locale and on the offset of each
+     * timezone, which changes with daylight saving time and with updates to the timezone rules.
+     * Offsets are not compared here; these timezones are instead considered accurate only until
+     * the earliest offset transition that followed the time at which they were built.
+     *
+     * @param locale the locale in which timezone names should be formatted
+     * @param currentTime the time at which timezone offsets should be computed
+     * @return {@code true} iff these timezones are still accurate for the given locale and time
+     */
+    boolean isCurrent(Locale locale, long currentTime) {
+        return mLocale.equals(locale) && mValidFrom <= currentTime && currentTime < mValidUntil;
+    }
 }
\ No newline at end of file
@@ -21,10 +21,12 @@ import android.content.SharedPreferences;
 import com.android.deskclock.data.Timer.State;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import static com.android.deskclock.data.Timer.State.RESET;
 
@@ -64,6 +66,15 @@ final class TimerDAO {
     /** Prefix for a key to a preference that signals the timer should be deleted on first reset. */
     private static final String DELETE_AFTER_USE = "delete_after_use_";
 
+    /** The name of the preferences file that stores the timers. */
+    static final String PREFS_NAME = "timers";
+
+    /** Matches the keys of all preferences that store the timers. */
+    static final Pattern KEYS = Pattern.compile(TIMER_IDS + "|" + NEXT_TIMER_ID + "|(" + STATE
+            + "|" + LENGTH + "|" + TOTAL_LENGTH + "|" + LAST_START_TIME + "|"
+            + LAST_WALL_CLOCK_TIME + "|" + REMAINING_TIME + "|" + LABEL + "|" + DELETE_AFTER_USE
+            + ")\\d+");
+
     private TimerDAO() {}
 
     /**
@@ -137,18 +148,7 @@ final class TimerDAO {
      */
     static void updateTimer(SharedPreferences prefs, Timer timer) {
         final SharedPreferences.Editor editor = prefs.edit();
-
-        // Record the fields of the timer.
-        final int id = timer.getId();
-        editor.putInt(STATE + id, timer.getState().getValue());
-        editor.putLong(LENGTH + id, timer.getLength());
-        editor.putLong(TOTAL_LENGTH + id, timer.getTotalLength());
-        editor.putLong(LAST_START_TIME + id, timer.getLastStartTime());
-        editor.putLong(LAST_WALL_CLOCK_TIME + id, timer.getLastWallClockTime());
-        editor.putLong(REMAINING_TIME + id, timer.getRemainingTime());
-        editor.putString(LABEL + id, timer.getLabel());
-        editor.putBoolean(DELETE_AFTER_USE + id, timer.getDeleteAfterUse());
-
+        putTimer(editor, timer);
         editor.apply();
     }
 
@@ -156,33 +156,65 @@ final class TimerDAO {
      * @param timer the timer to be removed
      */
     static void removeTimer(SharedPreferences prefs, Timer timer) {
-        final SharedPreferences.Editor editor = prefs.edit();
+        updateTimers(prefs, Collections.<Timer>emptyList(), Collections.singletonList(timer));
+    }
 
-        final int id = timer.getId();
+    /**
+     * Records a group of changes to timers with a single write to permanent storage.
+     *
+     * @param updated the timers to be updated
+     * @param removed the timers to be removed
+     */
+    static void updateTimers(SharedPreferences prefs, Collection<Timer> updated,
+            Collection<Timer> removed) {
+        final SharedPreferences.Editor editor = prefs.edit();
 
-        // Remove the timer id from the set of all timer ids.
-        final Set<String> timerIds = new HashSet<>(getTimerIds(prefs));
-        timerIds.remove(String.valueOf(id));
-        if (timerIds.isEmpty()) {
-            editor.remove(TIMER_IDS);
-            editor.remove(NEXT_TIMER_ID);
-        } else {
-            editor.putStringSet(TIMER_IDS, timerIds);
+        for (Timer timer : updated) {
+            putTimer(editor, timer);
         }
 
-        // Record the fields of the timer.
-        editor.remove(STATE + id);
-        editor.remove(LENGTH + id);
-        editor.remove(TOTAL_LENGTH + id);
-        editor.remove(LAST_START_TIME + id);
-        editor.remove(LAST_WALL_CLOCK_TIME + id);
-        editor.remove(REMAINING_TIME + id);
-        editor.remove(LABEL + id);
-        editor.remove(DELETE_AFTER_USE + id);
+        if (!removed.isEmpty()) {
+            // Remove the timer ids from the set of all timer ids.
+            final Set<String> timerIds = new HashSet<>(getTimerIds(prefs));
+            for (Timer timer : removed) {
+                final int id = timer.getId();
+                timerIds.remove(String.valueOf(id));
+
+                // Remove the fields of the timer.
+                editor.remove(STATE + id);
+                editor.remove(LENGTH + id);
+                editor.remove(TOTAL_LENGTH + id);
+                editor.remove(LAST_START_TIME + id);
+                editor.remove(LAST_WALL_CLOCK_TIME + id);
+                editor.remove(REMAINING_TIME + id);
+                editor.remove(LABEL + id);
+                editor.remove(DELETE_AFTER_USE + id);
+            }
+
+            if (timerIds.isEmpty()) {
+                editor.remove(TIMER_IDS);
+                editor.remove(NEXT_TIMER_ID);
+            } else {
+                editor.putStringSet(TIMER_IDS, timerIds);
+            }
+        }
 
         editor.apply();
     }
 
+    private static void putTimer(SharedPreferences.Editor editor, Timer timer) {
+        // Record the fields of the timer.
+        final int id = timer.getId();
+        editor.putInt(STATE + id, timer.getState().getValue());
+        editor.putLong(LENGTH + id, timer.getLength());
+        editor.putLong(TOTAL_LENGTH + id, timer.getTotalLength());
+        editor.putLong(LAST_START_TIME + id, timer.getLastStartTime());
+        editor.putLong(LAST_WALL_CLOCK_TIME + id, timer.getLastWallClockTime());
+        editor.putLong(REMAINING_TIME + id, timer.getRemainingTime());
+        editor.putString(LABEL + id, timer.getLabel());
+        editor.putBoolean(DELETE_AFTER_USE + id, timer.getDeleteAfterUse());
+    }
+
     private static Set<String> getTimerIds(SharedPreferences prefs) {
         return prefs.getStringSet(TIMER_IDS, Collections.<String>emptySet());
     }
@@ -30,6 +30,7 @@ import android.content.SharedPreferences;
 import android.content.SharedPreferences.OnSharedPreferenceChangeListener;
 import android.net.Uri;
 import androidx.annotation.StringRes;
+import androidx.annotation.VisibleForTesting;
 import androidx.core.app.NotificationManagerCompat;
 import android.util.ArraySet;
 
@@ -42,9 +43,13 @@ import com.android.deskclock.settings.SettingsActivity;
 import com.android.deskclock.timer.TimerKlaxon;
 import com.android.deskclock.timer.TimerService;
 
+import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static android.app.AlarmManager.ELAPSED_REALTIME_WAKEUP;
@@ -63,6 +68,12 @@ final class TimerModel {
      */
     private static final long MISSED_THRESHOLD = -MINUTE_IN_MILLIS;
 
+    /**
+     * Running timers due to expire within this window of an expiring timer are expired along with
+     * it, so a burst of expirations costs a single wakeup.
+     */
+    private static final long DEFAULT_EXPIRY_COALESCING_WINDOW = 500;
+
     private final Context mContext;
 
     private final SharedPreferences mPrefs;
@@ -122,6 +133,18 @@ final class TimerModel {
     /** A mutable copy of the missed timers. */
     private List<Timer> mMissedTimers;
 
+    /** Collects the effects of a group of timer changes; {@code null} outside of a batch. */
+    private TimerBatch mBatch;
+
+    /** Timers expiring within this many milliseconds of each other are expired together. */
+    private long mExpiryCoalescingWindow = DEFAULT_EXPIRY_COALESCING_WINDOW;
+
+    /** The number of times the expiration callback woke this model to expire timers. */
+    private int mExpiryWakeups;
+
+    /** The number of timers expired early to share the wakeup of another expiring timer. */
+    private int mCoalescedExpiries;
+
     /**
      * The service that keeps this application in the foreground while a heads-up timer
      * notification is displayed. Marking the service as foreground prevents the operating system
@@ -135,7 +158,7 @@ final class TimerModel {
     TimerModel(Context context, SharedPreferences prefs, SettingsModel settingsModel,
             RingtoneModel ringtoneModel, NotificationModel notificationModel) {
         mContext = context;
-        mPrefs = prefs;
+        mPrefs = Utils.getSharedPreferences(context, prefs, TimerDAO.PREFS_NAME, TimerDAO.KEYS);
         mSettingsModel = settingsModel;
         mRingtoneModel = ringtoneModel;
         mNotificationModel = notificationModel;
@@ -147,7 +170,7 @@ final class TimerModel {
 
         mAlarmManager = (AlarmManager) mContext.getSystemService(Context.ALARM_SERVICE);
 
-        // Clear caches affected by preferences when preferences change.
+        // Clear caches affected by settings when settings change.
         prefs.registerOnSharedPreferenceChangeListener(mPreferenceListener);
 
         // Update timer notification when locale changes.
@@ -257,7 +280,40 @@ final class TimerModel {
             LogUtils.wtf("Expected TimerServices to be identical");
         }
 
-        updateTimer(timer.expire());
+        // Expire any other timers due within the coalescing window now; this costs one wakeup,
+        // one ringer start and one heads-up notification update for the whole burst.
+        final long coalesceUntil = Utils.now() + mExpiryCoalescingWindow;
+        final List<Timer> expiring = new ArrayList<>();
+        expiring.add(timer.expire());
+        for (Timer other : getMutableTimers()) {
+            if (other.isRunning() && other.getId() != timer.getId()
+                    && other.getExpirationTime() <= coalesceUntil) {
+                expiring.add(other.expire());
+            }
+        }
+
+        mExpiryWakeups++;
+        mCoalescedExpiries += expiring.size() - 1;
+        updateTimers(expiring);
+    }
+
+    /**
+     * @param window timers expiring within this many milliseconds of each other are expired
+     *      together; 0 expires each timer on its own
+     */
+    @VisibleForTesting
+    void setExpiryCoalescingWindow(long window) {
+        mExpiryCoalescingWindow = window;
+    }
+
+    /**
+     * Writes the number of expiration wakeups and the wakeups saved by coalescing expirations to
+     * the given {@code writer}.
+     */
+    void dumpExpiries(PrintWriter writer) {
+        writer.printf("Timer expiries: %d wakeups, %d timers expired, %d wakeups saved"
+                + " (window %d ms)%n", mExpiryWakeups, mExpiryWakeups + mCoalescedExpiries,
+                mCoalescedExpiries, mExpiryCoalescingWindow);
     }
 
     /**
@@ -321,30 +377,73 @@ final class TimerModel {
      * Update timers after system reboot.
      */
     void updateTimersAfterReboot() {
-        final List<Timer> timers = new ArrayList<>(getTimers());
-        for (Timer timer : timers) {
-            doUpdateAfterRebootTimer(timer);
-        }
+        beginBatch();
+        try {
+            final List<Timer> timers = new ArrayList<>(getTimers());
+            for (Timer timer : timers) {
+                doUpdateAfterRebootTimer(timer);
+            }
 
-        // Update the notifications once after all timers are updated.
-        updateNotification();
-        updateMissedNotification();
-        updateHeadsUpNotification();
+            // Notifications do not survive a reboot so all of them must be rebuilt.
+            mBatch.updateAllNotifications();
+        } finally {
+            endBatch();
+        }
     }
 
     /**
      * Update timers after time set.
      */
     void updateTimersAfterTimeSet() {
-        final List<Timer> timers = new ArrayList<>(getTimers());
-        for (Timer timer : timers) {
-            doUpdateAfterTimeSetTimer(timer);
+        beginBatch();
+        try {
+            final List<Timer> timers = new ArrayList<>(getTimers());
+            for (Timer timer : timers) {
+                doUpdateAfterTimeSetTimer(timer);
+            }
+
+            // Wall clock times appear in all notifications so all of them must be rebuilt.
+            mBatch.updateAllNotifications();
+        } finally {
+            endBatch();
         }
+    }
 
-        // Update the notifications once after all timers are updated.
-        updateNotification();
-        updateMissedNotification();
-        updateHeadsUpNotification();
+    /**
+     * Stores a group of updated timers. The timers are persisted, the expiration callback is
+     * rescheduled, the notifications are rebuilt and listeners are notified once for the group.
+     *
+     * @param timers the updated timers to store
+     */
+    void updateTimers(Collection<Timer> timers) {
+        beginBatch();
+        try {
+            for (Timer timer : timers) {
+                doUpdateTimer(timer);
+            }
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Resets a group of timers. The timers are persisted, the expiration callback is rescheduled,
+     * the notifications are rebuilt and listeners are notified once for the group.
+     *
+     * @param timers the timers to be reset
+     * @param allowDelete {@code true} if timers are allowed to be deleted instead of reset
+     *                    (e.g. one use timers)
+     * @param eventLabelId the label of the timer event to send; 0 if no event should be sent
+     */
+    void resetTimers(Collection<Timer> timers, boolean allowDelete, @StringRes int eventLabelId) {
+        beginBatch();
+        try {
+            for (Timer timer : timers) {
+                doResetOrDeleteTimer(timer, allowDelete, eventLabelId);
+            }
+        } finally {
+            endBatch();
+        }
     }
 
     /**
@@ -354,15 +453,13 @@ final class TimerModel {
      * @param eventLabelId the label of the timer event to send; 0 if no event should be sent
      */
     void resetOrDeleteExpiredTimers(@StringRes int eventLabelId) {
-        final List<Timer> timers = new ArrayList<>(getTimers());
-        for (Timer timer : timers) {
+        final List<Timer> expired = new ArrayList<>();
+        for (Timer timer : getMutableTimers()) {
             if (timer.isExpired()) {
-                doResetOrDeleteTimer(timer, true /* allowDelete */, eventLabelId);
+                expired.add(timer);
             }
         }
-
-        // Update the notifications once after all timers are updated.
-        updateHeadsUpNotification();
+        resetTimers(expired, true /* allowDelete */, eventLabelId);
     }
 
     /**
@@ -371,15 +468,8 @@ final class TimerModel {
      * @param eventLabelId the label of the timer event to send; 0 if no event should be sent
      */
     void resetMissedTimers(@StringRes int eventLabelId) {
-        final List<Timer> timers = new ArrayList<>(getTimers());
-        for (Timer timer : timers) {
-            if (timer.isMissed()) {
-                doResetOrDeleteTimer(timer, true /* allowDelete */, eventLabelId);
-            }
-        }
-
-        // Update the notifications once after all timers are updated.
-        updateMissedNotification();
+        resetTimers(new ArrayList<>(getMutableMissedTimers()), true /* allowDelete */,
+                eventLabelId);
     }
 
     /**
@@ -388,16 +478,13 @@ final class TimerModel {
      * @param eventLabelId the label of the timer event to send; 0 if no event should be sent
      */
     void resetUnexpiredTimers(@StringRes int eventLabelId) {
-        final List<Timer> timers = new ArrayList<>(getTimers());
-        for (Timer timer : timers) {
+        final List<Timer> unexpired = new ArrayList<>();
+        for (Timer timer : getMutableTimers()) {
             if (timer.isRunning() || timer.isPaused()) {
-                doResetOrDeleteTimer(timer, true /* allowDelete */, eventLabelId);
+                unexpired.add(timer);
             }
         }
-
-        // Update the notification once after all timers are updated.
-        updateNotification();
-        // Heads-Up notification is unaffected by this change
+        resetTimers(unexpired, true /* allowDelete */, eventLabelId);
     }
 
     /**
@@ -535,9 +622,6 @@ final class TimerModel {
             return timer;
         }
 
-        // Update the timer in permanent storage.
-        TimerDAO.updateTimer(mPrefs, timer);
-
         // Update the timer in the cache.
         final Timer oldTimer = timers.set(index, timer);
 
@@ -550,12 +634,21 @@ final class TimerModel {
             mMissedTimers = null;
         }
 
-        // Update the timer expiration callback.
-        updateAlarmManager();
-
         // Update the timer ringer.
         updateRinger(before, timer);
 
+        // Within a batch, the remaining work happens once when the batch ends.
+        if (mBatch != null) {
+            mBatch.timerUpdated(before, timer);
+            return oldTimer;
+        }
+
+        // Update the timer in permanent storage.
+        TimerDAO.updateTimer(mPrefs, timer);
+
+        // Update the timer expiration callback.
+        updateAlarmManager();
+
         // Notify listeners of the change.
         for (TimerListener timerListener : mTimerListeners) {
             timerListener.timerUpdated(before, timer);
@@ -572,7 +665,9 @@ final class TimerModel {
      */
     private void doRemoveTimer(Timer timer) {
         // Remove the timer from permanent storage.
-        TimerDAO.removeTimer(mPrefs, timer);
+        if (mBatch == null) {
+            TimerDAO.removeTimer(mPrefs, timer);
+        }
 
         // Remove the timer from the cache.
         final List<Timer> timers = getMutableTimers();
@@ -595,18 +690,76 @@ final class TimerModel {
             mMissedTimers = null;
         }
 
-        // Update the timer expiration callback.
-        updateAlarmManager();
-
         // Update the timer ringer.
         updateRinger(timer, null);
 
+        // Within a batch, the remaining work happens once when the batch ends.
+        if (mBatch != null) {
+            mBatch.timerRemoved(timer);
+            return;
+        }
+
+        // Update the timer expiration callback.
+        updateAlarmManager();
+
         // Notify listeners of the change.
         for (TimerListener timerListener : mTimerListeners) {
             timerListener.timerRemoved(timer);
         }
     }
 
+    /**
+     * Begins collecting timer changes so they are persisted, scheduled and reported together by
+     * {@link #endBatch}.
+     */
+    private void beginBatch() {
+        if (mBatch != null) {
+            throw new IllegalStateException("Timer batch already in progress");
+        }
+        mBatch = new TimerBatch();
+    }
+
+    /**
+     * Persists the timer changes collected since {@link #beginBatch}, reschedules the expiration
+     * callback, rebuilds the affected notifications and notifies listeners of each change.
+     */
+    private void endBatch() {
+        final TimerBatch batch = mBatch;
+        mBatch = null;
+
+        if (!batch.mChanges.isEmpty()) {
+            // Update the timers in permanent storage.
+            TimerDAO.updateTimers(mPrefs, batch.mUpdated.values(), batch.mRemoved);
+
+            // Update the timer expiration callback.
+            updateAlarmManager();
+
+            // Notify listeners of the changes in the order they occurred.
+            for (Timer[] change : batch.mChanges) {
+                final Timer before = change[0];
+                final Timer after = change[1];
+                for (TimerListener timerListener : mTimerListeners) {
+                    if (after == null) {
+                        timerListener.timerRemoved(before);
+                    } else {
+                        timerListener.timerUpdated(before, after);
+                    }
+                }
+            }
+        }
+
+        // Update each affected notification once.
+        if (batch.mUnexpiredChanged) {
+            updateNotification();
+        }
+        if (batch.mMissedChanged) {
+            updateMissedNotification();
+        }
+        if (batch.mExpiredChanged) {
+            updateHeadsUpNotification();
+        }
+    }
+
     /**
      * This method updates/removes timer data without updating notifications. This is useful in
      * bulk-update scenarios so the notifications are only rebuilt once.
@@ -850,4 +1003,54 @@ final class TimerModel {
             am.setExact(ELAPSED_REALTIME_WAKEUP, triggerTime, pi);
         }
     }
+
+    /**
+     * The timer changes made during a batch, awaiting persistence and notification.
+     */
+    private static final class TimerBatch {
+
+        /** The latest state of each updated timer, keyed by timer id. */
+        private final Map<Integer, Timer> mUpdated = new LinkedHashMap<>();
+
+        /** The timers removed during the batch. */
+        private final List<Timer> mRemoved = new ArrayList<>();
+
+        /** Each change as a pair of timers before and after; after is {@code null} if removed. */
+        private final List<Timer[]> mChanges = new ArrayList<>();
+
+        /** {@code true} if a running or paused timer was changed. */
+        private boolean mUnexpiredChanged;
+
+        /** {@code true} if a missed timer was changed. */
+        private boolean mMissedChanged;
+
+        /** {@code true} if an expired timer was changed. */
+        private boolean mExpiredChanged;
+
+        private void timerUpdated(Timer before, Timer after) {
+            mUpdated.put(after.getId(), after);
+            mChanges.add(new Timer[] { before, after });
+            recordStates(before);
+            recordStates(after);
+        }
+
+        private void timerRemoved(Timer timer) {
+            mUpdated.remove(timer.getId());
+            mRemoved.add(timer);
+            mChanges.add(new Timer[] { timer, null });
+            recordStates(timer);
+        }
+
+        private void updateAllNotifications() {
+            mUnexpiredChanged = true;
+            mMissedChanged = true;
+            mExpiredChanged = true;
+        }
+
+        private void recordStates(Timer timer) {
+            mUnexpiredChanged |= timer.isRunning() || timer.isPaused();
+            mMissedChanged |= timer.isMissed();
+            mExpiredChanged |= timer.isExpired();
+        }
+    }
 }
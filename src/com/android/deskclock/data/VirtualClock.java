@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import java.util.TimeZone;
+
+import static android.text.format.DateUtils.DAY_IN_MILLIS;
+
+/**
+ * A {@link Clock} whose time only moves when it is told to. Installing it with
+ * {@link DataModel#setClock} lets days of alarms, timers and time zone changes be replayed in
+ * moments.
+ */
+public final class VirtualClock implements Clock {
+
+    private long mCurrentTimeMillis;
+    private long mElapsedRealtime;
+    private TimeZone mTimeZone;
+
+    /**
+     * @param currentTimeMillis the initial wall clock time in milliseconds
+     * @param elapsedRealtime the initial number of milliseconds since boot
+     * @param timeZone the initial time zone
+     */
+    public VirtualClock(long currentTimeMillis, long elapsedRealtime, TimeZone timeZone) {
+        mCurrentTimeMillis = currentTimeMillis;
+        mElapsedRealtime = elapsedRealtime;
+        mTimeZone = timeZone;
+    }
+
+    @Override
+    public synchronized long currentTimeMillis() {
+        return mCurrentTimeMillis;
+    }
+
+    @Override
+    public synchronized long elapsedRealtime() {
+        return mElapsedRealtime;
+    }
+
+    @Override
+    public synchronized TimeZone getTimeZone() {
+        return mTimeZone;
+    }
+
+    /**
+     * Moves both clocks forward as time passing normally would.
+     *
+     * @param millis the number of milliseconds to move forward
+     */
+    public synchronized void advance(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Time cannot move backwards: " + millis);
+        }
+        mCurrentTimeMillis += millis;
+        mElapsedRealtime += millis;
+    }
+
+    /**
+     * @param days the number of days to move both clocks forward
+     */
+    public void advanceDays(int days) {
+        advance(days * DAY_IN_MILLIS);
+    }
+
+    /**
+     * Changes the wall clock time without the passage of time, as a user setting the time would.
+     *
+     * @param currentTimeMillis the new wall clock time in milliseconds
+     */
+    public synchronized void setCurrentTimeMillis(long currentTimeMillis) {
+        mCurrentTimeMillis = currentTimeMillis;
+    }
+
+    /**
+     * Simulates a reboot: the time since boot restarts while the wall clock time continues.
+     *
+     * @param elapsedRealtime the number of milliseconds since boot after the reboot
+     */
+    public synchronized void reboot(long elapsedRealtime) {
+        mElapsedRealtime = elapsedRealtime;
+    }
+
+    /**
+     * @param timeZone the new time zone in which the wall clock time is presented
+     */
+    public synchronized void setTimeZone(TimeZone timeZone) {
+        mTimeZone = timeZone;
+    }
+}
@@ -18,6 +18,8 @@ package com.android.deskclock.data;
 
 import android.content.SharedPreferences;
 
+import java.util.regex.Pattern;
+
 /**
  * This class encapsulates the transfer of data between widget objects and their permanent storage
  * in {@link SharedPreferences}.
@@ -27,6 +29,12 @@ final class WidgetDAO {
     /** Suffix for a key to a preference that stores the instance count for a given widget type. */
     private static final String WIDGET_COUNT = "_widget_count";
 
+    /** The name of the preferences file that stores the widget counts. */
+    static final String PREFS_NAME = "widgets";
+
+    /** Matches the keys of all preferences that store the widget counts. */
+    static final Pattern KEYS = Pattern.compile("\\w+" + WIDGET_COUNT);
+
     private WidgetDAO() {}
 
     /**
@@ -16,10 +16,12 @@
 
 package com.android.deskclock.data;
 
+import android.content.Context;
 import android.content.SharedPreferences;
 import androidx.annotation.StringRes;
 
 import com.android.deskclock.R;
+import com.android.deskclock.Utils;
 import com.android.deskclock.events.Events;
 
 /**
@@ -29,8 +31,8 @@ final class WidgetModel {
 
     private final SharedPreferences mPrefs;
 
-    WidgetModel(SharedPreferences prefs) {
-        mPrefs = prefs;
+    WidgetModel(Context context, SharedPreferences prefs) {
+        mPrefs = Utils.getSharedPreferences(context, prefs, WidgetDAO.PREFS_NAME, WidgetDAO.KEYS);
     }
 
     /**
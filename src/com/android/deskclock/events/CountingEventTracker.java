@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.events;
+
+import android.content.Context;
+import androidx.annotation.StringRes;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import java.io.PrintWriter;
+
+/**
+ * Counts events in memory by category and action so they can be inspected in diagnostic dumps.
+ */
+public final class CountingEventTracker implements EventTracker {
+
+    private final Context mContext;
+
+    /** Maps each category to the number of events raised for each of its actions. */
+    private final SparseArray<SparseIntArray> mCounts = new SparseArray<>();
+
+    public CountingEventTracker(Context context) {
+        mContext = context;
+    }
+
+    @Override
+    public synchronized void sendEvent(@StringRes int category, @StringRes int action,
+            @StringRes int label) {
+        SparseIntArray actionCounts = mCounts.get(category);
+        if (actionCounts == null) {
+            actionCounts = new SparseIntArray();
+            mCounts.put(category, actionCounts);
+        }
+        actionCounts.put(action, actionCounts.get(action) + 1);
+    }
+
+    /**
+     * Writes the number of events counted for each category and action.
+     */
+    public synchronized void dump(PrintWriter writer) {
+        writer.println("Events:");
+        for (int i = 0; i < mCounts.size(); i++) {
+            final SparseIntArray actionCounts = mCounts.valueAt(i);
+            int total = 0;
+            for (int j = 0; j < actionCounts.size(); j++) {
+                total += actionCounts.valueAt(j);
+            }
+            writer.printf("  %s: %d%n", safeGetString(mCounts.keyAt(i)), total);
+            for (int j = 0; j < actionCounts.size(); j++) {
+                writer.printf("    %s: %d%n", safeGetString(actionCounts.keyAt(j)),
+                        actionCounts.valueAt(j));
+            }
+        }
+    }
+
+    /**
+     * @return Resource string represented by a given resource id, null if resId is invalid (0).
+     */
+    private String safeGetString(@StringRes int resId) {
+        return resId == 0 ? null : mContext.getString(resId);
+    }
+}
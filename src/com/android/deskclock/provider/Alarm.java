@@ -327,6 +327,20 @@ public final class Alarm implements Parcelable, ClockContract.AlarmsColumns {
         }
     }
 
+    public Alarm(Alarm alarm) {
+        this.id = alarm.id;
+        this.enabled = alarm.enabled;
+        this.hour = alarm.hour;
+        this.minutes = alarm.minutes;
+        this.daysOfWeek = alarm.daysOfWeek;
+        this.vibrate = alarm.vibrate;
+        this.label = alarm.label;
+        this.alert = alarm.alert;
+        this.deleteAfterUse = alarm.deleteAfterUse;
+        this.instanceState = alarm.instanceState;
+        this.instanceId = alarm.instanceId;
+    }
+
     Alarm(Parcel p) {
         id = p.readLong();
         enabled = p.readInt() == 1;
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.provider;
+
+import android.content.ContentResolver;
+import android.util.LongSparseArray;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-memory index of all alarms and alarm instances. It answers the queries issued by the voice
+ * and intent APIs without a provider round trip per alarm. {@link ClockProvider} invalidates the
+ * index each time it reports a change, and the next query rebuilds it with a single query of each
+ * table.
+ *
+ * <p>All queries return copies that callers are free to modify.</p>
+ */
+public final class AlarmIndex {
+
+    /** The single instance of this index. */
+    private static final AlarmIndex sAlarmIndex = new AlarmIndex();
+
+    /** Incremented each time the provider reports a change. */
+    private final AtomicInteger mGeneration = new AtomicInteger();
+
+    /** The value of {@link #mGeneration} when the index was last built. */
+    private int mIndexedGeneration = -1;
+
+    /** All alarms in the order the provider returns them. */
+    private List<Alarm> mAlarms = Collections.emptyList();
+
+    /** All alarm instances in the order the provider returns them. */
+    private List<AlarmInstance> mInstances = Collections.emptyList();
+
+    /** Maps each alarm id to its instances. */
+    private LongSparseArray<List<AlarmInstance>> mInstancesByAlarmId = new LongSparseArray<>();
+
+    public static AlarmIndex getAlarmIndex() {
+        return sAlarmIndex;
+    }
+
+    private AlarmIndex() {}
+
+    /**
+     * @param cr provides access to the content model
+     * @return all enabled alarms
+     */
+    public List<Alarm> getEnabledAlarms(ContentResolver cr) {
+        final List<Alarm> result = new ArrayList<>();
+        synchronized (this) {
+            ensureIndexed(cr);
+            for (Alarm alarm : mAlarms) {
+                if (alarm.enabled) {
+                    result.add(new Alarm(alarm));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param cr provides access to the content model
+     * @param hour the hour of the day of the desired alarms
+     * @param minutes the minute of the hour of the desired alarms
+     * @param enabledOnly {@code true} to exclude disabled alarms
+     * @return the alarms scheduled at the given time of day
+     */
+    public List<Alarm> getAlarmsAt(ContentResolver cr, int hour, int minutes,
+            boolean enabledOnly) {
+        final List<Alarm> result = new ArrayList<>();
+        synchronized (this) {
+            ensureIndexed(cr);
+            for (Alarm alarm : mAlarms) {
+                if (alarm.hour == hour && alarm.minutes == minutes
+                        && (alarm.enabled || !enabledOnly)) {
+                    result.add(new Alarm(alarm));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param cr provides access to the content model
+     * @param alarmId identifies the alarm whose instance is desired
+     * @return the earliest instance of the alarm; {@code null} if it has none
+     */
+    public AlarmInstance getNextUpcomingInstance(ContentResolver cr, long alarmId) {
+        synchronized (this) {
+            ensureIndexed(cr);
+            final List<AlarmInstance> instances = mInstancesByAlarmId.get(alarmId);
+            if (instances == null) {
+                return null;
+            }
+
+            AlarmInstance next = null;
+            for (AlarmInstance instance : instances) {
+                if (next == null || instance.getAlarmTime().before(next.getAlarmTime())) {
+                    next = instance;
+                }
+            }
+            return next == null ? null : new AlarmInstance(next);
+        }
+    }
+
+    /**
+     * @param cr provides access to the content model
+     * @return the instance that has not yet fired and will fire earliest; {@code null} if none
+     */
+    public AlarmInstance getNextFiringInstance(ContentResolver cr) {
+        synchronized (this) {
+            ensureIndexed(cr);
+            AlarmInstance next = null;
+            for (AlarmInstance instance : mInstances) {
+                if (instance.mAlarmState < AlarmInstance.FIRED_STATE
+                        && (next == null || instance.getAlarmTime().before(next.getAlarmTime()))) {
+                    next = instance;
+                }
+            }
+            return next == null ? null : new AlarmInstance(next);
+        }
+    }
+
+    /**
+     * @param cr provides access to the content model
+     * @param state the state of the desired instances, e.g. {@link AlarmInstance#FIRED_STATE}
+     * @return all instances in the given state
+     */
+    public List<AlarmInstance> getInstancesInState(ContentResolver cr, int state) {
+        final List<AlarmInstance> result = new ArrayList<>();
+        synchronized (this) {
+            ensureIndexed(cr);
+            for (AlarmInstance instance : mInstances) {
+                if (instance.mAlarmState == state) {
+                    result.add(new AlarmInstance(instance));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Called by {@link ClockProvider} when alarms or instances change so the next query rebuilds
+     * the index.
+     */
+    void invalidate() {
+        mGeneration.incrementAndGet();
+    }
+
+    /**
+     * Rebuilds the index if the provider has changed since it was last built. A change that
+     * arrives while the index is being built leaves it invalid so the next query rebuilds it.
+     */
+    private synchronized void ensureIndexed(ContentResolver cr) {
+        final int generation = mGeneration.get();
+        if (generation == mIndexedGeneration) {
+            return;
+        }
+
+        final List<Alarm> alarms = Alarm.getAlarms(cr, null);
+        final List<AlarmInstance> instances = AlarmInstance.getInstances(cr, null);
+        final LongSparseArray<List<AlarmInstance>> instancesByAlarmId =
+                new LongSparseArray<>(alarms.size());
+        for (AlarmInstance instance : instances) {
+            if (instance.mAlarmId == null) {
+                continue;
+            }
+            List<AlarmInstance> alarmInstances = instancesByAlarmId.get(instance.mAlarmId);
+            if (alarmInstances == null) {
+                alarmInstances = new ArrayList<>(1);
+                instancesByAlarmId.put(instance.mAlarmId, alarmInstances);
+            }
+            alarmInstances.add(instance);
+        }
+
+        mAlarms = new ArrayList<>(alarms);
+        mInstances = new ArrayList<>(instances);
+        mInstancesByAlarmId = instancesByAlarmId;
+        mIndexedGeneration = generation;
+    }
+}
@@ -18,10 +18,13 @@ package com.android.deskclock.provider;
 
 import android.annotation.TargetApi;
 import android.content.ContentProvider;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentResolver;
 import android.content.ContentUris;
 import android.content.ContentValues;
 import android.content.Context;
+import android.content.OperationApplicationException;
 import android.content.UriMatcher;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
@@ -35,7 +38,10 @@ import android.util.ArrayMap;
 import com.android.deskclock.LogUtils;
 import com.android.deskclock.Utils;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 import static com.android.deskclock.provider.ClockContract.AlarmsColumns;
 import static com.android.deskclock.provider.ClockContract.InstancesColumns;
@@ -46,6 +52,13 @@ public class ClockProvider extends ContentProvider {
 
     private ClockDatabaseHelper mOpenHelper;
 
+    /**
+     * The uris changed by the batch being applied on the current thread; {@code null} when the
+     * current thread is not applying a batch. Change notifications are deferred until the batch
+     * has been committed so observers are told once per table rather than once per row.
+     */
+    private final ThreadLocal<Set<Uri>> mBatchChanges = new ThreadLocal<>();
+
     private static final int ALARMS = 1;
     private static final int ALARMS_ID = 2;
     private static final int INSTANCES = 3;
@@ -291,10 +304,56 @@ public class ClockProvider extends ContentProvider {
         return count;
     }
 
+    /**
+     * Applies all {@code operations} within a single database transaction. If any operation fails
+     * none of the operations take effect.
+     */
+    @NonNull
+    @Override
+    public ContentProviderResult[] applyBatch(@NonNull ArrayList<ContentProviderOperation>
+            operations) throws OperationApplicationException {
+        final Set<Uri> changes = new LinkedHashSet<>();
+        final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+        final ContentProviderResult[] results;
+
+        mBatchChanges.set(changes);
+        db.beginTransaction();
+        try {
+            results = super.applyBatch(operations);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            mBatchChanges.remove();
+        }
+
+        final ContentResolver resolver = getContext().getContentResolver();
+        for (Uri uri : changes) {
+            notifyChange(resolver, uri);
+        }
+        return results;
+    }
+
     /**
      * Notify affected URIs of changes.
      */
     private void notifyChange(ContentResolver resolver, Uri uri) {
+        final Set<Uri> batchChanges = mBatchChanges.get();
+        if (batchChanges != null) {
+            // Notifying the table also notifies observers of each of its rows.
+            switch (sURIMatcher.match(uri)) {
+                case ALARMS_ID:
+                    batchChanges.add(AlarmsColumns.CONTENT_URI);
+                    break;
+                case INSTANCES_ID:
+                    batchChanges.add(InstancesColumns.CONTENT_URI);
+                    break;
+                default:
+                    batchChanges.add(uri);
+            }
+            return;
+        }
+
+        AlarmIndex.getAlarmIndex().invalidate();
         resolver.notifyChange(uri, null);
 
         final int match = sURIMatcher.match(uri);
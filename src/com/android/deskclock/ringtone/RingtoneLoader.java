@@ -29,21 +29,68 @@ import com.android.deskclock.R;
 import com.android.deskclock.data.CustomRingtone;
 import com.android.deskclock.data.DataModel;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static android.media.AudioManager.STREAM_ALARM;
+import static android.media.RingtoneManager.TITLE_COLUMN_INDEX;
 import static com.android.deskclock.Utils.RINGTONE_SILENT;
 
 /**
- * Assembles the list of ItemHolders that back the RecyclerView used to choose a ringtone.
+ * Assembles the list of ItemHolders that back the RecyclerView used to choose a ringtone. The
+ * headers, custom ringtones and first page of system ringtones are delivered first; further pages
+ * of system ringtones are appended to the delivered list each time {@link #loadNextPage} is called.
+ * Each delivered list is a view of the item holders loaded so far, so delivering a page does not
+ * copy the pages before it.
  */
 class RingtoneLoader extends AsyncTaskLoader<List<ItemAdapter.ItemHolder<Uri>>> {
 
+    /** The number of system ringtones read from the cursor for each delivered page. */
+    private static final int PAGE_SIZE = 50;
+
     private final Uri mDefaultRingtoneUri;
     private final String mDefaultRingtoneTitle;
     private List<CustomRingtone> mCustomRingtones;
 
+    /** Guards the cursor and the accumulated item holders, which outlive a single load. */
+    private final Lock mLock = new ReentrantLock();
+
+    /** Positions the cursor of system ringtones and builds their uris. */
+    private RingtoneManager mRingtoneManager;
+
+    /** The cursor of system ringtones; held open between pages and closed on reset. */
+    private Cursor mSystemRingtoneCursor;
+
+    /**
+     * All item holders loaded so far, followed by unused capacity. Item holders are only ever
+     * appended, so a view of those loaded before a delivery remains valid after later pages are
+     * loaded; growing the array replaces it and leaves delivered views with the old one.
+     */
+    private Object[] mItemHolders;
+
+    /** The number of item holders in {@link #mItemHolders}. */
+    private int mItemHolderCount;
+
+    /** The number of system ringtones read from {@link #mSystemRingtoneCursor} so far. */
+    private volatile int mLoadedSystemRingtoneCount;
+
+    /** The total number of system ringtones; valid once the first page is loaded. */
+    private volatile int mSystemRingtoneCount = -1;
+
+    /** The number of system ringtones that should be loaded before the next delivery. */
+    private volatile int mRequestedSystemRingtoneCount;
+
+    /** {@code true} indicates the next load must discard accumulated data and start over. */
+    private volatile boolean mReloadRequested;
+
+    /** {@code true} indicates the loader was reset while a page was loading. */
+    private volatile boolean mReleaseRequested;
+
     RingtoneLoader(Context context, Uri defaultRingtoneUri, String defaultRingtoneTitle) {
         super(context);
         mDefaultRingtoneUri = defaultRingtoneUri;
@@ -55,64 +102,246 @@ class RingtoneLoader extends AsyncTaskLoader<List<ItemAdapter.ItemHolder<Uri>>>
         super.onStartLoading();
 
         mCustomRingtones = DataModel.getDataModel().getCustomRingtones();
+        mReloadRequested = true;
+        mReleaseRequested = false;
+
+        // A reload retains the number of pages already shown to preserve the scroll position.
+        mRequestedSystemRingtoneCount = Math.max(PAGE_SIZE, mRequestedSystemRingtoneCount);
         forceLoad();
     }
 
+    /**
+     * @return {@code true} if system ringtones remain that have not yet been delivered
+     */
+    boolean hasNextPage() {
+        return mSystemRingtoneCount < 0 || mRequestedSystemRingtoneCount < mSystemRingtoneCount;
+    }
+
+    /**
+     * Requests the next page of system ringtones be appended to the delivered list. Requests made
+     * while a page is already loading are ignored.
+     */
+    void loadNextPage() {
+        if (isStarted() && hasNextPage() && !isLoadInProgress()) {
+            mRequestedSystemRingtoneCount += PAGE_SIZE;
+            forceLoad();
+        }
+    }
+
+    /**
+     * @return {@code true} while a page is being read in the background
+     */
+    private boolean isLoadInProgress() {
+        // The counts are only consistent with each other while the lock is held; a load that
+        // currently holds it is in progress.
+        if (!mLock.tryLock()) {
+            return true;
+        }
+
+        try {
+            return mReloadRequested || mSystemRingtoneCount < 0 || mLoadedSystemRingtoneCount
+                    < Math.min(mRequestedSystemRingtoneCount, mSystemRingtoneCount);
+        } finally {
+            mLock.unlock();
+        }
+    }
+
     @Override
     public List<ItemAdapter.ItemHolder<Uri>> loadInBackground() {
-        // Prime the ringtone title cache for later access.
-        DataModel.getDataModel().loadRingtoneTitles();
+        mLock.lock();
+        try {
+            if (mReloadRequested || mItemHolders == null) {
+                mReloadRequested = false;
+                loadFirstPage();
+            }
+
+            // Append system ringtones up to the requested count. The title is read from the same
+            // cursor row so no separate lookup is required when the row is bound.
+            final int end = Math.min(mRequestedSystemRingtoneCount, mSystemRingtoneCount);
+            for (int i = mLoadedSystemRingtoneCount; i < end; i++) {
+                if (!mSystemRingtoneCursor.moveToPosition(i)) {
+                    // Treat the list as exhausted so that later pages are not awaited forever.
+                    LogUtils.w("Could not read system ringtone %d of %d", i, mSystemRingtoneCount);
+                    mSystemRingtoneCount = i;
+                    break;
+                }
+                final String title = mSystemRingtoneCursor.getString(TITLE_COLUMN_INDEX);
+                final Uri ringtoneUri = mRingtoneManager.getRingtoneUri(i);
+                addItemHolder(new SystemRingtoneHolder(ringtoneUri, title));
+                mLoadedSystemRingtoneCount = i + 1;
+            }
+
+            // Deliver a distinct list each time so the adapter recognizes the new page.
+            return new ItemHolderPage(mItemHolders, mItemHolderCount);
+        } finally {
+            if (mReleaseRequested) {
+                release();
+            }
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * Discards any accumulated data and assembles the headers and custom ringtones.
+     */
+    private void loadFirstPage() {
+        closeSystemRingtoneCursor();
+
+        // Custom ringtone permissions must be current before they are displayed.
         DataModel.getDataModel().loadRingtonePermissions();
 
         // Fetch the standard system ringtones.
-        final RingtoneManager ringtoneManager = new RingtoneManager(getContext());
-        ringtoneManager.setType(STREAM_ALARM);
+        mRingtoneManager = new RingtoneManager(getContext());
+        mRingtoneManager.setType(STREAM_ALARM);
 
         Cursor systemRingtoneCursor;
         try {
-            systemRingtoneCursor = ringtoneManager.getCursor();
+            systemRingtoneCursor = mRingtoneManager.getCursor();
         } catch (Exception e) {
             LogUtils.e("Could not get system ringtone cursor");
             systemRingtoneCursor = new MatrixCursor(new String[] {});
         }
-        final int systemRingtoneCount = systemRingtoneCursor.getCount();
+        mSystemRingtoneCursor = systemRingtoneCursor;
+        mSystemRingtoneCount = systemRingtoneCursor.getCount();
+        mLoadedSystemRingtoneCount = 0;
+
         // item count = # system ringtones + # custom ringtones + 2 headers + Add new music item
-        final int itemCount = systemRingtoneCount + mCustomRingtones.size() + 3;
+        //     + silent ringtone + default ringtone
+        final int itemCount = mSystemRingtoneCount + mCustomRingtones.size() + 5;
 
-        final List<ItemAdapter.ItemHolder<Uri>> itemHolders = new ArrayList<>(itemCount);
+        mItemHolders = new Object[itemCount];
+        mItemHolderCount = 0;
 
         // Add the item holder for the Music heading.
-        itemHolders.add(new HeaderHolder(R.string.your_sounds));
+        addItemHolder(new HeaderHolder(R.string.your_sounds));
 
         // Add an item holder for each custom ringtone and also cache a pretty name.
         for (CustomRingtone ringtone : mCustomRingtones) {
-            itemHolders.add(new CustomRingtoneHolder(ringtone));
+            addItemHolder(new CustomRingtoneHolder(ringtone));
         }
 
         // Add an item holder for the "Add new" music ringtone.
-        itemHolders.add(new AddCustomRingtoneHolder());
+        addItemHolder(new AddCustomRingtoneHolder());
 
         // Add an item holder for the Ringtones heading.
-        itemHolders.add(new HeaderHolder(R.string.device_sounds));
+        addItemHolder(new HeaderHolder(R.string.device_sounds));
 
         // Add an item holder for the silent ringtone.
-        itemHolders.add(new SystemRingtoneHolder(RINGTONE_SILENT, null));
+        addItemHolder(new SystemRingtoneHolder(RINGTONE_SILENT, null));
 
         // Add an item holder for the system default alarm sound.
-        itemHolders.add(new SystemRingtoneHolder(mDefaultRingtoneUri, mDefaultRingtoneTitle));
+        addItemHolder(new SystemRingtoneHolder(mDefaultRingtoneUri, mDefaultRingtoneTitle));
+    }
 
-        // Add an item holder for each system ringtone.
-        for (int i = 0; i < systemRingtoneCount; i++) {
-            final Uri ringtoneUri = ringtoneManager.getRingtoneUri(i);
-            itemHolders.add(new SystemRingtoneHolder(ringtoneUri, null));
+    /**
+     * Appends the {@code itemHolder} to {@link #mItemHolders}; the lock must be held.
+     */
+    private void addItemHolder(ItemAdapter.ItemHolder<Uri> itemHolder) {
+        if (mItemHolderCount == mItemHolders.length) {
+            mItemHolders = Arrays.copyOf(mItemHolders, Math.max(16, mItemHolderCount * 2));
         }
+        mItemHolders[mItemHolderCount++] = itemHolder;
+    }
 
-        return itemHolders;
+    /**
+     * Releases the cursor and accumulated item holders; the lock must be held.
+     */
+    private void release() {
+        mReleaseRequested = false;
+        closeSystemRingtoneCursor();
+        mRingtoneManager = null;
+        mItemHolders = null;
+        mItemHolderCount = 0;
+        mLoadedSystemRingtoneCount = 0;
+        mSystemRingtoneCount = -1;
+    }
+
+    private void closeSystemRingtoneCursor() {
+        if (mSystemRingtoneCursor != null) {
+            mSystemRingtoneCursor.close();
+            mSystemRingtoneCursor = null;
+        }
     }
 
     @Override
     protected void onReset() {
         super.onReset();
         mCustomRingtones = null;
+
+        // Release the cursor now unless a page is loading; that load releases it when done.
+        cancelLoad();
+        if (mLock.tryLock()) {
+            try {
+                release();
+            } finally {
+                mLock.unlock();
+            }
+        } else {
+            mReleaseRequested = true;
+        }
+    }
+
+    /**
+     * The item holders loaded before a delivery. The adapter may remove a custom ringtone from the
+     * delivered list, so the page copies its item holders the first time it is modified rather
+     * than writing to the array it shares with later pages.
+     */
+    private static final class ItemHolderPage extends AbstractList<ItemAdapter.ItemHolder<Uri>>
+            implements RandomAccess {
+
+        /** The array of loaded item holders; only the first {@link #mSize} belong to the page. */
+        private final Object[] mItemHolders;
+
+        private final int mSize;
+
+        /** The item holders of the page once it has been modified; {@code null} until then. */
+        private List<ItemAdapter.ItemHolder<Uri>> mCopy;
+
+        private ItemHolderPage(Object[] itemHolders, int size) {
+            mItemHolders = itemHolders;
+            mSize = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ItemAdapter.ItemHolder<Uri> get(int index) {
+            if (mCopy != null) {
+                return mCopy.get(index);
+            }
+            if (index < 0 || index >= mSize) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSize);
+            }
+            return (ItemAdapter.ItemHolder<Uri>) mItemHolders[index];
+        }
+
+        @Override
+        public int size() {
+            return mCopy != null ? mCopy.size() : mSize;
+        }
+
+        @Override
+        public ItemAdapter.ItemHolder<Uri> set(int index, ItemAdapter.ItemHolder<Uri> itemHolder) {
+            return getCopy().set(index, itemHolder);
+        }
+
+        @Override
+        public void add(int index, ItemAdapter.ItemHolder<Uri> itemHolder) {
+            getCopy().add(index, itemHolder);
+            modCount++;
+        }
+
+        @Override
+        public ItemAdapter.ItemHolder<Uri> remove(int index) {
+            final ItemAdapter.ItemHolder<Uri> removed = getCopy().remove(index);
+            modCount++;
+            return removed;
+        }
+
+        private List<ItemAdapter.ItemHolder<Uri>> getCopy() {
+            if (mCopy == null) {
+                mCopy = new ArrayList<>(this);
+            }
+            return mCopy;
+        }
     }
-}
\ No newline at end of file
+}
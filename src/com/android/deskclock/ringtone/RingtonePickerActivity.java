@@ -96,6 +96,9 @@ public class RingtonePickerActivity extends BaseActivity
     /** Key to an instance state value indicating if the selected ringtone is currently playing. */
     private static final String STATE_KEY_PLAYING = "extra_is_playing";
 
+    /** The next page of ringtones is loaded when the last visible row is this close to the end. */
+    private static final int PREFETCH_DISTANCE = 10;
+
     /** The controller that shows the drop shadow when content is not scrolled to the top. */
     private DropShadowController mDropShadowController;
 
@@ -202,6 +205,17 @@ public class RingtonePickerActivity extends BaseActivity
                     closeContextMenu();
                 }
             }
+
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                // Load the next page of system ringtones as the end of the list approaches.
+                final LinearLayoutManager layoutManager =
+                        (LinearLayoutManager) recyclerView.getLayoutManager();
+                final int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= mRingtoneAdapter.getItemCount() - PREFETCH_DISTANCE) {
+                    loadNextRingtonePage();
+                }
+            }
         });
 
         final int titleResourceId = intent.getIntExtra(EXTRA_TITLE, 0);
@@ -306,7 +320,10 @@ public class RingtonePickerActivity extends BaseActivity
 
         // Attempt to select the requested ringtone.
         final RingtoneHolder toSelect = getRingtoneHolder(mSelectedRingtoneUri);
-        if (toSelect != null) {
+        if (toSelect != null && toSelect.isSelected()) {
+            // The selection was established by the delivery of an earlier page.
+            return;
+        } else if (toSelect != null) {
             toSelect.setSelected(true);
             mSelectedRingtoneUri = toSelect.getUri();
             toSelect.notifyItemChanged();
@@ -315,6 +332,9 @@ public class RingtonePickerActivity extends BaseActivity
             if (mIsPlaying) {
                 startPlayingRingtone(toSelect);
             }
+        } else if (mSelectedRingtoneUri != null && ((RingtoneLoader) loader).hasNextPage()) {
+            // The requested ringtone may appear in a later page.
+            loadNextRingtonePage();
         } else {
             // Clear the selection since it does not exist in the data.
             RingtonePreviewKlaxon.stop(this);
@@ -361,6 +381,16 @@ public class RingtonePickerActivity extends BaseActivity
         return true;
     }
 
+    /**
+     * Appends the next page of system ringtones to the list if any remain to be loaded.
+     */
+    private void loadNextRingtonePage() {
+        final Loader<?> loader = getLoaderManager().getLoader(0 /* id */);
+        if (loader instanceof RingtoneLoader) {
+            ((RingtoneLoader) loader).loadNextPage();
+        }
+    }
+
     private RingtoneHolder getRingtoneHolder(Uri uri) {
         for (ItemAdapter.ItemHolder<Uri> itemHolder : mRingtoneAdapter.getItems()) {
             if (itemHolder instanceof RingtoneHolder) {
@@ -35,6 +35,7 @@ public final class ScreensaverSettingsActivity extends AppCompatActivity {
 
     public static final String KEY_CLOCK_STYLE = "screensaver_clock_style";
     public static final String KEY_NIGHT_MODE = "screensaver_night_mode";
+    public static final String KEY_LOW_POWER_MODE = "screensaver_low_power_mode";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
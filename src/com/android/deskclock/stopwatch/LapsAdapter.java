@@ -20,6 +20,7 @@ import android.content.Context;
 import androidx.annotation.VisibleForTesting;
 import androidx.recyclerview.widget.RecyclerView;
 import android.text.format.DateUtils;
+import android.util.SparseArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -45,6 +46,9 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
     private static final long TEN_HOURS = 10 * HOUR;
     private static final long HUNDRED_HOURS = 100 * HOUR;
 
+    /** The times at which the format of a time gains another digit. */
+    private static final long[] WIDTH_TRANSITIONS = { TEN_MINUTES, HOUR, TEN_HOURS, HUNDRED_HOURS };
+
     /** A single space preceded by a zero-width LRM; This groups adjacent chars left-to-right. */
     private static final String LRM_SPACE = "\u200E ";
 
@@ -54,11 +58,14 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
     private final LayoutInflater mInflater;
     private final Context mContext;
 
-    /** Used to determine when the time format for the lap time column has changed length. */
-    private int mLastFormattedLapTimeLength;
+    /** Used to determine when the time format for the lap time column has changed width. */
+    private int mLapTimeWidth = -1;
+
+    /** Used to determine when the time format for the total time column has changed width. */
+    private int mAccumulatedTimeWidth = -1;
 
-    /** Used to determine when the time format for the total time column has changed length. */
-    private int mLastFormattedAccumulatedTimeLength;
+    /** The formatted columns of each recorded lap, keyed by lap number. */
+    private final SparseArray<FormattedLap> mFormattedLaps = new SparseArray<>();
 
     LapsAdapter(Context context) {
         mContext = context;
@@ -86,28 +93,27 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
 
     @Override
     public void onBindViewHolder(LapItemHolder viewHolder, int position) {
-        final long lapTime;
-        final int lapNumber;
-        final long totalTime;
+        final int lapCount = getLaps().size() + 1;
 
         // Lap will be null for the current lap.
         final Lap lap = position == 0 ? null : getLaps().get(position - 1);
         if (lap != null) {
-            // For a recorded lap, merely extract the values to format.
-            lapTime = lap.getLapTime();
-            lapNumber = lap.getLapNumber();
-            totalTime = lap.getAccumulatedTime();
-        } else {
-            // For the current lap, compute times relative to the stopwatch.
-            totalTime = getStopwatch().getTotalTime();
-            lapTime = DataModel.getDataModel().getCurrentLapTime(totalTime);
-            lapNumber = getLaps().size() + 1;
+            // For a recorded lap, reuse its formatted columns if their formats are unchanged.
+            final FormattedLap formattedLap = getFormattedLap(lap);
+            viewHolder.lapTime.setText(formattedLap.getLapTime(this));
+            viewHolder.accumulatedTime.setText(formattedLap.getAccumulatedTime(this));
+            viewHolder.lapNumber.setText(formattedLap.getLapNumber(this, lapCount));
+            return;
         }
 
+        // For the current lap, compute times relative to the stopwatch.
+        final long totalTime = getStopwatch().getTotalTime();
+        final long lapTime = DataModel.getDataModel().getCurrentLapTime(totalTime);
+
         // Bind data into the child views.
-        viewHolder.lapTime.setText(formatLapTime(lapTime, true));
-        viewHolder.accumulatedTime.setText(formatAccumulatedTime(totalTime, true));
-        viewHolder.lapNumber.setText(formatLapNumber(getLaps().size() + 1, lapNumber));
+        viewHolder.lapTime.setText(formatLapTime(lapTime));
+        viewHolder.accumulatedTime.setText(formatAccumulatedTime(totalTime));
+        viewHolder.lapNumber.setText(formatLapNumber(lapCount, lapCount));
     }
 
     @Override
@@ -135,9 +141,20 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
             // Compute the lap time using the total time.
             final long lapTime = DataModel.getDataModel().getCurrentLapTime(totalTime);
 
+            // If either column has crossed a width transition, the format of every lap changes;
+            // otherwise only the current lap needs to be updated.
+            final long longestLapTime = DataModel.getDataModel().getLongestLapTime();
+            final int lapTimeWidth = getFormatWidth(Math.max(longestLapTime, lapTime));
+            final int accumulatedTimeWidth = getFormatWidth(totalTime);
+            if (lapTimeWidth != mLapTimeWidth || accumulatedTimeWidth != mAccumulatedTimeWidth) {
+                mLapTimeWidth = lapTimeWidth;
+                mAccumulatedTimeWidth = accumulatedTimeWidth;
+                notifyDataSetChanged();
+            }
+
             final LapItemHolder holder = (LapItemHolder) rv.getChildViewHolder(currentLapView);
-            holder.lapTime.setText(formatLapTime(lapTime, false));
-            holder.accumulatedTime.setText(formatAccumulatedTime(totalTime, false));
+            holder.lapTime.setText(formatLapTime(lapTime));
+            holder.accumulatedTime.setText(formatAccumulatedTime(totalTime));
         }
     }
 
@@ -167,9 +184,10 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
      * Remove all recorded laps and update this adapter.
      */
     void clearLaps() {
-        // Clear the computed time lengths related to the old recorded laps.
-        mLastFormattedLapTimeLength = 0;
-        mLastFormattedAccumulatedTimeLength = 0;
+        // Clear the computed time widths and formatted columns of the old recorded laps.
+        mLapTimeWidth = -1;
+        mAccumulatedTimeWidth = -1;
+        mFormattedLaps.clear();
 
         notifyDataSetChanged();
     }
@@ -182,14 +200,14 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
         final long totalTime = stopwatch.getTotalTime();
         final String stopwatchTime = formatTime(totalTime, totalTime, ":");
 
-        // Choose a size for the builder that is unlikely to be resized.
-        final StringBuilder builder = new StringBuilder(1000);
+        // Size the builder so that it is unlikely to be resized.
+        final List<Lap> laps = getLaps();
+        final StringBuilder builder = new StringBuilder(100 + 20 * laps.size());
 
         // Add the total elapsed time of the stopwatch.
         builder.append(mContext.getString(R.string.sw_share_main, stopwatchTime));
         builder.append("\n");
 
-        final List<Lap> laps = getLaps();
         if (!laps.isEmpty()) {
             // Add a header for lap times.
             builder.append(mContext.getString(R.string.sw_share_laps));
@@ -198,12 +216,7 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
             // Loop through the laps in the order they were recorded; reverse of display order.
             final String separator = DecimalFormatSymbols.getInstance().getDecimalSeparator() + " ";
             for (int i = laps.size() - 1; i >= 0; i--) {
-                final Lap lap = laps.get(i);
-                builder.append(lap.getLapNumber());
-                builder.append(separator);
-                final long lapTime = lap.getLapTime();
-                builder.append(formatTime(lapTime, lapTime, " "));
-                builder.append("\n");
+                builder.append(getFormattedLap(laps.get(i)).getShareText(separator));
             }
 
             // Append the final lap
@@ -258,76 +271,82 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
 
         final char decimalSeparator = DecimalFormatSymbols.getInstance().getDecimalSeparator();
 
+        final UiDataModel uidm = UiDataModel.getUiDataModel();
         sTimeBuilder.setLength(0);
 
         // The display of hours and minutes varies based on maxTime.
         if (maxTime < TEN_MINUTES) {
-            sTimeBuilder.append(UiDataModel.getUiDataModel().getFormattedNumber(minutes, 1));
+            uidm.appendFormattedNumber(sTimeBuilder, minutes, 1);
         } else if (maxTime < HOUR) {
-            sTimeBuilder.append(UiDataModel.getUiDataModel().getFormattedNumber(minutes, 2));
+            uidm.appendFormattedNumber(sTimeBuilder, minutes, 2);
         } else if (maxTime < TEN_HOURS) {
-            sTimeBuilder.append(UiDataModel.getUiDataModel().getFormattedNumber(hours, 1));
+            uidm.appendFormattedNumber(sTimeBuilder, hours, 1);
             sTimeBuilder.append(separator);
-            sTimeBuilder.append(UiDataModel.getUiDataModel().getFormattedNumber(minutes, 2));
+            uidm.appendFormattedNumber(sTimeBuilder, minutes, 2);
         } else if (maxTime < HUNDRED_HOURS) {
-            sTimeBuilder.append(UiDataModel.getUiDataModel().getFormattedNumber(hours, 2));
+            uidm.appendFormattedNumber(sTimeBuilder, hours, 2);
             sTimeBuilder.append(separator);
-            sTimeBuilder.append(UiDataModel.getUiDataModel().getFormattedNumber(minutes, 2));
+            uidm.appendFormattedNumber(sTimeBuilder, minutes, 2);
         } else {
-            sTimeBuilder.append(UiDataModel.getUiDataModel().getFormattedNumber(hours, 3));
+            uidm.appendFormattedNumber(sTimeBuilder, hours, 3);
             sTimeBuilder.append(separator);
-            sTimeBuilder.append(UiDataModel.getUiDataModel().getFormattedNumber(minutes, 2));
+            uidm.appendFormattedNumber(sTimeBuilder, minutes, 2);
         }
 
         // The display of seconds and hundredths-of-a-second is constant.
         sTimeBuilder.append(separator);
-        sTimeBuilder.append(UiDataModel.getUiDataModel().getFormattedNumber(seconds, 2));
+        uidm.appendFormattedNumber(sTimeBuilder, seconds, 2);
         sTimeBuilder.append(decimalSeparator);
-        sTimeBuilder.append(UiDataModel.getUiDataModel().getFormattedNumber(hundredths, 2));
+        uidm.appendFormattedNumber(sTimeBuilder, hundredths, 2);
 
         return sTimeBuilder.toString();
     }
 
+    /**
+     * @param maxTime the maximum amount of time; used to choose a time format
+     * @return the number of width transitions at or below {@code maxTime}; two times formatted
+     *      with the same width have the same format
+     */
+    @VisibleForTesting
+    static int getFormatWidth(long maxTime) {
+        int width = 0;
+        while (width < WIDTH_TRANSITIONS.length && maxTime >= WIDTH_TRANSITIONS[width]) {
+            width++;
+        }
+        return width;
+    }
+
     /**
      * @param lapTime the lap time to be formatted
-     * @param isBinding if the lap time is requested so it can be bound avoid notifying of data
-     *                  set changes; they are not allowed to occur during bind
      * @return a formatted version of the lap time
      */
-    private String formatLapTime(long lapTime, boolean isBinding) {
+    private String formatLapTime(long lapTime) {
         // The longest lap dictates the way the given lapTime must be formatted.
         final long longestLapTime = Math.max(DataModel.getDataModel().getLongestLapTime(), lapTime);
-        final String formattedTime = formatTime(longestLapTime, lapTime, LRM_SPACE);
-
-        // If the newly formatted lap time has altered the format, refresh all laps.
-        final int newLength = formattedTime.length();
-        if (!isBinding && mLastFormattedLapTimeLength != newLength) {
-            mLastFormattedLapTimeLength = newLength;
-            notifyDataSetChanged();
-        }
-
-        return formattedTime;
+        return formatTime(longestLapTime, lapTime, LRM_SPACE);
     }
 
     /**
      * @param accumulatedTime the accumulated time to be formatted
-     * @param isBinding if the lap time is requested so it can be bound avoid notifying of data
-     *                  set changes; they are not allowed to occur during bind
      * @return a formatted version of the accumulated time
      */
-    private String formatAccumulatedTime(long accumulatedTime, boolean isBinding) {
+    private String formatAccumulatedTime(long accumulatedTime) {
         final long totalTime = getStopwatch().getTotalTime();
         final long longestAccumulatedTime = Math.max(totalTime, accumulatedTime);
-        final String formattedTime = formatTime(longestAccumulatedTime, accumulatedTime, LRM_SPACE);
+        return formatTime(longestAccumulatedTime, accumulatedTime, LRM_SPACE);
+    }
 
-        // If the newly formatted accumulated time has altered the format, refresh all laps.
-        final int newLength = formattedTime.length();
-        if (!isBinding && mLastFormattedAccumulatedTimeLength != newLength) {
-            mLastFormattedAccumulatedTimeLength = newLength;
-            notifyDataSetChanged();
+    /**
+     * @return the cache of formatted columns for the recorded {@code lap}
+     */
+    private FormattedLap getFormattedLap(Lap lap) {
+        FormattedLap formattedLap = mFormattedLaps.get(lap.getLapNumber());
+        if (formattedLap == null || !formattedLap.isFormatOf(lap)) {
+            // Laps are renumbered from 1 if they were reset while this adapter was not told.
+            formattedLap = new FormattedLap(lap);
+            mFormattedLaps.put(lap.getLapNumber(), formattedLap);
         }
-
-        return formattedTime;
+        return formattedLap;
     }
 
     private Stopwatch getStopwatch() {
@@ -338,6 +357,77 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
         return DataModel.getDataModel().getLaps();
     }
 
+    /**
+     * Caches the formatted columns of a recorded lap. A recorded lap never changes, so each
+     * column only needs to be formatted again when the width of its format changes.
+     */
+    private static final class FormattedLap {
+
+        private final long mLapTime;
+        private final long mAccumulatedTime;
+        private final int mLapNumber;
+
+        private int mLapTimeWidth = -1;
+        private String mFormattedLapTime;
+
+        private int mAccumulatedTimeWidth = -1;
+        private String mFormattedAccumulatedTime;
+
+        private boolean mDoubleDigitLapNumber;
+        private String mFormattedLapNumber;
+
+        private String mShareTextSeparator;
+        private String mShareText;
+
+        private FormattedLap(Lap lap) {
+            mLapTime = lap.getLapTime();
+            mAccumulatedTime = lap.getAccumulatedTime();
+            mLapNumber = lap.getLapNumber();
+        }
+
+        private boolean isFormatOf(Lap lap) {
+            return mLapTime == lap.getLapTime() && mAccumulatedTime == lap.getAccumulatedTime();
+        }
+
+        private String getLapTime(LapsAdapter adapter) {
+            final long longestLapTime =
+                    Math.max(DataModel.getDataModel().getLongestLapTime(), mLapTime);
+            final int width = getFormatWidth(longestLapTime);
+            if (mLapTimeWidth != width) {
+                mLapTimeWidth = width;
+                mFormattedLapTime = adapter.formatLapTime(mLapTime);
+            }
+            return mFormattedLapTime;
+        }
+
+        private String getAccumulatedTime(LapsAdapter adapter) {
+            final long totalTime = adapter.getStopwatch().getTotalTime();
+            final int width = getFormatWidth(Math.max(totalTime, mAccumulatedTime));
+            if (mAccumulatedTimeWidth != width) {
+                mAccumulatedTimeWidth = width;
+                mFormattedAccumulatedTime = adapter.formatAccumulatedTime(mAccumulatedTime);
+            }
+            return mFormattedAccumulatedTime;
+        }
+
+        private String getLapNumber(LapsAdapter adapter, int lapCount) {
+            final boolean doubleDigit = lapCount >= 10;
+            if (mFormattedLapNumber == null || mDoubleDigitLapNumber != doubleDigit) {
+                mDoubleDigitLapNumber = doubleDigit;
+                mFormattedLapNumber = adapter.formatLapNumber(lapCount, mLapNumber);
+            }
+            return mFormattedLapNumber;
+        }
+
+        private String getShareText(String separator) {
+            if (mShareText == null || !separator.equals(mShareTextSeparator)) {
+                mShareTextSeparator = separator;
+                mShareText = mLapNumber + separator + formatTime(mLapTime, mLapTime, " ") + "\n";
+            }
+            return mShareText;
+        }
+    }
+
     /**
      * Cache the child views of each lap item view.
      */
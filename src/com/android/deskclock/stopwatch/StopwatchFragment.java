@@ -46,6 +46,7 @@ import com.android.deskclock.AnimatorUtils;
 import com.android.deskclock.DeskClockFragment;
 import com.android.deskclock.LogUtils;
 import com.android.deskclock.R;
+import com.android.deskclock.StartupTrace;
 import com.android.deskclock.StopwatchTextController;
 import com.android.deskclock.ThemeUtils;
 import com.android.deskclock.Utils;
@@ -120,51 +121,57 @@ public final class StopwatchFragment extends DeskClockFragment {
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle state) {
-        mLapsAdapter = new LapsAdapter(getActivity());
-        mLapsLayoutManager = new LinearLayoutManager(getActivity());
-        mGradientItemDecoration = new GradientItemDecoration(getActivity());
-
-        final View v = inflater.inflate(R.layout.stopwatch_fragment, container, false);
-        mTime = (StopwatchCircleView) v.findViewById(R.id.stopwatch_circle);
-        mLapsList = (RecyclerView) v.findViewById(R.id.laps_list);
-        ((SimpleItemAnimator) mLapsList.getItemAnimator()).setSupportsChangeAnimations(false);
-        mLapsList.setLayoutManager(mLapsLayoutManager);
-        mLapsList.addItemDecoration(mGradientItemDecoration);
-
-        // In landscape layouts, the laps list can reach the top of the screen and thus can cause
-        // a drop shadow to appear. The same is not true for portrait landscapes.
-        if (Utils.isLandscape(getActivity())) {
-            final ScrollPositionWatcher scrollPositionWatcher = new ScrollPositionWatcher();
-            mLapsList.addOnLayoutChangeListener(scrollPositionWatcher);
-            mLapsList.addOnScrollListener(scrollPositionWatcher);
-        } else {
-            setTabScrolledToTop(true);
-        }
-        mLapsList.setAdapter(mLapsAdapter);
-
-        // Timer text serves as a virtual start/stop button.
-        mMainTimeText = (TextView) v.findViewById(R.id.stopwatch_time_text);
-        mHundredthsTimeText = (TextView) v.findViewById(R.id.stopwatch_hundredths_text);
-        mStopwatchTextController = new StopwatchTextController(mMainTimeText, mHundredthsTimeText);
-        mStopwatchWrapper = v.findViewById(R.id.stopwatch_time_wrapper);
+        final long startNanos = StartupTrace.beginSection("StopwatchFragment.onCreateView");
+        try {
+            mLapsAdapter = new LapsAdapter(getActivity());
+            mLapsLayoutManager = new LinearLayoutManager(getActivity());
+            mGradientItemDecoration = new GradientItemDecoration(getActivity());
+
+            final View v = inflater.inflate(R.layout.stopwatch_fragment, container, false);
+            mTime = (StopwatchCircleView) v.findViewById(R.id.stopwatch_circle);
+            mLapsList = (RecyclerView) v.findViewById(R.id.laps_list);
+            ((SimpleItemAnimator) mLapsList.getItemAnimator()).setSupportsChangeAnimations(false);
+            mLapsList.setLayoutManager(mLapsLayoutManager);
+            mLapsList.addItemDecoration(mGradientItemDecoration);
+
+            // In landscape layouts, the laps list can reach the top of the screen and thus can
+            // cause a drop shadow to appear. The same is not true for portrait landscapes.
+            if (Utils.isLandscape(getActivity())) {
+                final ScrollPositionWatcher scrollPositionWatcher = new ScrollPositionWatcher();
+                mLapsList.addOnLayoutChangeListener(scrollPositionWatcher);
+                mLapsList.addOnScrollListener(scrollPositionWatcher);
+            } else {
+                setTabScrolledToTop(true);
+            }
+            mLapsList.setAdapter(mLapsAdapter);
 
-        DataModel.getDataModel().addStopwatchListener(mStopwatchWatcher);
+            // Timer text serves as a virtual start/stop button.
+            mMainTimeText = (TextView) v.findViewById(R.id.stopwatch_time_text);
+            mHundredthsTimeText = (TextView) v.findViewById(R.id.stopwatch_hundredths_text);
+            mStopwatchTextController =
+                    new StopwatchTextController(mMainTimeText, mHundredthsTimeText);
+            mStopwatchWrapper = v.findViewById(R.id.stopwatch_time_wrapper);
 
-        mStopwatchWrapper.setOnClickListener(new TimeClickListener());
-        if (mTime != null) {
-            mStopwatchWrapper.setOnTouchListener(new CircleTouchListener());
-        }
+            DataModel.getDataModel().addStopwatchListener(mStopwatchWatcher);
 
-        final Context c = mMainTimeText.getContext();
-        final int colorAccent = ThemeUtils.resolveColor(c, R.attr.colorAccent);
-        final int textColorPrimary = ThemeUtils.resolveColor(c, android.R.attr.textColorPrimary);
-        final ColorStateList timeTextColor = new ColorStateList(
-                new int[][] { { -state_activated, -state_pressed }, {} },
-                new int[] { textColorPrimary, colorAccent });
-        mMainTimeText.setTextColor(timeTextColor);
-        mHundredthsTimeText.setTextColor(timeTextColor);
+            mStopwatchWrapper.setOnClickListener(new TimeClickListener());
+            if (mTime != null) {
+                mStopwatchWrapper.setOnTouchListener(new CircleTouchListener());
+            }
 
-        return v;
+            final Context c = mMainTimeText.getContext();
+            final int colorAccent = ThemeUtils.resolveColor(c, R.attr.colorAccent);
+            final int textColorPrimary =
+                    ThemeUtils.resolveColor(c, android.R.attr.textColorPrimary);
+            final ColorStateList timeTextColor = new ColorStateList(
+                    new int[][] { { -state_activated, -state_pressed }, {} },
+                    new int[] { textColorPrimary, colorAccent });
+            mMainTimeText.setTextColor(timeTextColor);
+            mHundredthsTimeText.setTextColor(timeTextColor);
+            return v;
+        } finally {
+            StartupTrace.endSection("StopwatchFragment.onCreateView", startNanos);
+        }
     }
 
     @Override
@@ -20,6 +20,7 @@ import android.os.Bundle;
 import android.os.SystemClock;
 import androidx.annotation.NonNull;
 import android.text.TextUtils;
+import android.text.format.DateUtils;
 import android.transition.AutoTransition;
 import android.transition.TransitionManager;
 import android.view.Gravity;
@@ -249,20 +250,25 @@ public class ExpiredTimersActivity extends BaseActivity {
         public void run() {
             final long startTime = SystemClock.elapsedRealtime();
 
+            // Refresh at least once per second; sooner if the display of some timer changes.
+            long nextChange = DateUtils.SECOND_IN_MILLIS;
             final int count = mExpiredTimersView.getChildCount();
             for (int i = 0; i < count; ++i) {
                 final TimerItem timerItem = (TimerItem) mExpiredTimersView.getChildAt(i);
                 final Timer timer = DataModel.getDataModel().getTimer(timerItem.getId());
                 if (timer != null) {
-                    timerItem.update(timer);
+                    nextChange = Math.min(nextChange, timerItem.update(timer));
                 }
             }
 
             final long endTime = SystemClock.elapsedRealtime();
 
-            // Try to maintain a consistent period of time between redraws.
-            final long delay = Math.max(0L, startTime + 20L - endTime);
-            mExpiredTimersView.postDelayed(this, delay);
+            final long delay = Math.max(0L, startTime + nextChange - endTime);
+            if (delay == 0L) {
+                mExpiredTimersView.postOnAnimation(this);
+            } else {
+                mExpiredTimersView.postDelayed(this, delay);
+            }
         }
     }
 
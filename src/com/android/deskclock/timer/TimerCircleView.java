@@ -31,7 +31,9 @@ import com.android.deskclock.Utils;
 import com.android.deskclock.data.Timer;
 
 /**
- * Custom view that draws timer progress as a circle.
+ * Custom view that draws timer progress as a circle. It does not animate itself; the owner calls
+ * {@link #update} each time the timer may have progressed, and the circle is only redrawn when its
+ * progress has moved by at least a pixel along the circumference.
  */
 public final class TimerCircleView extends View {
 
@@ -56,6 +58,15 @@ public final class TimerCircleView extends View {
 
     private Timer mTimer;
 
+    /** The number of pixels along the circumference of the circle; 0 before layout. */
+    private int mProgressSteps;
+
+    /** The progress last drawn, measured in pixels along the circumference. */
+    private int mDrawnProgressStep = -1;
+
+    /** The state of the timer last drawn. */
+    private Timer.State mDrawnState;
+
     @SuppressWarnings("unused")
     public TimerCircleView(Context context) {
         this(context, null);
@@ -82,11 +93,45 @@ public final class TimerCircleView extends View {
         mFill.setStyle(Paint.Style.FILL);
     }
 
-    void update(Timer timer) {
-        if (mTimer != timer) {
-            mTimer = timer;
-            postInvalidateOnAnimation();
+    /**
+     * @param timer the latest state of the timer to draw
+     * @return the number of milliseconds until the progress of the circle next visibly moves;
+     *      {@link Long#MAX_VALUE} if it is not moving
+     */
+    long update(Timer timer) {
+        mTimer = timer;
+
+        final long totalLength = timer.getTotalLength();
+        final long elapsedTime = Math.min(totalLength, Math.max(0, timer.getElapsedTime()));
+        final int progressStep = mProgressSteps == 0 || totalLength <= 0
+                ? 0 : (int) (elapsedTime * mProgressSteps / totalLength);
+        if (progressStep != mDrawnProgressStep || timer.getState() != mDrawnState) {
+            mDrawnProgressStep = progressStep;
+            mDrawnState = timer.getState();
+            invalidate();
         }
+
+        if (!timer.isRunning()) {
+            return Long.MAX_VALUE;
+        }
+        if (mProgressSteps == 0 || totalLength <= 0) {
+            // Progress cannot be measured before layout; check again on the next frame.
+            return 0;
+        }
+
+        // Compute the elapsed time at which the progress reaches the next pixel.
+        final long nextStepTime = ((progressStep + 1) * totalLength + mProgressSteps - 1)
+                / mProgressSteps;
+        return Math.max(0, nextStepTime - elapsedTime);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+
+        final float radius = Math.min(w, h) / 2f - mRadiusOffset;
+        mProgressSteps = radius > 0 ? (int) Math.ceil(2 * Math.PI * radius) : 0;
+        mDrawnProgressStep = -1;
     }
 
     @Override
@@ -143,9 +188,5 @@ public final class TimerCircleView extends View {
         final float dotX = xCenter + (float) (radius * Math.cos(dotAngleRadians));
         final float dotY = yCenter + (float) (radius * Math.sin(dotAngleRadians));
         canvas.drawCircle(dotX, dotY, mDotRadius, mFill);
-
-        if (mTimer.isRunning()) {
-            postInvalidateOnAnimation();
-        }
     }
 }
@@ -41,6 +41,7 @@ import com.android.deskclock.AnimatorUtils;
 import com.android.deskclock.DeskClock;
 import com.android.deskclock.DeskClockFragment;
 import com.android.deskclock.R;
+import com.android.deskclock.StartupTrace;
 import com.android.deskclock.Utils;
 import com.android.deskclock.data.DataModel;
 import com.android.deskclock.data.Timer;
@@ -68,6 +69,9 @@ public final class TimerFragment extends DeskClockFragment {
 
     private static final String KEY_TIMER_SETUP_STATE = "timer_setup_input";
 
+    /** Updates due sooner than this are deferred to the next animation frame. */
+    private static final long FRAME_MILLIS = 16;
+
     /** Notified when the user swipes vertically to change the visible timer. */
     private final TimerPageChangeListener mTimerPageChangeListener = new TimerPageChangeListener();
 
@@ -104,32 +108,36 @@ public final class TimerFragment extends DeskClockFragment {
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container,
             Bundle savedInstanceState) {
-        final View view = inflater.inflate(R.layout.timer_fragment, container, false);
-
-        mAdapter = new TimerPagerAdapter(getFragmentManager());
-        mViewPager = (ViewPager) view.findViewById(R.id.vertical_view_pager);
-        mViewPager.setAdapter(mAdapter);
-        mViewPager.addOnPageChangeListener(mTimerPageChangeListener);
-
-        mTimersView = view.findViewById(R.id.timer_view);
-        mCreateTimerView = (TimerSetupView) view.findViewById(R.id.timer_setup);
-        mCreateTimerView.setFabContainer(this);
-        mPageIndicators = new ImageView[] {
-                (ImageView) view.findViewById(R.id.page_indicator0),
-                (ImageView) view.findViewById(R.id.page_indicator1),
-                (ImageView) view.findViewById(R.id.page_indicator2),
-                (ImageView) view.findViewById(R.id.page_indicator3)
-        };
-
-        DataModel.getDataModel().addTimerListener(mAdapter);
-        DataModel.getDataModel().addTimerListener(mTimerWatcher);
-
-        // If timer setup state is present, retrieve it to be later honored.
-        if (savedInstanceState != null) {
-            mTimerSetupState = savedInstanceState.getSerializable(KEY_TIMER_SETUP_STATE);
+        final long startNanos = StartupTrace.beginSection("TimerFragment.onCreateView");
+        try {
+            final View view = inflater.inflate(R.layout.timer_fragment, container, false);
+
+            mAdapter = new TimerPagerAdapter(getFragmentManager());
+            mViewPager = (ViewPager) view.findViewById(R.id.vertical_view_pager);
+            mViewPager.setAdapter(mAdapter);
+            mViewPager.addOnPageChangeListener(mTimerPageChangeListener);
+
+            mTimersView = view.findViewById(R.id.timer_view);
+            mCreateTimerView = (TimerSetupView) view.findViewById(R.id.timer_setup);
+            mCreateTimerView.setFabContainer(this);
+            mPageIndicators = new ImageView[] {
+                    (ImageView) view.findViewById(R.id.page_indicator0),
+                    (ImageView) view.findViewById(R.id.page_indicator1),
+                    (ImageView) view.findViewById(R.id.page_indicator2),
+                    (ImageView) view.findViewById(R.id.page_indicator3)
+            };
+
+            DataModel.getDataModel().addTimerListener(mAdapter);
+            DataModel.getDataModel().addTimerListener(mTimerWatcher);
+
+            // If timer setup state is present, retrieve it to be later honored.
+            if (savedInstanceState != null) {
+                mTimerSetupState = savedInstanceState.getSerializable(KEY_TIMER_SETUP_STATE);
+            }
+            return view;
+        } finally {
+            StartupTrace.endSection("TimerFragment.onCreateView", startNanos);
         }
-
-        return view;
     }
 
     @Override
@@ -697,21 +705,28 @@ public final class TimerFragment extends DeskClockFragment {
     }
 
     /**
-     * Periodically refreshes the state of each timer.
+     * Refreshes all timer pages together. Each run schedules the next one for when the display of
+     * some timer will next change: on the next frame while a circle is visibly progressing,
+     * otherwise when the earliest displayed second rolls over or a blinking timer toggles.
      */
     private class TimeUpdateRunnable implements Runnable {
         @Override
         public void run() {
             final long startTime = SystemClock.elapsedRealtime();
+            final long nextChange = mAdapter.updateTime();
+
             // If no timers require continuous updates, avoid scheduling the next update.
-            if (!mAdapter.updateTime()) {
+            if (nextChange == Long.MAX_VALUE) {
                 return;
             }
             final long endTime = SystemClock.elapsedRealtime();
 
-            // Try to maintain a consistent period of time between redraws.
-            final long delay = Math.max(0, startTime + 20 - endTime);
-            mTimersView.postDelayed(this, delay);
+            final long delay = Math.max(0, startTime + nextChange - endTime);
+            if (delay < FRAME_MILLIS) {
+                mTimersView.postOnAnimation(this);
+            } else {
+                mTimersView.postDelayed(this, delay);
+            }
         }
     }
 
@@ -761,7 +776,7 @@ public final class TimerFragment extends DeskClockFragment {
             }
 
             // Fetch the index of the change.
-            final int index = DataModel.getDataModel().getTimers().indexOf(after);
+            final int index = mAdapter.getPosition(after);
 
             // If the timer just expired but is not displayed, display it now.
             if (!before.isExpired() && after.isExpired() && index != mViewPager.getCurrentItem()) {
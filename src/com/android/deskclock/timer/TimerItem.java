@@ -85,10 +85,22 @@ public class TimerItem extends LinearLayout {
 
     /**
      * Updates this view to display the latest state of the {@code timer}.
+     *
+     * @return the number of milliseconds until the display of the {@code timer} next changes;
+     *      {@link Long#MAX_VALUE} if it only changes when the timer itself changes
      */
-    void update(Timer timer) {
+    long update(Timer timer) {
+        long nextChange = Long.MAX_VALUE;
+
         // Update the time.
-        mTimerTextController.setTimeString(timer.getRemainingTime());
+        final long remainingTime = timer.getRemainingTime();
+        mTimerTextController.setTimeString(remainingTime);
+
+        // The displayed time changes whenever the remaining time crosses a whole second.
+        if (timer.isRunning() || timer.isExpired() || timer.isMissed()) {
+            final long untilNextSecond = ((remainingTime % 1000) + 1000) % 1000;
+            nextChange = untilNextSecond == 0 ? 1000 : untilNextSecond;
+        }
 
         // Update the label if it changed.
         final String label = timer.getLabel();
@@ -97,14 +109,18 @@ public class TimerItem extends LinearLayout {
         }
 
         // Update visibility of things that may blink.
-        final boolean blinkOff = SystemClock.elapsedRealtime() % 1000 < 500;
+        final long now = SystemClock.elapsedRealtime();
+        final boolean blinkOff = now % 1000 < 500;
+        if (timer.isExpired() || timer.isMissed() || timer.isPaused()) {
+            nextChange = Math.min(nextChange, 500 - now % 500);
+        }
         if (mCircleView != null) {
             final boolean hideCircle = (timer.isExpired() || timer.isMissed()) && blinkOff;
             mCircleView.setVisibility(hideCircle ? INVISIBLE : VISIBLE);
 
             if (!hideCircle) {
                 // Update the progress of the circle.
-                mCircleView.update(timer);
+                nextChange = Math.min(nextChange, mCircleView.update(timer));
             }
         }
         if (!timer.isPaused() || !blinkOff || mTimerText.isPressed()) {
@@ -152,5 +168,7 @@ public class TimerItem extends LinearLayout {
                 }
             }
         }
+
+        return nextChange;
     }
 }
@@ -71,17 +71,16 @@ public class TimerItemFragment extends Fragment {
     }
 
     /**
-     * @return {@code true} iff the timer is in a state that requires continuous updates
+     * @return the number of milliseconds until the display of the timer next changes;
+     *      {@link Long#MAX_VALUE} if it requires no further updates
      */
-    boolean updateTime() {
+    long updateTime() {
         final TimerItem view = (TimerItem) getView();
         if (view != null) {
-            final Timer timer = getTimer();
-            view.update(timer);
-            return !timer.isReset();
+            return view.update(getTimer());
         }
 
-        return false;
+        return Long.MAX_VALUE;
     }
 
     int getTimerId() {
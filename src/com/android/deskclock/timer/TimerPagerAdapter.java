@@ -23,6 +23,7 @@ import android.app.FragmentTransaction;
 import androidx.legacy.app.FragmentCompat;
 import androidx.viewpager.widget.PagerAdapter;
 import android.util.ArrayMap;
+import android.util.SparseIntArray;
 import android.view.View;
 import android.view.ViewGroup;
 
@@ -34,7 +35,10 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * This adapter produces a {@link TimerItemFragment} for each timer.
+ * This adapter produces a {@link TimerItemFragment} for each timer. Pages are identified by timer
+ * id, so adding or removing a timer only moves the pages that follow it; the pages of all other
+ * timers are kept. Pages scrolled out of the {@link androidx.viewpager.widget.ViewPager}'s
+ * offscreen limit are detached, releasing their views, and reattached when they return.
  */
 class TimerPagerAdapter extends PagerAdapter implements TimerListener {
 
@@ -43,6 +47,12 @@ class TimerPagerAdapter extends PagerAdapter implements TimerListener {
     /** Maps each timer id to the corresponding {@link TimerItemFragment} that draws it. */
     private final Map<Integer, TimerItemFragment> mFragments = new ArrayMap<>();
 
+    /** Maps each timer id to its position; rebuilt after timers are added or removed. */
+    private final SparseIntArray mPositions = new SparseIntArray();
+
+    /** {@code true} when {@link #mPositions} reflects the current timers. */
+    private boolean mPositionsValid;
+
     /** The current fragment transaction in play or {@code null}. */
     private FragmentTransaction mCurrentTransaction;
 
@@ -66,9 +76,7 @@ class TimerPagerAdapter extends PagerAdapter implements TimerListener {
     @Override
     public int getItemPosition(Object object) {
         final TimerItemFragment fragment = (TimerItemFragment) object;
-        final Timer timer = fragment.getTimer();
-
-        final int position = getTimers().indexOf(timer);
+        final int position = getPosition(fragment.getTimerId());
         return position == -1 ? POSITION_NONE : position;
     }
 
@@ -82,7 +90,7 @@ class TimerPagerAdapter extends PagerAdapter implements TimerListener {
         final Timer timer = getTimers().get(position);
 
         // Search for the existing fragment by tag.
-        final String tag = getClass().getSimpleName() + timer.getId();
+        final String tag = getTag(timer.getId());
         TimerItemFragment fragment = (TimerItemFragment) mFragmentManager.findFragmentByTag(tag);
 
         if (fragment != null) {
@@ -112,8 +120,16 @@ class TimerPagerAdapter extends PagerAdapter implements TimerListener {
             mCurrentTransaction = mFragmentManager.beginTransaction();
         }
 
-        mFragments.remove(fragment.getTimerId());
-        mCurrentTransaction.remove(fragment);
+        final int timerId = fragment.getTimerId();
+        mFragments.remove(timerId);
+
+        if (getPosition(timerId) == -1) {
+            // The timer was deleted so its fragment is no longer needed.
+            mCurrentTransaction.remove(fragment);
+        } else {
+            // The page left the offscreen limit; keep the fragment to reattach it later.
+            mCurrentTransaction.detach(fragment);
+        }
     }
 
     @Override
@@ -143,12 +159,21 @@ class TimerPagerAdapter extends PagerAdapter implements TimerListener {
 
     @Override
     public void timerAdded(Timer timer) {
+        mPositionsValid = false;
         notifyDataSetChanged();
     }
 
     @Override
+    @SuppressLint("CommitTransaction")
     public void timerRemoved(Timer timer) {
+        mPositionsValid = false;
         notifyDataSetChanged();
+
+        // A page outside the offscreen limit is detached rather than destroyed; remove it now.
+        final Fragment detached = mFragmentManager.findFragmentByTag(getTag(timer.getId()));
+        if (detached != null && !mFragments.containsKey(timer.getId())) {
+            mFragmentManager.beginTransaction().remove(detached).commitAllowingStateLoss();
+        }
     }
 
     @Override
@@ -160,20 +185,46 @@ class TimerPagerAdapter extends PagerAdapter implements TimerListener {
     }
 
     /**
-     * @return {@code true} if at least one timer is in a state requiring continuous updates
+     * Updates every timer page that currently has a view.
+     *
+     * @return the number of milliseconds until the display of any page next changes;
+     *      {@link Long#MAX_VALUE} if no page requires further updates
      */
-    boolean updateTime() {
-        boolean continuousUpdates = false;
+    long updateTime() {
+        long nextChange = Long.MAX_VALUE;
         for (TimerItemFragment fragment : mFragments.values()) {
-            continuousUpdates |= fragment.updateTime();
+            nextChange = Math.min(nextChange, fragment.updateTime());
         }
-        return continuousUpdates;
+        return nextChange;
     }
 
     Timer getTimer(int index) {
         return getTimers().get(index);
     }
 
+    /**
+     * @return the position of the page that displays the {@code timer}; {@code -1} if none
+     */
+    int getPosition(Timer timer) {
+        return getPosition(timer.getId());
+    }
+
+    private int getPosition(int timerId) {
+        if (!mPositionsValid) {
+            final List<Timer> timers = getTimers();
+            mPositions.clear();
+            for (int i = 0; i < timers.size(); i++) {
+                mPositions.append(timers.get(i).getId(), i);
+            }
+            mPositionsValid = true;
+        }
+        return mPositions.get(timerId, -1);
+    }
+
+    private String getTag(int timerId) {
+        return getClass().getSimpleName() + timerId;
+    }
+
     private List<Timer> getTimers() {
         return DataModel.getDataModel().getTimers();
     }
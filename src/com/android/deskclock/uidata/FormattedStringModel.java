@@ -21,9 +21,12 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.util.ArrayMap;
-import android.util.SparseArray;
 
+import com.android.deskclock.R;
+
+import java.text.DecimalFormatSymbols;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.Locale;
@@ -40,12 +43,41 @@ final class FormattedStringModel {
     @SuppressWarnings("FieldCanBeLocal")
     private final BroadcastReceiver mLocaleChangedReceiver = new LocaleChangedReceiver();
 
+    /** The minus sign displayed before negative numbers. */
+    private static final char MINUS_SIGN = '\u2212';
+
+    /** The longest padded length for which formatted Strings are cached. */
+    private static final int MAX_CACHED_LENGTH = 3;
+
+    /** Values smaller than this are cached for each padded length up to the maximum. */
+    private static final int MAX_CACHED_VALUE = 100;
+
+    /** The localized digits '0' through '9' in the current locale; built on first use. */
+    private char[] mDigits;
+
     /**
      * Caches formatted numbers in the current locale padded with zeroes to requested lengths.
-     * The first level of the cache maps length to the second level of the cache.
-     * The second level of the cache maps an integer to a formatted String in the current locale.
+     * The table is indexed by sign, then padded length, then value and is fixed in size so memory
+     * stays bounded regardless of the lengths or values requested. Values that fall outside the
+     * table are composed from the localized digits each time they are requested.
      */
-    private final SparseArray<SparseArray<String>> mNumberFormatCache = new SparseArray<>(3);
+    private final String[][][] mNumberFormatCache =
+            new String[2][MAX_CACHED_LENGTH + 1][MAX_CACHED_VALUE];
+
+    /** A reusable buffer into which uncached numbers are composed before becoming Strings. */
+    private final StringBuilder mNumberBuilder = new StringBuilder(11);
+
+    /** The localized formats of times, indexed by their number of fields less one. */
+    private static final int[] TIME_FORMATS =
+            {R.string.seconds, R.string.minutes_seconds, R.string.hours_minutes_seconds};
+
+    /** The parsed form of each of the {@link #TIME_FORMATS}; each is parsed on first use. */
+    private final TimeTemplate[] mTimeTemplates = new TimeTemplate[TIME_FORMATS.length];
+
+    /** A reusable array holding the values of the fields of the time being formatted. */
+    private final int[] mTimeFields = new int[TIME_FORMATS.length];
+
+    private final Context mContext;
 
     /** Single-character version of weekday names; e.g.: 'S', 'M', 'T', 'W', 'T', 'F', 'S' */
     private Map<Integer, String> mShortWeekdayNames;
@@ -54,6 +86,8 @@ final class FormattedStringModel {
     private Map<Integer, String> mLongWeekdayNames;
 
     FormattedStringModel(Context context) {
+        mContext = context;
+
         // Clear caches affected by locale when locale changes.
         final IntentFilter localeBroadcastFilter = new IntentFilter(Intent.ACTION_LOCALE_CHANGED);
         context.registerReceiver(mLocaleChangedReceiver, localeBroadcastFilter);
@@ -107,23 +141,135 @@ final class FormattedStringModel {
             throw new IllegalArgumentException("value may not be negative: " + value);
         }
 
-        // Look up the value cache using the length; -ve and +ve values are cached separately.
-        final int lengthCacheKey = negative ? -length : length;
-        SparseArray<String> valueCache = mNumberFormatCache.get(lengthCacheKey);
-        if (valueCache == null) {
-            valueCache = new SparseArray<>((int) Math.pow(10, length));
-            mNumberFormatCache.put(lengthCacheKey, valueCache);
+        // Look up the formatted value in the fixed-size cache when possible.
+        final boolean cacheable = length <= MAX_CACHED_LENGTH && value < MAX_CACHED_VALUE;
+        if (cacheable) {
+            final String[] valueCache = mNumberFormatCache[negative ? 1 : 0][Math.max(length, 0)];
+            String formatted = valueCache[value];
+            if (formatted == null) {
+                mNumberBuilder.setLength(0);
+                appendFormattedNumber(mNumberBuilder, negative, value, length);
+                formatted = mNumberBuilder.toString();
+                valueCache[value] = formatted;
+            }
+            return formatted;
         }
 
-        // Look up the cached formatted value using the value.
-        String formatted = valueCache.get(value);
-        if (formatted == null) {
-            final String sign = negative ? "−" : "";
-            formatted = String.format(Locale.getDefault(), sign + "%0" + length + "d", value);
-            valueCache.put(value, formatted);
+        mNumberBuilder.setLength(0);
+        appendFormattedNumber(mNumberBuilder, negative, value, length);
+        return mNumberBuilder.toString();
+    }
+
+    /**
+     * Appends the formatted number to the given {@code builder} without allocating intermediate
+     * Strings. This is intended for callers composing text in a hotspot, such as the update loop
+     * of a timer or stopwatch, into a builder they reuse.
+     *
+     * @param builder the destination of the formatted number
+     * @param negative force a minus sign (-) onto the display, even if {@code value} is {@code 0}
+     * @param value a positive integer to format
+     * @param length the minimum number of digits; zeroes are padded to match this length
+     * @return the given {@code builder}
+     * @throws IllegalArgumentException if {@code value} is negative
+     */
+    StringBuilder appendFormattedNumber(StringBuilder builder, boolean negative, int value,
+            int length) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value may not be negative: " + value);
+        }
+
+        final char[] digits = getDigits();
+        if (negative) {
+            builder.append(MINUS_SIGN);
+        }
+
+        // Pad with the localized zero digit up to the requested length.
+        final int digitCount = value == 0 ? 1 : ((int) Math.log10(value) + 1);
+        for (int i = digitCount; i < length; i++) {
+            builder.append(digits[0]);
         }
 
-        return formatted;
+        // Append the digits from most significant to least significant.
+        for (int divisor = pow10(digitCount - 1); divisor > 0; divisor /= 10) {
+            builder.append(digits[(value / divisor) % 10]);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Appends the time, formatted by the localized format for the most significant non-zero
+     * field, to the given {@code builder}. The format is parsed once per locale and its fields are
+     * composed from the localized digits, so no intermediate Strings are formatted.
+     *
+     * @param builder the destination of the formatted time
+     * @param hours the hours to display, if any
+     * @param minutes the minutes to display, if any
+     * @param seconds the seconds to display
+     * @return the given {@code builder}
+     */
+    StringBuilder appendFormattedTime(StringBuilder builder, int hours, int minutes,
+            int seconds) {
+        final int fieldCount;
+        if (hours != 0) {
+            fieldCount = 3;
+            mTimeFields[0] = hours;
+            mTimeFields[1] = minutes;
+            mTimeFields[2] = seconds;
+        } else if (minutes != 0) {
+            fieldCount = 2;
+            mTimeFields[0] = minutes;
+            mTimeFields[1] = seconds;
+        } else {
+            fieldCount = 1;
+            mTimeFields[0] = seconds;
+        }
+
+        final int index = fieldCount - 1;
+        TimeTemplate template = mTimeTemplates[index];
+        if (template == null) {
+            template = TimeTemplate.parse(mContext.getString(TIME_FORMATS[index]), fieldCount);
+            mTimeTemplates[index] = template;
+        }
+
+        if (template.isComposable()) {
+            return template.append(this, builder, mTimeFields);
+        }
+
+        // The localized format uses conversions that cannot be composed digit by digit.
+        switch (fieldCount) {
+            case 3:
+                return builder.append(mContext.getString(TIME_FORMATS[index], hours, minutes,
+                        seconds));
+            case 2:
+                return builder.append(mContext.getString(TIME_FORMATS[index], minutes, seconds));
+            default:
+                return builder.append(mContext.getString(TIME_FORMATS[index], seconds));
+        }
+    }
+
+    /**
+     * @return the localized digits '0' through '9' in the current locale
+     */
+    private char[] getDigits() {
+        if (mDigits == null) {
+            final char zero = DecimalFormatSymbols.getInstance(Locale.getDefault()).getZeroDigit();
+            final char[] digits = new char[10];
+            for (int i = 0; i < digits.length; i++) {
+                digits[i] = (char) (zero + i);
+            }
+            mDigits = digits;
+        }
+
+        return mDigits;
+    }
+
+    private static int pow10(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
     }
 
     /**
@@ -189,9 +335,138 @@ final class FormattedStringModel {
     private final class LocaleChangedReceiver extends BroadcastReceiver {
         @Override
         public void onReceive(Context context, Intent intent) {
-            mNumberFormatCache.clear();
+            mDigits = null;
+            Arrays.fill(mTimeTemplates, null);
+            for (String[][] lengthCache : mNumberFormatCache) {
+                for (String[] valueCache : lengthCache) {
+                    Arrays.fill(valueCache, null);
+                }
+            }
             mShortWeekdayNames = null;
             mLongWeekdayNames = null;
         }
     }
+
+    /**
+     * A localized time format split into its literal text and the integer fields between them.
+     * Only the {@code %d} conversion, optionally with an explicit argument index and zero padding,
+     * is composable; a format using anything else is flagged so it can be formatted normally.
+     */
+    private static final class TimeTemplate {
+
+        /** The literal text preceding each field, followed by the text after the last field. */
+        private final String[] mLiterals;
+
+        /** The index of the argument displayed by each field. */
+        private final int[] mArgumentIndexes;
+
+        /** The minimum number of digits displayed by each field. */
+        private final int[] mWidths;
+
+        private TimeTemplate(String[] literals, int[] argumentIndexes, int[] widths) {
+            mLiterals = literals;
+            mArgumentIndexes = argumentIndexes;
+            mWidths = widths;
+        }
+
+        /**
+         * @return {@code true} iff the time can be composed from this template's parts
+         */
+        private boolean isComposable() {
+            return mLiterals != null;
+        }
+
+        private StringBuilder append(FormattedStringModel model, StringBuilder builder,
+                int[] arguments) {
+            for (int i = 0; i < mArgumentIndexes.length; i++) {
+                builder.append(mLiterals[i]);
+                model.appendFormattedNumber(builder, false, arguments[mArgumentIndexes[i]],
+                        mWidths[i]);
+            }
+            return builder.append(mLiterals[mArgumentIndexes.length]);
+        }
+
+        /**
+         * @param format a format string as accepted by {@link String#format}
+         * @param argumentCount the number of arguments the format is given
+         * @return the parsed template; it is not composable if the format could not be parsed
+         */
+        private static TimeTemplate parse(String format, int argumentCount) {
+            final int length = format.length();
+            final String[] literals = new String[argumentCount + 1];
+            final int[] argumentIndexes = new int[argumentCount];
+            final int[] widths = new int[argumentCount];
+            final TimeTemplate notComposable = new TimeTemplate(null, null, null);
+
+            final StringBuilder literal = new StringBuilder();
+            int fieldCount = 0;
+            int nextArgumentIndex = 0;
+            int i = 0;
+            while (i < length) {
+                final char c = format.charAt(i++);
+                if (c != '%') {
+                    literal.append(c);
+                    continue;
+                }
+                if (i < length && format.charAt(i) == '%') {
+                    literal.append('%');
+                    i++;
+                    continue;
+                }
+                if (fieldCount == argumentCount) {
+                    return notComposable;
+                }
+
+                // Parse the optional explicit argument index: %n$d
+                int end = skipDigits(format, i);
+                final int argumentIndex;
+                if (end > i && end < length && format.charAt(end) == '$') {
+                    argumentIndex = Integer.parseInt(format.substring(i, end)) - 1;
+                    i = end + 1;
+                } else {
+                    argumentIndex = nextArgumentIndex++;
+                }
+
+                // Parse the optional zero padding: %0nd
+                int width = 0;
+                if (i < length && format.charAt(i) == '0') {
+                    end = skipDigits(format, i + 1);
+                    if (end == i + 1) {
+                        return notComposable;
+                    }
+                    width = Integer.parseInt(format.substring(i + 1, end));
+                    i = end;
+                }
+
+                if (i >= length || format.charAt(i) != 'd'
+                        || argumentIndex < 0 || argumentIndex >= argumentCount) {
+                    return notComposable;
+                }
+                i++;
+
+                literals[fieldCount] = literal.toString();
+                argumentIndexes[fieldCount] = argumentIndex;
+                widths[fieldCount] = width;
+                fieldCount++;
+                literal.setLength(0);
+            }
+
+            if (fieldCount != argumentCount) {
+                return notComposable;
+            }
+            literals[fieldCount] = literal.toString();
+            return new TimeTemplate(literals, argumentIndexes, widths);
+        }
+
+        /**
+         * @return the index of the first character at or after {@code start} that is not a digit
+         */
+        private static int skipDigits(String format, int start) {
+            int i = start;
+            while (i < format.length() && Character.isDigit(format.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+    }
 }
\ No newline at end of file
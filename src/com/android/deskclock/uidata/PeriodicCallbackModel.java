@@ -21,10 +21,13 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.os.Handler;
+import android.os.SystemClock;
 import androidx.annotation.VisibleForTesting;
 
 import com.android.deskclock.LogUtils;
+import com.android.deskclock.data.DataModel;
 
+import java.io.PrintWriter;
 import java.util.Calendar;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -34,6 +37,7 @@ import static android.content.Intent.ACTION_TIMEZONE_CHANGED;
 import static android.content.Intent.ACTION_TIME_CHANGED;
 import static android.text.format.DateUtils.HOUR_IN_MILLIS;
 import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
+import static android.text.format.DateUtils.SECOND_IN_MILLIS;
 import static com.android.deskclock.Utils.enforceMainLooper;
 import static java.util.Calendar.DATE;
 import static java.util.Calendar.HOUR_OF_DAY;
@@ -43,14 +47,16 @@ import static java.util.Calendar.SECOND;
 
 /**
  * All callbacks to be delivered at requested times on the main thread if the application is in the
- * foreground when the callback time passes.
+ * foreground when the callback time passes. A single tick is scheduled on the main thread for the
+ * earliest requested callback time; every callback that is due when it fires is executed together
+ * so subscribers sharing a boundary also share a wakeup.
  */
 final class PeriodicCallbackModel {
 
     private static final LogUtils.Logger LOGGER = new LogUtils.Logger("Periodic");
 
     @VisibleForTesting
-    enum Period {MINUTE, QUARTER_HOUR, HOUR, MIDNIGHT}
+    enum Period {SECOND, MINUTE, QUARTER_HOUR, HOUR, MIDNIGHT}
 
     private static final long QUARTER_HOUR_IN_MILLIS = 15 * MINUTE_IN_MILLIS;
 
@@ -62,6 +68,15 @@ final class PeriodicCallbackModel {
 
     private final List<PeriodicRunnable> mPeriodicRunnables = new CopyOnWriteArrayList<>();
 
+    /** The single runnable that wakes the main thread to execute all due callbacks. */
+    private final Runnable mTick = new TickRunnable();
+
+    /** The wall clock time at which {@link #mTick} is scheduled to run; MAX_VALUE if idle. */
+    private long mNextTickTime = Long.MAX_VALUE;
+
+    /** The number of times {@link #mTick} has woken the main thread. */
+    private int mWakeupCount;
+
     PeriodicCallbackModel(Context context) {
         // Reschedules callbacks when the device time changes.
         final IntentFilter timeChangedBroadcastFilter = new IntentFilter();
@@ -71,6 +86,14 @@ final class PeriodicCallbackModel {
         context.registerReceiver(mTimeChangedReceiver, timeChangedBroadcastFilter);
     }
 
+    /**
+     * @param runnable to be called every second
+     * @param offset an offset applied to the second to control when the callback occurs
+     */
+    void addSecondCallback(Runnable runnable, long offset) {
+        addPeriodicCallback(runnable, Period.SECOND, offset);
+    }
+
     /**
      * @param runnable to be called every minute
      * @param offset an offset applied to the minute to control when the callback occurs
@@ -108,21 +131,100 @@ final class PeriodicCallbackModel {
      */
     private void addPeriodicCallback(Runnable runnable, Period period, long offset) {
         final PeriodicRunnable periodicRunnable = new PeriodicRunnable(runnable, period, offset);
+        periodicRunnable.schedule(now());
         mPeriodicRunnables.add(periodicRunnable);
-        periodicRunnable.schedule();
+        scheduleTick();
     }
 
     /**
      * @param runnable to no longer be called periodically
      */
     void removePeriodicCallback(Runnable runnable) {
+        final PeriodicRunnable periodicRunnable = findPeriodicRunnable(runnable);
+        if (periodicRunnable != null) {
+            periodicRunnable.mRemoved = true;
+            mPeriodicRunnables.remove(periodicRunnable);
+            scheduleTick();
+        }
+    }
+
+    /**
+     * Suspended callbacks are skipped and do not cause the main thread to wake. When a callback
+     * resumes it is executed immediately if one of its periods ended while it was suspended.
+     *
+     * @param runnable a periodic callback that was previously added
+     * @param suspended {@code true} to stop calling the {@code runnable} until it is resumed
+     */
+    void setPeriodicCallbackSuspended(Runnable runnable, boolean suspended) {
+        final PeriodicRunnable periodicRunnable = findPeriodicRunnable(runnable);
+        if (periodicRunnable == null || periodicRunnable.mSuspended == suspended) {
+            return;
+        }
+
+        periodicRunnable.mSuspended = suspended;
+        if (!suspended) {
+            final long now = now();
+            if (periodicRunnable.mNextTime <= now) {
+                LOGGER.v("Executing periodic callback for %s because it resumed", periodicRunnable);
+                periodicRunnable.execute();
+                periodicRunnable.schedule(now());
+            }
+        }
+        scheduleTick();
+    }
+
+    /**
+     * Writes the wakeup count and the cost of each periodic callback to the given {@code writer}.
+     */
+    void dump(PrintWriter writer) {
+        writer.printf("Periodic callbacks: %d wakeups%n", mWakeupCount);
+        for (PeriodicRunnable periodicRunnable : mPeriodicRunnables) {
+            writer.printf("  %s%s: %d calls, %.3f ms total, %.3f ms max%n", periodicRunnable,
+                    periodicRunnable.mSuspended ? " (suspended)" : "",
+                    periodicRunnable.mCallCount,
+                    periodicRunnable.mTotalNanos / 1e6, periodicRunnable.mMaxNanos / 1e6);
+        }
+    }
+
+    /**
+     * @return the current wall clock time from the clock shared by all models
+     */
+    private static long now() {
+        return DataModel.getDataModel().currentTimeMillis();
+    }
+
+    private PeriodicRunnable findPeriodicRunnable(Runnable runnable) {
         for (PeriodicRunnable periodicRunnable : mPeriodicRunnables) {
             if (periodicRunnable.mDelegate == runnable) {
-                periodicRunnable.unSchedule();
-                mPeriodicRunnables.remove(periodicRunnable);
-                return;
+                return periodicRunnable;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Schedules {@link #mTick} for the earliest callback time of all unsuspended callbacks. The
+     * existing schedule is left untouched if it is already correct.
+     */
+    private void scheduleTick() {
+        long nextTickTime = Long.MAX_VALUE;
+        for (PeriodicRunnable periodicRunnable : mPeriodicRunnables) {
+            if (!periodicRunnable.mSuspended) {
+                nextTickTime = Math.min(nextTickTime, periodicRunnable.mNextTime);
             }
         }
+
+        if (nextTickTime == mNextTickTime) {
+            return;
+        }
+
+        final Handler handler = getHandler();
+        handler.removeCallbacks(mTick);
+        mNextTickTime = nextTickTime;
+        if (nextTickTime != Long.MAX_VALUE) {
+            final long delay = Math.max(0, nextTickTime - now());
+            handler.postDelayed(mTick, delay);
+        }
     }
 
     /**
@@ -139,6 +241,11 @@ final class PeriodicCallbackModel {
         final long periodStart = now - offset;
 
         switch (period) {
+            case SECOND:
+                final long lastSecond = periodStart - (periodStart % SECOND_IN_MILLIS);
+                final long nextSecond = lastSecond + SECOND_IN_MILLIS;
+                return nextSecond - now + offset;
+
             case MINUTE:
                 final long lastMinute = periodStart - (periodStart % MINUTE_IN_MILLIS);
                 final long nextMinute = lastMinute + MINUTE_IN_MILLIS;
@@ -155,7 +262,7 @@ final class PeriodicCallbackModel {
                 return nextHour - now + offset;
 
             case MIDNIGHT:
-                final Calendar nextMidnight = Calendar.getInstance();
+                final Calendar nextMidnight = DataModel.getDataModel().getCalendar();
                 nextMidnight.setTimeInMillis(periodStart);
                 nextMidnight.add(DATE, 1);
                 nextMidnight.set(HOUR_OF_DAY, 0);
@@ -178,41 +285,74 @@ final class PeriodicCallbackModel {
     }
 
     /**
-     * Schedules the execution of the given delegate Runnable at the next callback time.
+     * Executes every unsuspended callback whose time has arrived and then schedules the next tick.
      */
-    private static final class PeriodicRunnable implements Runnable {
+    private final class TickRunnable implements Runnable {
+        @Override
+        public void run() {
+            mWakeupCount++;
+            mNextTickTime = Long.MAX_VALUE;
+
+            final long now = now();
+            for (PeriodicRunnable periodicRunnable : mPeriodicRunnables) {
+                if (!periodicRunnable.mSuspended && !periodicRunnable.mRemoved
+                        && periodicRunnable.mNextTime <= now) {
+                    LOGGER.v("Executing periodic callback for %s because the period ended",
+                            periodicRunnable);
+                    periodicRunnable.execute();
+                    periodicRunnable.schedule(now);
+                }
+            }
+
+            scheduleTick();
+        }
+    }
+
+    /**
+     * Tracks the next callback time and the cost of executing the given delegate Runnable.
+     */
+    private static final class PeriodicRunnable {
 
         private final Runnable mDelegate;
         private final Period mPeriod;
         private final long mOffset;
 
+        /** The wall clock time at which the delegate should next be executed. */
+        private long mNextTime;
+
+        /** {@code true} while the delegate should not be executed. */
+        private boolean mSuspended;
+
+        /** {@code true} once the delegate has been removed; guards in-flight iteration. */
+        private boolean mRemoved;
+
+        private int mCallCount;
+        private long mTotalNanos;
+        private long mMaxNanos;
+
         public PeriodicRunnable(Runnable delegate, Period period, long offset) {
             mDelegate = delegate;
             mPeriod = period;
             mOffset = offset;
         }
 
-        @Override
-        public void run() {
-            LOGGER.i("Executing periodic callback for %s because the period ended", mPeriod);
+        private void execute() {
+            final long start = SystemClock.elapsedRealtimeNanos();
             mDelegate.run();
-            schedule();
-        }
+            final long elapsed = SystemClock.elapsedRealtimeNanos() - start;
 
-        private void runAndReschedule() {
-            LOGGER.i("Executing periodic callback for %s because the time changed", mPeriod);
-            unSchedule();
-            mDelegate.run();
-            schedule();
+            mCallCount++;
+            mTotalNanos += elapsed;
+            mMaxNanos = Math.max(mMaxNanos, elapsed);
         }
 
-        private void schedule() {
-            final long delay = getDelay(System.currentTimeMillis(), mPeriod, mOffset);
-            getHandler().postDelayed(this, delay);
+        private void schedule(long now) {
+            mNextTime = now + getDelay(now, mPeriod, mOffset);
         }
 
-        private void unSchedule() {
-            getHandler().removeCallbacks(this);
+        @Override
+        public String toString() {
+            return mPeriod + " " + mDelegate.getClass().getName();
         }
     }
 
@@ -222,9 +362,20 @@ final class PeriodicCallbackModel {
     private final class TimeChangedReceiver extends BroadcastReceiver {
         @Override
         public void onReceive(Context context, Intent intent) {
+            final long now = now();
             for (PeriodicRunnable periodicRunnable : mPeriodicRunnables) {
-                periodicRunnable.runAndReschedule();
+                if (periodicRunnable.mSuspended) {
+                    // Execute the callback as soon as it resumes.
+                    periodicRunnable.mNextTime = now;
+                } else {
+                    LOGGER.i("Executing periodic callback for %s because the time changed",
+                            periodicRunnable);
+                    periodicRunnable.execute();
+                    periodicRunnable.schedule(now());
+                }
             }
+
+            scheduleTick();
         }
     }
-}
\ No newline at end of file
+}
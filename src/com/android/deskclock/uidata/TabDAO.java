@@ -18,6 +18,8 @@ package com.android.deskclock.uidata;
 
 import android.content.SharedPreferences;
 
+import java.util.regex.Pattern;
+
 import static com.android.deskclock.uidata.UiDataModel.Tab;
 
 /**
@@ -28,6 +30,12 @@ final class TabDAO {
     /** Key to a preference that stores the ordinal of the selected tab. */
     private static final String KEY_SELECTED_TAB = "selected_tab";
 
+    /** The name of the preferences file that stores the selected tab. */
+    static final String PREFS_NAME = "tabs";
+
+    /** Matches the key of the preference that stores the selected tab. */
+    static final Pattern KEYS = Pattern.compile(KEY_SELECTED_TAB);
+
     private TabDAO() {}
 
     /**
@@ -16,9 +16,12 @@
 
 package com.android.deskclock.uidata;
 
+import android.content.Context;
 import android.content.SharedPreferences;
 import android.text.TextUtils;
 
+import com.android.deskclock.Utils;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -46,8 +49,8 @@ final class TabModel {
     /** An enumerated value indicating the currently selected tab. */
     private Tab mSelectedTab;
 
-    TabModel(SharedPreferences prefs) {
-        mPrefs = prefs;
+    TabModel(Context context, SharedPreferences prefs) {
+        mPrefs = Utils.getSharedPreferences(context, prefs, TabDAO.PREFS_NAME, TabDAO.KEYS);
         Arrays.fill(mTabScrolledToTop, true);
     }
 
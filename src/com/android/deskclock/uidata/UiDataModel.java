@@ -25,9 +25,11 @@ import androidx.annotation.StringRes;
 import com.android.deskclock.AlarmClockFragment;
 import com.android.deskclock.ClockFragment;
 import com.android.deskclock.R;
+import com.android.deskclock.StartupTrace;
 import com.android.deskclock.stopwatch.StopwatchFragment;
 import com.android.deskclock.timer.TimerFragment;
 
+import java.io.PrintWriter;
 import java.util.Calendar;
 
 import static com.android.deskclock.Utils.enforceMainLooper;
@@ -77,18 +79,23 @@ public final class UiDataModel {
     /** The model from which timed callbacks originate. */
     private PeriodicCallbackModel mPeriodicCallbackModel;
 
+    /** The shared preferences from which the selected tab is read. */
+    private SharedPreferences mPrefs;
+
     private UiDataModel() {}
 
     /**
-     * The context may be set precisely once during the application life.
+     * The context may be set precisely once during the application life. Each sub-model is
+     * constructed on first use.
      */
     public void init(Context context, SharedPreferences prefs) {
         if (mContext != context) {
             mContext = context.getApplicationContext();
+            mPrefs = prefs;
 
-            mPeriodicCallbackModel = new PeriodicCallbackModel(mContext);
-            mFormattedStringModel = new FormattedStringModel(mContext);
-            mTabModel = new TabModel(prefs);
+            mPeriodicCallbackModel = null;
+            mFormattedStringModel = null;
+            mTabModel = null;
         }
     }
 
@@ -116,7 +123,7 @@ public final class UiDataModel {
      */
     public String getFormattedNumber(int value) {
         enforceMainLooper();
-        return mFormattedStringModel.getFormattedNumber(value);
+        return getFormattedStringModel().getFormattedNumber(value);
     }
 
     /**
@@ -132,7 +139,7 @@ public final class UiDataModel {
      */
     public String getFormattedNumber(int value, int length) {
         enforceMainLooper();
-        return mFormattedStringModel.getFormattedNumber(value, length);
+        return getFormattedStringModel().getFormattedNumber(value, length);
     }
 
     /**
@@ -151,7 +158,39 @@ public final class UiDataModel {
      */
     public String getFormattedNumber(boolean negative, int value, int length) {
         enforceMainLooper();
-        return mFormattedStringModel.getFormattedNumber(negative, value, length);
+        return getFormattedStringModel().getFormattedNumber(negative, value, length);
+    }
+
+    /**
+     * Appends the formatted number to the given {@code builder} without allocating intermediate
+     * Strings. Callers that compose text in a hotspot, such as the update loop of a timer or
+     * stopwatch, should reuse a single builder across updates.
+     *
+     * @param builder the destination of the formatted number
+     * @param value a positive integer to format
+     * @param length the minimum number of digits; zeroes are padded to match this length
+     * @return the given {@code builder}
+     * @throws IllegalArgumentException if {@code value} is negative
+     */
+    public StringBuilder appendFormattedNumber(StringBuilder builder, int value, int length) {
+        enforceMainLooper();
+        return getFormattedStringModel().appendFormattedNumber(builder, false, value, length);
+    }
+
+    /**
+     * Appends the time in the localized format used by timers and the stopwatch, e.g. "1:02:03",
+     * "2:03" or "3", to the given {@code builder} without formatting intermediate Strings.
+     *
+     * @param builder the destination of the formatted time
+     * @param hours the hours to display, if any
+     * @param minutes the minutes to display, if any
+     * @param seconds the seconds to display
+     * @return the given {@code builder}
+     */
+    public StringBuilder appendFormattedTime(StringBuilder builder, int hours, int minutes,
+            int seconds) {
+        enforceMainLooper();
+        return getFormattedStringModel().appendFormattedTime(builder, hours, minutes, seconds);
     }
 
     /**
@@ -169,7 +208,7 @@ public final class UiDataModel {
      */
     public String getShortWeekday(int calendarDay) {
         enforceMainLooper();
-        return mFormattedStringModel.getShortWeekday(calendarDay);
+        return getFormattedStringModel().getShortWeekday(calendarDay);
     }
 
     /**
@@ -187,7 +226,7 @@ public final class UiDataModel {
      */
     public String getLongWeekday(int calendarDay) {
         enforceMainLooper();
-        return mFormattedStringModel.getLongWeekday(calendarDay);
+        return getFormattedStringModel().getLongWeekday(calendarDay);
     }
 
     //
@@ -219,7 +258,7 @@ public final class UiDataModel {
      */
     public void addTabListener(TabListener tabListener) {
         enforceMainLooper();
-        mTabModel.addTabListener(tabListener);
+        getTabModel().addTabListener(tabListener);
     }
 
     /**
@@ -227,7 +266,7 @@ public final class UiDataModel {
      */
     public void removeTabListener(TabListener tabListener) {
         enforceMainLooper();
-        mTabModel.removeTabListener(tabListener);
+        getTabModel().removeTabListener(tabListener);
     }
 
     /**
@@ -235,7 +274,7 @@ public final class UiDataModel {
      */
     public int getTabCount() {
         enforceMainLooper();
-        return mTabModel.getTabCount();
+        return getTabModel().getTabCount();
     }
 
     /**
@@ -244,7 +283,7 @@ public final class UiDataModel {
      */
     public Tab getTab(int ordinal) {
         enforceMainLooper();
-        return mTabModel.getTab(ordinal);
+        return getTabModel().getTab(ordinal);
     }
 
     /**
@@ -253,7 +292,7 @@ public final class UiDataModel {
      */
     public Tab getTabAt(int position) {
         enforceMainLooper();
-        return mTabModel.getTabAt(position);
+        return getTabModel().getTabAt(position);
     }
 
     /**
@@ -261,7 +300,7 @@ public final class UiDataModel {
      */
     public Tab getSelectedTab() {
         enforceMainLooper();
-        return mTabModel.getSelectedTab();
+        return getTabModel().getSelectedTab();
     }
 
     /**
@@ -269,7 +308,7 @@ public final class UiDataModel {
      */
     public void setSelectedTab(Tab tab) {
         enforceMainLooper();
-        mTabModel.setSelectedTab(tab);
+        getTabModel().setSelectedTab(tab);
     }
 
     /**
@@ -277,7 +316,7 @@ public final class UiDataModel {
      */
     public void addTabScrollListener(TabScrollListener tabScrollListener) {
         enforceMainLooper();
-        mTabModel.addTabScrollListener(tabScrollListener);
+        getTabModel().addTabScrollListener(tabScrollListener);
     }
 
     /**
@@ -285,7 +324,7 @@ public final class UiDataModel {
      */
     public void removeTabScrollListener(TabScrollListener tabScrollListener) {
         enforceMainLooper();
-        mTabModel.removeTabScrollListener(tabScrollListener);
+        getTabModel().removeTabScrollListener(tabScrollListener);
     }
 
     /**
@@ -296,7 +335,7 @@ public final class UiDataModel {
      */
     public void setTabScrolledToTop(Tab tab, boolean scrolledToTop) {
         enforceMainLooper();
-        mTabModel.setTabScrolledToTop(tab, scrolledToTop);
+        getTabModel().setTabScrolledToTop(tab, scrolledToTop);
     }
 
     /**
@@ -304,7 +343,7 @@ public final class UiDataModel {
      */
     public boolean isSelectedTabScrolledToTop() {
         enforceMainLooper();
-        return mTabModel.isTabScrolledToTop(getSelectedTab());
+        return getTabModel().isTabScrolledToTop(getSelectedTab());
     }
 
     //
@@ -327,13 +366,22 @@ public final class UiDataModel {
     // Timed Callbacks
     //
 
+    /**
+     * @param runnable to be called every second
+     * @param offset an offset applied to the second to control when the callback occurs
+     */
+    public void addSecondCallback(Runnable runnable, long offset) {
+        enforceMainLooper();
+        getPeriodicCallbackModel().addSecondCallback(runnable, offset);
+    }
+
     /**
      * @param runnable to be called every minute
      * @param offset an offset applied to the minute to control when the callback occurs
      */
     public void addMinuteCallback(Runnable runnable, long offset) {
         enforceMainLooper();
-        mPeriodicCallbackModel.addMinuteCallback(runnable, offset);
+        getPeriodicCallbackModel().addMinuteCallback(runnable, offset);
     }
 
     /**
@@ -342,7 +390,7 @@ public final class UiDataModel {
      */
     public void addQuarterHourCallback(Runnable runnable, long offset) {
         enforceMainLooper();
-        mPeriodicCallbackModel.addQuarterHourCallback(runnable, offset);
+        getPeriodicCallbackModel().addQuarterHourCallback(runnable, offset);
     }
 
     /**
@@ -351,7 +399,7 @@ public final class UiDataModel {
      */
     public void addHourCallback(Runnable runnable, long offset) {
         enforceMainLooper();
-        mPeriodicCallbackModel.addHourCallback(runnable, offset);
+        getPeriodicCallbackModel().addHourCallback(runnable, offset);
     }
 
     /**
@@ -360,7 +408,7 @@ public final class UiDataModel {
      */
     public void addMidnightCallback(Runnable runnable, long offset) {
         enforceMainLooper();
-        mPeriodicCallbackModel.addMidnightCallback(runnable, offset);
+        getPeriodicCallbackModel().addMidnightCallback(runnable, offset);
     }
 
     /**
@@ -368,6 +416,66 @@ public final class UiDataModel {
      */
     public void removePeriodicCallback(Runnable runnable) {
         enforceMainLooper();
-        mPeriodicCallbackModel.removePeriodicCallback(runnable);
+        getPeriodicCallbackModel().removePeriodicCallback(runnable);
+    }
+
+    /**
+     * Suspended callbacks are not called and do not wake the main thread. A resumed callback is
+     * called immediately if one of its periods ended while it was suspended.
+     *
+     * @param runnable a periodic callback that was previously added
+     * @param suspended {@code true} to stop calling the {@code runnable} until it is resumed
+     */
+    public void setPeriodicCallbackSuspended(Runnable runnable, boolean suspended) {
+        enforceMainLooper();
+        getPeriodicCallbackModel().setPeriodicCallbackSuspended(runnable, suspended);
+    }
+
+    /**
+     * @param writer receives the wakeup count and the cost of each periodic callback
+     */
+    public void dumpPeriodicCallbacks(PrintWriter writer) {
+        enforceMainLooper();
+        getPeriodicCallbackModel().dump(writer);
+    }
+
+    //
+    // Sub-models
+    //
+
+    private TabModel getTabModel() {
+        if (mTabModel == null) {
+            final long startNanos = StartupTrace.beginSection("TabModel");
+            try {
+                mTabModel = new TabModel(mContext, mPrefs);
+            } finally {
+                StartupTrace.endSection("TabModel", startNanos);
+            }
+        }
+        return mTabModel;
+    }
+
+    private FormattedStringModel getFormattedStringModel() {
+        if (mFormattedStringModel == null) {
+            final long startNanos = StartupTrace.beginSection("FormattedStringModel");
+            try {
+                mFormattedStringModel = new FormattedStringModel(mContext);
+            } finally {
+                StartupTrace.endSection("FormattedStringModel", startNanos);
+            }
+        }
+        return mFormattedStringModel;
+    }
+
+    private PeriodicCallbackModel getPeriodicCallbackModel() {
+        if (mPeriodicCallbackModel == null) {
+            final long startNanos = StartupTrace.beginSection("PeriodicCallbackModel");
+            try {
+                mPeriodicCallbackModel = new PeriodicCallbackModel(mContext);
+            } finally {
+                StartupTrace.endSection("PeriodicCallbackModel", startNanos);
+            }
+        }
+        return mPeriodicCallbackModel;
     }
 }
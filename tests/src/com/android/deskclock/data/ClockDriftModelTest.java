@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.TimeZone;
+
+import static android.text.format.DateUtils.HOUR_IN_MILLIS;
+import static android.text.format.DateUtils.SECOND_IN_MILLIS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class ClockDriftModelTest {
+
+    private VirtualClock mClock;
+    private long mLastStartTime;
+    private long mLastWallClockTime;
+
+    @Before
+    public void setUp() {
+        mClock = new VirtualClock(1_500_000_000_000L, 10 * HOUR_IN_MILLIS,
+                TimeZone.getTimeZone("UTC"));
+        mLastStartTime = mClock.elapsedRealtime();
+        mLastWallClockTime = mClock.currentTimeMillis();
+    }
+
+    @Test
+    public void measureDrift_clocksAdvanceTogether() {
+        mClock.advance(HOUR_IN_MILLIS);
+        assertEquals(0, measureDrift());
+    }
+
+    @Test
+    public void measureDrift_wallClockRunsAhead() {
+        mClock.advance(HOUR_IN_MILLIS);
+        mClock.setCurrentTimeMillis(mClock.currentTimeMillis() + 5 * SECOND_IN_MILLIS);
+        assertEquals(5 * SECOND_IN_MILLIS, measureDrift());
+    }
+
+    @Test
+    public void measureDrift_wallClockFallsBehind() {
+        mClock.advance(HOUR_IN_MILLIS);
+        mClock.setCurrentTimeMillis(mClock.currentTimeMillis() - 3 * SECOND_IN_MILLIS);
+        assertEquals(-3 * SECOND_IN_MILLIS, measureDrift());
+    }
+
+    @Test
+    public void measureDrift_ignoresTimesRecordedBeforeReboot() {
+        mClock.advance(HOUR_IN_MILLIS);
+        mClock.reboot(SECOND_IN_MILLIS);
+        assertEquals(0, measureDrift());
+    }
+
+    @Test
+    public void checkDrift_countsChecksWithoutBuiltModels() {
+        final TimeModel timeModel = new TimeModel(null);
+        timeModel.setClock(mClock);
+        try {
+            final ClockDriftModel model = new ClockDriftModel(timeModel);
+            model.checkDrift(null, null);
+            model.checkDrift(null, null);
+
+            final StringWriter dump = new StringWriter();
+            model.dump(new PrintWriter(dump));
+            assertTrue(dump.toString(), dump.toString().startsWith("Clock drift: 2 checks, 0 "));
+        } finally {
+            timeModel.setClock(null);
+        }
+    }
+
+    private long measureDrift() {
+        return ClockDriftModel.measureDrift(mClock.elapsedRealtime(), mClock.currentTimeMillis(),
+                mLastStartTime, mLastWallClockTime);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static android.text.format.DateUtils.HOUR_IN_MILLIS;
+import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Drives the {@link DataModel} through a day boundary with a {@link VirtualClock}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class VirtualClockTest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final DataModel mDataModel = DataModel.getDataModel();
+
+    private VirtualClock mClock;
+
+    @Before
+    public void setUp() {
+        // 2017-12-31 23:59:00 UTC, one minute before the new year.
+        final Calendar start = Calendar.getInstance(UTC);
+        start.clear();
+        start.set(2017, Calendar.DECEMBER, 31, 23, 59, 0);
+
+        mClock = new VirtualClock(start.getTimeInMillis(), HOUR_IN_MILLIS, UTC);
+        mDataModel.setClock(mClock);
+    }
+
+    @After
+    public void tearDown() {
+        mDataModel.setClock(null);
+    }
+
+    @Test
+    public void advance_crossesDayBoundary() {
+        assertDate(2017, Calendar.DECEMBER, 31, 23, 59);
+        assertEquals(HOUR_IN_MILLIS, mDataModel.elapsedRealtime());
+
+        mClock.advance(2 * MINUTE_IN_MILLIS);
+
+        assertDate(2018, Calendar.JANUARY, 1, 0, 1);
+        assertEquals(HOUR_IN_MILLIS + 2 * MINUTE_IN_MILLIS, mDataModel.elapsedRealtime());
+    }
+
+    @Test
+    public void advanceDays_keepsTimeOfDay() {
+        mClock.advanceDays(2);
+
+        assertDate(2018, Calendar.JANUARY, 2, 23, 59);
+    }
+
+    @Test
+    public void setTimeZone_crossesDayBoundaryWithoutTimePassing() {
+        final long now = mDataModel.currentTimeMillis();
+
+        mClock.setTimeZone(TimeZone.getTimeZone("GMT+01:00"));
+
+        assertEquals(now, mDataModel.currentTimeMillis());
+        assertDate(2018, Calendar.JANUARY, 1, 0, 59);
+    }
+
+    @Test
+    public void reboot_restartsElapsedRealtimeOnly() {
+        mClock.advance(2 * MINUTE_IN_MILLIS);
+        mClock.reboot(MINUTE_IN_MILLIS);
+
+        assertEquals(MINUTE_IN_MILLIS, mDataModel.elapsedRealtime());
+        assertDate(2018, Calendar.JANUARY, 1, 0, 1);
+    }
+
+    private void assertDate(int year, int month, int day, int hour, int minute) {
+        final Calendar calendar = mDataModel.getCalendar();
+        assertEquals(year, calendar.get(Calendar.YEAR));
+        assertEquals(month, calendar.get(Calendar.MONTH));
+        assertEquals(day, calendar.get(Calendar.DAY_OF_MONTH));
+        assertEquals(hour, calendar.get(Calendar.HOUR_OF_DAY));
+        assertEquals(minute, calendar.get(Calendar.MINUTE));
+    }
+}